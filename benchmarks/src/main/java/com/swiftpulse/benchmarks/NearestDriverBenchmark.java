@@ -0,0 +1,127 @@
+package com.swiftpulse.benchmarks;
+
+import com.swiftpulse.common.geo.GeoDistance;
+import com.swiftpulse.common.geo.GeoPointArray;
+import com.swiftpulse.common.geo.ProximityFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shortlisting the 32 nearest of many drivers around a pickup point:
+ * <ul>
+ *   <li>{@code haversineScan}: haversine for every driver over entity-like objects with
+ *       boxed coordinates, as dispatch did before the proximity filter;</li>
+ *   <li>{@code proximityFilterList}: {@link ProximityFilter} tiers over the same objects,
+ *       as live dispatch does for a region's candidates;</li>
+ *   <li>{@code proximityFilterPointArray}: the chord scan over a {@link GeoPointArray}
+ *       built once, as the shipment rebuild replay does for a batch.</li>
+ * </ul>
+ * Drivers are spread over about 110 x 70 km around Berlin; pickups rotate through 1,024
+ * points in the same area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearestDriverBenchmark {
+    
+    private static final int SHORTLIST = 32;
+    private static final double RADIUS_KM = 50;
+    
+    /** Mirrors the JPA entity: boxed coordinates behind getters. */
+    public static final class DriverRow {
+        
+        private final Long id;
+        private final Double currentLatitude;
+        private final Double currentLongitude;
+        
+        DriverRow(Long id, Double currentLatitude, Double currentLongitude) {
+            this.id = id;
+            this.currentLatitude = currentLatitude;
+            this.currentLongitude = currentLongitude;
+        }
+        
+        public Long getId() { return id; }
+        public Double getCurrentLatitude() { return currentLatitude; }
+        public Double getCurrentLongitude() { return currentLongitude; }
+    }
+    
+    @Param({"1000", "100000"})
+    public int drivers;
+    
+    private List<DriverRow> rows;
+    private List<GeoPointArray<DriverRow>> pointArray;
+    private double[][] pickups;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rows = new ArrayList<>(drivers);
+        for (long i = 0; i < drivers; i++) {
+            rows.add(new DriverRow(i, 52.0 + random.nextDouble(), 12.9 + random.nextDouble()));
+        }
+        pointArray = List.of(GeoPointArray.of(rows, DriverRow::getCurrentLatitude, DriverRow::getCurrentLongitude));
+        pickups = new double[1024][];
+        for (int i = 0; i < pickups.length; i++) {
+            pickups[i] = new double[] {52.0 + random.nextDouble(), 12.9 + random.nextDouble()};
+        }
+    }
+    
+    private double[] nextPickup() {
+        next = (next + 1) & (pickups.length - 1);
+        return pickups[next];
+    }
+    
+    @Benchmark
+    public List<DriverRow> haversineScan() {
+        double[] pickup = nextPickup();
+        PriorityQueue<double[]> farthestFirst = new PriorityQueue<>(Comparator.comparingDouble((double[] e) -> e[0]).reversed());
+        for (int i = 0; i < rows.size(); i++) {
+            DriverRow row = rows.get(i);
+            double km = GeoDistance.haversineKm(pickup[0], pickup[1], row.getCurrentLatitude(), row.getCurrentLongitude());
+            if (farthestFirst.size() < SHORTLIST) {
+                farthestFirst.add(new double[] {km, i});
+            } else if (km < farthestFirst.peek()[0]) {
+                farthestFirst.poll();
+                farthestFirst.add(new double[] {km, i});
+            }
+        }
+        List<DriverRow> nearest = new ArrayList<>(farthestFirst.size());
+        while (!farthestFirst.isEmpty()) {
+            nearest.add(0, rows.get((int) farthestFirst.poll()[1]));
+        }
+        return nearest;
+    }
+    
+    @Benchmark
+    public List<DriverRow> proximityFilterList() {
+        double[] pickup = nextPickup();
+        return new ProximityFilter(pickup[0], pickup[1], RADIUS_KM)
+                .nearest(rows, DriverRow::getCurrentLatitude, DriverRow::getCurrentLongitude, SHORTLIST);
+    }
+    
+    @Benchmark
+    public List<DriverRow> proximityFilterPointArray() {
+        double[] pickup = nextPickup();
+        return new ProximityFilter(pickup[0], pickup[1], RADIUS_KM).nearest(pointArray, SHORTLIST);
+    }
+}
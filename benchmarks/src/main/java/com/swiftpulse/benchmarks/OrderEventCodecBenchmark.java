@@ -0,0 +1,71 @@
+package com.swiftpulse.benchmarks;
+
+import com.swiftpulse.common.event.OrderCreatedEvent;
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderEventBinaryCodec;
+import com.swiftpulse.common.event.OrderEventJsonCodec;
+import com.swiftpulse.common.event.OrderEventType;
+import com.swiftpulse.common.event.schema.OrderEventSchema;
+import com.swiftpulse.common.event.schema.OrderEventSchemas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of the binary order event codec against the streaming
+ * JSON codec for a typical {@code ORDER_CREATED} event. Payload sizes are printed at
+ * setup so a run reports both dimensions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderEventCodecBenchmark {
+    
+    private OrderCreatedEvent event;
+    private OrderEventSchema schema;
+    private byte[] json;
+    private byte[] binary;
+    
+    @Setup
+    public void setUp() {
+        event = new OrderCreatedEvent(1048576L, 20481L, "ORD0001048576", "TRK-7F3A9C21", "Friedrichstrasse 43, 10117 Berlin",
+                "Karl-Marx-Allee 90, 10243 Berlin", 52.5069, 13.3904, 52.5176, 13.4341, 4.75, "HIGH", Instant.now());
+        schema = OrderEventSchemas.current(OrderEventType.ORDER_CREATED);
+        json = OrderEventJsonCodec.encode(event);
+        binary = OrderEventBinaryCodec.encode(event, schema);
+        System.out.printf("%nORDER_CREATED payload: JSON %d bytes, binary %d bytes%n", json.length, binary.length);
+    }
+    
+    @Benchmark
+    public byte[] encodeJson() {
+        return OrderEventJsonCodec.encode(event);
+    }
+    
+    @Benchmark
+    public byte[] encodeBinary() {
+        return OrderEventBinaryCodec.encode(event, schema);
+    }
+    
+    @Benchmark
+    public OrderEvent decodeJson() {
+        return OrderEventJsonCodec.decode(json);
+    }
+    
+    @Benchmark
+    public OrderEvent decodeBinary() {
+        return OrderEventBinaryCodec.decode(binary, schema);
+    }
+}
@@ -0,0 +1,130 @@
+package com.swiftpulse.benchmarks.loadtest;
+
+import com.swiftpulse.common.jvm.PinnedThreadMonitor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Spring MVC app on embedded Tomcat whose requests spend their time blocked, the way
+ * the servlet services wait on JDBC, Kafka acks and SMTP. It runs with the services'
+ * default Tomcat settings apart from the connection limits, which are raised so 10,000
+ * clients can be connected at once; {@code spring.threads.virtual.enabled} picks the
+ * mode. {@link VirtualThreadLoadTest} starts one per run.
+ */
+@SpringBootApplication
+@RestController
+public class LoadTestServer {
+    
+    private static final long MB = 1024 * 1024;
+    private static final int LOCK_STRIPES = 4096;
+    
+    private final PinnedThreadMonitor monitor;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicLong liveHeap = new AtomicLong(-1);
+    
+    public LoadTestServer(PinnedThreadMonitor monitor) {
+        this.monitor = monitor;
+        Arrays.setAll(locks, i -> new Object());
+    }
+    
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(LoadTestServer.class);
+        application.setDefaultProperties(Map.of(
+                "server.tomcat.max-connections", "20000",
+                "server.tomcat.accept-count", "10000",
+                "spring.main.banner-mode", "off",
+                "logging.level.root", "WARN"));
+        application.run(args);
+    }
+    
+    @Bean(destroyMethod = "close")
+    static PinnedThreadMonitor pinnedThreadMonitor() {
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(20));
+        monitor.start();
+        return monitor;
+    }
+    
+    /** Blocks for {@code ms}, standing in for a repository call or a Kafka send. */
+    @GetMapping("/io")
+    public Map<String, Object> io(@RequestParam(name = "ms", defaultValue = "50") long ms) throws InterruptedException {
+        Thread.sleep(ms);
+        return Map.of("virtual", Thread.currentThread().isVirtual());
+    }
+    
+    /**
+     * The same wait inside a {@code synchronized} block. The monitors are striped, so
+     * requests hardly contend, but a virtual thread cannot unmount and keeps its carrier.
+     * They are shared fields because the JIT removes locks on objects that never escape.
+     */
+    @GetMapping("/io-synchronized")
+    public Map<String, Object> ioSynchronized(@RequestParam(name = "ms", defaultValue = "50") long ms) throws InterruptedException {
+        synchronized (locks[ThreadLocalRandom.current().nextInt(LOCK_STRIPES)]) {
+            Thread.sleep(ms);
+        }
+        return Map.of("virtual", Thread.currentThread().isVirtual());
+    }
+    
+    /**
+     * Starts a measurement: clears the peaks and, {@code sampleAfterMs} later, takes the
+     * heap left after a full collection, which is what the requests in flight keep alive.
+     * The sample runs on a platform thread of its own, so it does not queue behind them.
+     */
+    @PostMapping("/stats/reset")
+    public void resetStats(@RequestParam(name = "sampleAfterMs", defaultValue = "0") long sampleAfterMs) {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        liveHeap.set(-1);
+        CompletableFuture.runAsync(() -> {
+            System.gc();
+            liveHeap.set(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }, CompletableFuture.delayedExecutor(sampleAfterMs, TimeUnit.MILLISECONDS,
+                runnable -> Thread.ofPlatform().daemon().start(runnable)));
+    }
+    
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        return Map.of(
+                "liveHeapMb", liveHeap.get() >= 0 ? liveHeap.get() / MB : "-",
+                "peakHeapMb", peakHeap / MB,
+                "peakRssMb", peakRssKb() / 1024,
+                "peakThreads", ManagementFactory.getThreadMXBean().getPeakThreadCount(),
+                "pinned", monitor.pinnedCount());
+    }
+    
+    /** The process's peak resident set size; -1 outside Linux. */
+    private static long peakRssKb() {
+        try {
+            return Files.readAllLines(Path.of("/proc/self/status")).stream()
+                    .filter(line -> line.startsWith("VmHWM:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1L);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.swiftpulse.benchmarks.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the platform-thread and virtual-thread modes of a Spring MVC service holding
+ * 10,000 concurrent requests that mostly wait on I/O. Each run starts a fresh
+ * {@link LoadTestServer} JVM with {@code -Djdk.tracePinnedThreads=short}. Every client
+ * keeps exactly one request in flight, so the server always has {@code concurrency} of
+ * them. A 10 s round connects all clients and warms both JVMs up; only the timed round
+ * after it is reported. The last run waits inside {@code synchronized} to show what
+ * pinning costs, and that both the JFR monitor and the JVM trace report it.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks.jar
+ * com.swiftpulse.benchmarks.loadtest.VirtualThreadLoadTest [concurrency] [io-ms] [seconds] [server-heap]}
+ */
+public class VirtualThreadLoadTest {
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Pattern PINNED_TRACE = Pattern.compile("<== monitors:");
+    
+    private record Scenario(String name, boolean virtualThreads, String path) {
+    }
+    
+    /** {@code failure} is set when the server died during the run; its stats are then missing. */
+    private record Result(Scenario scenario, Tally tally, double seconds, Map<String, Object> stats, int tracedPins,
+                          String failure) {
+        
+        String row() {
+            String row = String.format("%-22s %,10.0f %8d %8d %8d %7d %8s %9s %9s %8s %7s %7d", scenario.name(),
+                    tally.requests.sum() / seconds, tally.percentile(0.50), tally.percentile(0.99), tally.max(),
+                    tally.errors.sum(), stats.getOrDefault("peakThreads", "-"), stats.getOrDefault("liveHeapMb", "-"),
+                    stats.getOrDefault("peakHeapMb", "-"), stats.getOrDefault("peakRssMb", "-"),
+                    stats.getOrDefault("pinned", "-"), tracedPins);
+            return failure != null ? row + "  " + failure : row;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long ioMs = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String heap = args.length > 3 ? args[3] : "1g";
+        
+        List<Scenario> scenarios = List.of(
+                new Scenario("platform", false, "/io"),
+                new Scenario("virtual", true, "/io"),
+                new Scenario("virtual, synchronized", true, "/io-synchronized"));
+        System.out.printf("%,d concurrent requests, %d ms blocking I/O each, %d s per run, %s server heap, %d CPUs%n",
+                concurrency, ioMs, seconds, heap, Runtime.getRuntime().availableProcessors());
+        
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            Result result = run(scenario, concurrency, ioMs, seconds, heap);
+            System.out.println(result.row());
+            results.add(result);
+        }
+        
+        System.out.printf("%n%-22s %10s %8s %8s %8s %7s %8s %9s %9s %8s %7s %7s%n", "mode", "req/s", "p50 ms", "p99 ms",
+                "max ms", "errors", "threads", "live MB", "heap MB", "RSS MB", "pinned", "traced");
+        results.forEach(result -> System.out.println(result.row()));
+    }
+    
+    private static Result run(Scenario scenario, int concurrency, long ioMs, int seconds, String heap) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path serverLog = Files.createTempFile("load-test-server-", ".log");
+        Process server = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xms" + heap, "-Xmx" + heap, "-XX:+ExitOnOutOfMemoryError", "-Djdk.tracePinnedThreads=short",
+                "-cp", System.getProperty("java.class.path"),
+                LoadTestServer.class.getName(),
+                "--server.port=" + port,
+                "--spring.threads.virtual.enabled=" + scenario.virtualThreads())
+                .redirectErrorStream(true)
+                .redirectOutput(serverLog.toFile())
+                .start();
+        
+        ExecutorService callbacks = Executors.newFixedThreadPool(2);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(callbacks)
+                .build();
+        try {
+            URI base = URI.create("http://localhost:" + port);
+            awaitReady(client, base.resolve("/stats"), server);
+            HttpRequest request = HttpRequest.newBuilder(base.resolve(scenario.path() + "?ms=" + ioMs))
+                    .timeout(REQUEST_TIMEOUT).build();
+            
+            System.out.printf("%s: connecting %,d clients and warming up%n", scenario.name(), concurrency);
+            Tally warmUp = drive(client, request, concurrency, System.nanoTime() + WARM_UP.toNanos());
+            if (!server.isAlive()) {
+                return new Result(scenario, warmUp, WARM_UP.toSeconds(), Map.of(), countTracedPins(serverLog),
+                        exitReason(server, serverLog) + " during warm-up");
+            }
+            // The server samples its live heap halfway through the timed round
+            try {
+                send(client, HttpRequest.newBuilder(base.resolve("/stats/reset?sampleAfterMs=" + seconds * 500L))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build());
+            } catch (IOException e) {
+                return new Result(scenario, warmUp, WARM_UP.toSeconds(), Map.of(), countTracedPins(serverLog),
+                        exitReason(server, serverLog) + " after warm-up");
+            }
+            
+            System.out.printf("%s: measuring for %d s%n", scenario.name(), seconds);
+            long start = System.nanoTime();
+            Tally tally = drive(client, request, concurrency, start + TimeUnit.SECONDS.toNanos(seconds));
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            try {
+                Map<String, Object> stats = OBJECT_MAPPER.readValue(
+                        send(client, HttpRequest.newBuilder(base.resolve("/stats")).build()), new TypeReference<>() { });
+                return new Result(scenario, tally, elapsed, stats, countTracedPins(serverLog), null);
+            } catch (IOException e) {
+                return new Result(scenario, tally, elapsed, Map.of(), countTracedPins(serverLog), exitReason(server, serverLog));
+            }
+        } finally {
+            server.destroy();
+            server.waitFor(30, TimeUnit.SECONDS);
+            callbacks.shutdownNow();
+        }
+    }
+    
+    /** Keeps one request per client in flight until {@code deadline}; every client sends at least once. */
+    private static Tally drive(HttpClient client, HttpRequest request, int concurrency, long deadline) throws InterruptedException {
+        Tally tally = new Tally();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            loop(client, request, deadline, tally, done);
+        }
+        done.await();
+        return tally;
+    }
+    
+    private static void loop(HttpClient client, HttpRequest request, long deadline, Tally tally, CountDownLatch done) {
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long end = System.nanoTime();
+            if (error == null && response.statusCode() == 200) {
+                tally.record(TimeUnit.NANOSECONDS.toMillis(end - start));
+            } else {
+                tally.errors.increment();
+            }
+            if (end < deadline) {
+                loop(client, request, deadline, tally, done);
+            } else {
+                done.countDown();
+            }
+        });
+    }
+    
+    private static void awaitReady(HttpClient client, URI stats, Process server) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Load test server exited with " + server.exitValue());
+            }
+            try {
+                send(client, HttpRequest.newBuilder(stats).build());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(250);
+            }
+        }
+        throw new IllegalStateException("Load test server did not start within 120 s");
+    }
+    
+    private static String send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+    
+    /** Why the server stopped answering; waits for it to exit, since a request can fail before it does. */
+    private static String exitReason(Process server, Path serverLog) throws IOException, InterruptedException {
+        if (!server.waitFor(30, TimeUnit.SECONDS)) {
+            return "server stopped answering";
+        }
+        return Files.readString(serverLog).contains("OutOfMemoryError") ? "server ran out of heap"
+                : "server exited with " + server.exitValue();
+    }
+    
+    /** Stacks printed by {@code -Djdk.tracePinnedThreads}; the JVM prints each distinct pinned stack once. */
+    private static int countTracedPins(Path serverLog) throws IOException {
+        Matcher matcher = PINNED_TRACE.matcher(Files.readString(serverLog));
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+    
+    /** Request count, errors and a latency histogram with 1 ms buckets. */
+    private static final class Tally {
+        
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray((int) REQUEST_TIMEOUT.toMillis() + 1);
+        
+        void record(long millis) {
+            requests.increment();
+            histogram.incrementAndGet((int) Math.min(millis, histogram.length() - 1));
+        }
+        
+        long percentile(double quantile) {
+            long target = (long) Math.ceil(requests.sum() * quantile);
+            long seen = 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                seen += histogram.get(i);
+                if (seen >= target && seen > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+        
+        long max() {
+            for (int i = histogram.length() - 1; i >= 0; i--) {
+                if (histogram.get(i) > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+
+public record DriverAssignedEvent(
+        Long orderId,
+        Long customerId,
+        String orderNumber,
+        String trackingNumber,
+        Long driverId,
+        Instant timestamp) implements OrderEvent {
+    
+    @Override
+    public OrderEventType eventType() {
+        return OrderEventType.DRIVER_ASSIGNED;
+    }
+}
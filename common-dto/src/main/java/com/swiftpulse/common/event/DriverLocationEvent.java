@@ -0,0 +1,24 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+
+/**
+ * A driver position ping on the driver-locations topic, keyed by driver id. Order fields
+ * are only set while the driver is on a delivery; tracking-service keeps history for
+ * those, shipping-service uses every ping for dispatch.
+ */
+public record DriverLocationEvent(
+        Long driverId,
+        String driverName,
+        Long orderId,
+        String trackingNumber,
+        Double latitude,
+        Double longitude,
+        Double speed,
+        Double heading,
+        String status,
+        String notes,
+        Instant timestamp) {
+    
+    public static final String TOPIC = "driver-locations";
+}
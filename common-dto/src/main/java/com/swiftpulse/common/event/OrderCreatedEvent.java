@@ -0,0 +1,24 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+
+public record OrderCreatedEvent(
+        Long orderId,
+        Long customerId,
+        String orderNumber,
+        String trackingNumber,
+        String pickupAddress,
+        String deliveryAddress,
+        Double pickupLatitude,
+        Double pickupLongitude,
+        Double deliveryLatitude,
+        Double deliveryLongitude,
+        Double weight,
+        String priorityLevel,
+        Instant timestamp) implements OrderEvent {
+    
+    @Override
+    public OrderEventType eventType() {
+        return OrderEventType.ORDER_CREATED;
+    }
+}
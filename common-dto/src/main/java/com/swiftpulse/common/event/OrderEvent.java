@@ -0,0 +1,18 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+
+public sealed interface OrderEvent permits OrderCreatedEvent, OrderStatusUpdatedEvent, DriverAssignedEvent {
+    
+    OrderEventType eventType();
+    
+    Long orderId();
+    
+    Long customerId();
+    
+    String orderNumber();
+    
+    String trackingNumber();
+    
+    Instant timestamp();
+}
@@ -0,0 +1,166 @@
+package com.swiftpulse.common.event;
+
+import com.swiftpulse.common.event.schema.OrderEventSchema;
+import com.swiftpulse.common.event.schema.OrderEventSchema.Field;
+import com.swiftpulse.common.event.schema.OrderEventSchema.FieldType;
+import com.swiftpulse.common.event.schema.OrderEventSchemas;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of order events, modelled on Avro's binary format: the
+ * schema is not embedded in the payload, only its registry id travels in a record
+ * header. A record is a null bitmap followed by the non-null values in schema order;
+ * integers are zig-zag varints, doubles are 8 bytes little-endian and strings are a
+ * varint length followed by UTF-8 bytes.
+ */
+public final class OrderEventBinaryCodec {
+    
+    private OrderEventBinaryCodec() {}
+    
+    public static byte[] encode(OrderEvent event, OrderEventSchema schema) {
+        if (event.eventType() != schema.eventType()) {
+            throw new IllegalArgumentException("Schema for " + schema.eventType() + " cannot encode " + event.eventType());
+        }
+        
+        List<Field> fields = schema.fields();
+        Writer writer = new Writer(128);
+        int bitmapLength = (fields.size() + 7) >>> 3;
+        writer.skip(bitmapLength);
+        
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            Object value = OrderEventFields.get(event, field.name());
+            if (value == null) {
+                writer.buffer[i >>> 3] |= (byte) (1 << (i & 7));
+                continue;
+            }
+            switch (field.type()) {
+                case LONG -> writer.writeVarLong(((Long) value).longValue());
+                case DOUBLE -> writer.writeDouble(((Double) value).doubleValue());
+                case STRING -> writer.writeString((String) value);
+                case INSTANT -> {
+                    Instant instant = (Instant) value;
+                    writer.writeVarLong(instant.getEpochSecond());
+                    writer.writeVarLong(instant.getNano());
+                }
+            }
+        }
+        
+        return writer.toByteArray();
+    }
+    
+    /**
+     * Decodes a record written with {@code writerSchema}. Fields are matched to this
+     * reader's schema by name and their values promoted to the reader's type; fields the
+     * reader does not know are skipped.
+     */
+    public static OrderEvent decode(byte[] data, OrderEventSchema writerSchema) {
+        List<Field> fields = writerSchema.fields();
+        FieldType[] readerTypes = OrderEventSchemas.readerTypes(writerSchema);
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int bitmapLength = (fields.size() + 7) >>> 3;
+        buffer.position(bitmapLength);
+        
+        OrderEventFields result = new OrderEventFields();
+        result.eventType = writerSchema.eventType();
+        
+        for (int i = 0; i < fields.size(); i++) {
+            if ((data[i >>> 3] & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            Field field = fields.get(i);
+            Object value = switch (field.type()) {
+                case LONG -> readVarLong(buffer);
+                case DOUBLE -> buffer.getDouble();
+                case STRING -> {
+                    int length = (int) readVarLong(buffer);
+                    String string = new String(data, buffer.position(), length, StandardCharsets.UTF_8);
+                    buffer.position(buffer.position() + length);
+                    yield string;
+                }
+                case INSTANT -> {
+                    long seconds = readVarLong(buffer);
+                    long nanos = readVarLong(buffer);
+                    yield Instant.ofEpochSecond(seconds, nanos);
+                }
+            };
+            if (readerTypes[i] != null) {
+                result.set(field.name(), field.type().promote(value, readerTypes[i]));
+            }
+        }
+        
+        return result.build();
+    }
+    
+    private static long readVarLong(ByteBuffer buffer) {
+        long raw = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint in order event");
+            }
+            b = buffer.get();
+            raw |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+    
+    private static final class Writer {
+        
+        private byte[] buffer;
+        private int position;
+        
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+        
+        void skip(int length) {
+            ensureCapacity(length);
+            position += length;
+        }
+        
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[position++] = (byte) zigZag;
+        }
+        
+        void writeDouble(double value) {
+            ensureCapacity(8);
+            long bits = Double.doubleToLongBits(value);
+            for (int i = 0; i < 8; i++) {
+                buffer[position++] = (byte) (bits >>> (i * 8));
+            }
+        }
+        
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+        
+        private void ensureCapacity(int additional) {
+            if (position + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.swiftpulse.common.event;
+
+import com.swiftpulse.common.event.schema.SchemaRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+import java.util.Set;
+
+public class OrderEventDeserializer implements Deserializer<OrderEvent> {
+    
+    private Map<String, ?> configs = Map.of();
+    private Set<String> acceptedTypes;
+    private volatile SchemaRegistry schemaRegistry;
+    
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.configs = configs;
+        this.acceptedTypes = OrderEventSerdeConfig.acceptedTypes(configs);
+    }
+    
+    @Override
+    public OrderEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return OrderEventJsonCodec.decode(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to deserialize order event from topic " + topic, e);
+        }
+    }
+    
+    @Override
+    public OrderEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null || isSkipped(headers)) {
+            return null;
+        }
+        if (!OrderEventHeaders.BINARY_CONTENT_TYPE.equals(OrderEventHeaders.contentType(headers))) {
+            return deserialize(topic, data);
+        }
+        
+        try {
+            return OrderEventBinaryCodec.decode(data, schemaRegistry().getById(OrderEventHeaders.schemaId(headers)));
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to deserialize binary order event from topic " + topic, e);
+        }
+    }
+    
+    private boolean isSkipped(Headers headers) {
+        if (acceptedTypes == null) {
+            return false;
+        }
+        String eventType = OrderEventHeaders.eventType(headers);
+        return eventType != null && !acceptedTypes.contains(eventType);
+    }
+    
+    private SchemaRegistry schemaRegistry() {
+        SchemaRegistry registry = schemaRegistry;
+        if (registry == null) {
+            registry = OrderEventSerdeConfig.schemaRegistry(configs);
+            schemaRegistry = registry;
+        }
+        return registry;
+    }
+}
@@ -0,0 +1,110 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+
+/**
+ * Mutable accumulator shared by the decoders, which read fields in wire order and
+ * only know the event type once the whole record has been seen.
+ */
+final class OrderEventFields {
+    
+    OrderEventType eventType;
+    Long orderId;
+    Long customerId;
+    String orderNumber;
+    String trackingNumber;
+    String pickupAddress;
+    String deliveryAddress;
+    Double pickupLatitude;
+    Double pickupLongitude;
+    Double deliveryLatitude;
+    Double deliveryLongitude;
+    Double weight;
+    String priorityLevel;
+    String previousStatus;
+    String newStatus;
+    Long assignedDriverId;
+    Long driverId;
+    Instant timestamp;
+    
+    void set(String field, Object value) {
+        switch (field) {
+            case "orderId" -> orderId = (Long) value;
+            case "customerId" -> customerId = (Long) value;
+            case "orderNumber" -> orderNumber = (String) value;
+            case "trackingNumber" -> trackingNumber = (String) value;
+            case "pickupAddress" -> pickupAddress = (String) value;
+            case "deliveryAddress" -> deliveryAddress = (String) value;
+            case "pickupLatitude" -> pickupLatitude = (Double) value;
+            case "pickupLongitude" -> pickupLongitude = (Double) value;
+            case "deliveryLatitude" -> deliveryLatitude = (Double) value;
+            case "deliveryLongitude" -> deliveryLongitude = (Double) value;
+            case "weight" -> weight = (Double) value;
+            case "priorityLevel" -> priorityLevel = (String) value;
+            case "previousStatus" -> previousStatus = (String) value;
+            case "newStatus" -> newStatus = (String) value;
+            case "assignedDriverId" -> assignedDriverId = (Long) value;
+            case "driverId" -> driverId = (Long) value;
+            case "timestamp" -> timestamp = (Instant) value;
+            default -> {
+                // Field added by a newer writer schema, ignored by this reader
+            }
+        }
+    }
+    
+    static Object get(OrderEvent event, String field) {
+        switch (field) {
+            case "orderId": return event.orderId();
+            case "customerId": return event.customerId();
+            case "orderNumber": return event.orderNumber();
+            case "trackingNumber": return event.trackingNumber();
+            case "timestamp": return event.timestamp();
+            default:
+                break;
+        }
+        
+        if (event instanceof OrderCreatedEvent created) {
+            switch (field) {
+                case "pickupAddress": return created.pickupAddress();
+                case "deliveryAddress": return created.deliveryAddress();
+                case "pickupLatitude": return created.pickupLatitude();
+                case "pickupLongitude": return created.pickupLongitude();
+                case "deliveryLatitude": return created.deliveryLatitude();
+                case "deliveryLongitude": return created.deliveryLongitude();
+                case "weight": return created.weight();
+                case "priorityLevel": return created.priorityLevel();
+                default: return null;
+            }
+        } else if (event instanceof OrderStatusUpdatedEvent updated) {
+            switch (field) {
+                case "previousStatus": return updated.previousStatus();
+                case "newStatus": return updated.newStatus();
+                case "assignedDriverId": return updated.assignedDriverId();
+                default: return null;
+            }
+        } else if (event instanceof DriverAssignedEvent assigned) {
+            return "driverId".equals(field) ? assigned.driverId() : null;
+        }
+        return null;
+    }
+    
+    OrderEvent build() {
+        if (eventType == null) {
+            throw new IllegalArgumentException("Order event is missing eventType");
+        }
+        
+        switch (eventType) {
+            case ORDER_CREATED:
+                return new OrderCreatedEvent(orderId, customerId, orderNumber, trackingNumber,
+                        pickupAddress, deliveryAddress, pickupLatitude, pickupLongitude,
+                        deliveryLatitude, deliveryLongitude, weight, priorityLevel, timestamp);
+            case ORDER_STATUS_UPDATED:
+                return new OrderStatusUpdatedEvent(orderId, customerId, orderNumber, trackingNumber,
+                        previousStatus, newStatus, assignedDriverId, timestamp);
+            case DRIVER_ASSIGNED:
+                return new DriverAssignedEvent(orderId, customerId, orderNumber, trackingNumber, driverId, timestamp);
+            default:
+                throw new IllegalArgumentException("Unsupported order event type: " + eventType);
+        }
+    }
+}
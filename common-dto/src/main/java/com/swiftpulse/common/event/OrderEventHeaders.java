@@ -0,0 +1,63 @@
+package com.swiftpulse.common.event;
+
+import com.swiftpulse.common.event.schema.OrderEventSchemas;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public final class OrderEventHeaders {
+    
+    public static final String CONTENT_TYPE = "content-type";
+    public static final String SCHEMA_ID = "schema-id";
+    public static final String EVENT_TYPE = "event-type";
+    public static final String SCHEMA_VERSION = "schema-version";
+    public static final String AGGREGATE_ID = "aggregate-id";
+    
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    public static final String BINARY_CONTENT_TYPE = "application/vnd.swiftpulse.order-event+binary";
+    
+    private OrderEventHeaders() {}
+    
+    public static String contentType(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(CONTENT_TYPE) : null;
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : JSON_CONTENT_TYPE;
+    }
+    
+    public static int schemaId(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(SCHEMA_ID) : null;
+        if (header == null || header.value().length != Integer.BYTES) {
+            throw new IllegalArgumentException("Binary order event is missing a valid " + SCHEMA_ID + " header");
+        }
+        return ByteBuffer.wrap(header.value()).getInt();
+    }
+    
+    public static void stamp(Headers headers, OrderEvent event) {
+        headers.add(EVENT_TYPE, event.eventType().name().getBytes(StandardCharsets.UTF_8));
+        headers.add(SCHEMA_VERSION, ByteBuffer.allocate(Integer.BYTES)
+            .putInt(OrderEventSchemas.current(event.eventType()).version()).array());
+        if (event.orderId() != null) {
+            headers.add(AGGREGATE_ID, event.orderId().toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    /**
+     * Returns the event type name stamped by the publisher, or {@code null} for records
+     * written before the header existed.
+     */
+    public static String eventType(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(EVENT_TYPE) : null;
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+    
+    static void setContentType(Headers headers, String contentType) {
+        headers.remove(CONTENT_TYPE);
+        headers.add(CONTENT_TYPE, contentType.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static void setSchemaId(Headers headers, int schemaId) {
+        headers.remove(SCHEMA_ID);
+        headers.add(SCHEMA_ID, ByteBuffer.allocate(Integer.BYTES).putInt(schemaId).array());
+    }
+}
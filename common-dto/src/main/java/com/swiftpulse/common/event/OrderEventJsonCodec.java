@@ -0,0 +1,182 @@
+package com.swiftpulse.common.event;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Streaming JSON codec for order events. Field names are pre-encoded and values are
+ * written and read directly, without going through a {@code Map} or reflection-based
+ * data binding. The wire format is the same flat JSON object the publisher used to
+ * produce, so it stays readable by tools and older consumers.
+ */
+public final class OrderEventJsonCodec {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private static final SerializableString EVENT_TYPE = new SerializedString("eventType");
+    private static final SerializableString ORDER_ID = new SerializedString("orderId");
+    private static final SerializableString CUSTOMER_ID = new SerializedString("customerId");
+    private static final SerializableString ORDER_NUMBER = new SerializedString("orderNumber");
+    private static final SerializableString TRACKING_NUMBER = new SerializedString("trackingNumber");
+    private static final SerializableString PICKUP_ADDRESS = new SerializedString("pickupAddress");
+    private static final SerializableString DELIVERY_ADDRESS = new SerializedString("deliveryAddress");
+    private static final SerializableString PICKUP_LATITUDE = new SerializedString("pickupLatitude");
+    private static final SerializableString PICKUP_LONGITUDE = new SerializedString("pickupLongitude");
+    private static final SerializableString DELIVERY_LATITUDE = new SerializedString("deliveryLatitude");
+    private static final SerializableString DELIVERY_LONGITUDE = new SerializedString("deliveryLongitude");
+    private static final SerializableString WEIGHT = new SerializedString("weight");
+    private static final SerializableString PRIORITY_LEVEL = new SerializedString("priorityLevel");
+    private static final SerializableString PREVIOUS_STATUS = new SerializedString("previousStatus");
+    private static final SerializableString NEW_STATUS = new SerializedString("newStatus");
+    private static final SerializableString ASSIGNED_DRIVER_ID = new SerializedString("assignedDriverId");
+    private static final SerializableString DRIVER_ID = new SerializedString("driverId");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    
+    private OrderEventJsonCodec() {}
+    
+    public static byte[] encode(OrderEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            writeString(generator, EVENT_TYPE, event.eventType().name());
+            writeLong(generator, ORDER_ID, event.orderId());
+            writeLong(generator, CUSTOMER_ID, event.customerId());
+            writeString(generator, ORDER_NUMBER, event.orderNumber());
+            writeString(generator, TRACKING_NUMBER, event.trackingNumber());
+            
+            if (event instanceof OrderCreatedEvent created) {
+                writeString(generator, PICKUP_ADDRESS, created.pickupAddress());
+                writeString(generator, DELIVERY_ADDRESS, created.deliveryAddress());
+                writeDouble(generator, PICKUP_LATITUDE, created.pickupLatitude());
+                writeDouble(generator, PICKUP_LONGITUDE, created.pickupLongitude());
+                writeDouble(generator, DELIVERY_LATITUDE, created.deliveryLatitude());
+                writeDouble(generator, DELIVERY_LONGITUDE, created.deliveryLongitude());
+                writeDouble(generator, WEIGHT, created.weight());
+                writeString(generator, PRIORITY_LEVEL, created.priorityLevel());
+            } else if (event instanceof OrderStatusUpdatedEvent updated) {
+                writeString(generator, PREVIOUS_STATUS, updated.previousStatus());
+                writeString(generator, NEW_STATUS, updated.newStatus());
+                writeLong(generator, ASSIGNED_DRIVER_ID, updated.assignedDriverId());
+            } else if (event instanceof DriverAssignedEvent assigned) {
+                writeLong(generator, DRIVER_ID, assigned.driverId());
+            }
+            
+            writeString(generator, TIMESTAMP, event.timestamp() != null ? event.timestamp().toString() : null);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode " + event.eventType() + " event", e);
+        }
+        return out.toByteArray();
+    }
+    
+    public static OrderEvent decode(byte[] data) {
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            JsonToken first = parser.nextToken();
+            if (first == JsonToken.VALUE_STRING) {
+                // Payload double-encoded as a JSON string by older publishers
+                return decode(parser.getText().getBytes(StandardCharsets.UTF_8));
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Order event must be a JSON object");
+            }
+            return readEvent(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode order event", e);
+        }
+    }
+    
+    private static OrderEvent readEvent(JsonParser parser) throws IOException {
+        OrderEventFields fields = new OrderEventFields();
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "eventType" -> {
+                    String value = readString(parser);
+                    fields.eventType = value != null ? OrderEventType.valueOf(value) : null;
+                }
+                case "orderId" -> fields.orderId = readLong(parser);
+                case "customerId" -> fields.customerId = readLong(parser);
+                case "orderNumber" -> fields.orderNumber = readString(parser);
+                case "trackingNumber" -> fields.trackingNumber = readString(parser);
+                case "pickupAddress" -> fields.pickupAddress = readString(parser);
+                case "deliveryAddress" -> fields.deliveryAddress = readString(parser);
+                case "pickupLatitude" -> fields.pickupLatitude = readDouble(parser);
+                case "pickupLongitude" -> fields.pickupLongitude = readDouble(parser);
+                case "deliveryLatitude" -> fields.deliveryLatitude = readDouble(parser);
+                case "deliveryLongitude" -> fields.deliveryLongitude = readDouble(parser);
+                case "weight" -> fields.weight = readDouble(parser);
+                case "priorityLevel" -> fields.priorityLevel = readString(parser);
+                case "previousStatus" -> fields.previousStatus = readString(parser);
+                case "newStatus" -> fields.newStatus = readString(parser);
+                case "assignedDriverId" -> fields.assignedDriverId = readLong(parser);
+                case "driverId" -> fields.driverId = readLong(parser);
+                case "timestamp" -> {
+                    String value = readString(parser);
+                    fields.timestamp = value != null ? Instant.parse(value) : null;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        
+        return fields.build();
+    }
+    
+    private static void writeString(JsonGenerator generator, SerializableString field, String value) throws IOException {
+        generator.writeFieldName(field);
+        if (value != null) {
+            generator.writeString(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+    
+    private static void writeLong(JsonGenerator generator, SerializableString field, Long value) throws IOException {
+        generator.writeFieldName(field);
+        if (value != null) {
+            generator.writeNumber(value.longValue());
+        } else {
+            generator.writeNull();
+        }
+    }
+    
+    private static void writeDouble(JsonGenerator generator, SerializableString field, Double value) throws IOException {
+        generator.writeFieldName(field);
+        if (value != null) {
+            generator.writeNumber(value.doubleValue());
+        } else {
+            generator.writeNull();
+        }
+    }
+    
+    private static String readString(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+    
+    private static Long readLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return token == JsonToken.VALUE_STRING ? Long.valueOf(parser.getText()) : parser.getLongValue();
+    }
+    
+    private static Double readDouble(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return token == JsonToken.VALUE_STRING ? Double.valueOf(parser.getText()) : parser.getDoubleValue();
+    }
+}
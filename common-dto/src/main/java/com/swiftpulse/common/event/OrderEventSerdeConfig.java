@@ -0,0 +1,59 @@
+package com.swiftpulse.common.event;
+
+import com.swiftpulse.common.event.schema.FileSchemaRegistry;
+import com.swiftpulse.common.event.schema.KafkaSchemaRegistry;
+import com.swiftpulse.common.event.schema.SchemaRegistry;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Kafka client properties understood by {@link OrderEventSerializer} and
+ * {@link OrderEventDeserializer}.
+ */
+public final class OrderEventSerdeConfig {
+    
+    /** {@code json} (default) or {@code binary}; only affects producers. */
+    public static final String ENCODING = "swiftpulse.event.encoding";
+    
+    /**
+     * Location of a file-backed schema registry, for tests and single-host setups. When
+     * unset, schemas are shared through the cluster's {@link KafkaSchemaRegistry#TOPIC}.
+     */
+    public static final String SCHEMA_REGISTRY_PATH = "swiftpulse.schema.registry.path";
+    
+    /**
+     * Comma separated event types a consumer wants. Records whose event-type header
+     * names any other type are returned as {@code null} without being parsed.
+     */
+    public static final String ACCEPTED_TYPES = "swiftpulse.event.accepted-types";
+    
+    private OrderEventSerdeConfig() {}
+    
+    static boolean binaryEncoding(Map<String, ?> configs) {
+        Object value = configs.get(ENCODING);
+        return value != null && "binary".equalsIgnoreCase(value.toString().trim());
+    }
+    
+    static Set<String> acceptedTypes(Map<String, ?> configs) {
+        Object value = configs.get(ACCEPTED_TYPES);
+        if (value == null || value.toString().isBlank()) {
+            return null;
+        }
+        return Arrays.stream(value.toString().split(","))
+            .map(String::trim)
+            .filter(type -> !type.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+    
+    static SchemaRegistry schemaRegistry(Map<String, ?> configs) {
+        Object path = configs.get(SCHEMA_REGISTRY_PATH);
+        if (path != null && !path.toString().isBlank()) {
+            return FileSchemaRegistry.forPath(Path.of(path.toString()));
+        }
+        return KafkaSchemaRegistry.forClientConfigs(configs);
+    }
+}
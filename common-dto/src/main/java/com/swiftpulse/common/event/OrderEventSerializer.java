@@ -0,0 +1,66 @@
+package com.swiftpulse.common.event;
+
+import com.swiftpulse.common.event.schema.OrderEventSchema;
+import com.swiftpulse.common.event.schema.OrderEventSchemas;
+import com.swiftpulse.common.event.schema.SchemaRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+public class OrderEventSerializer implements Serializer<OrderEvent> {
+    
+    private boolean binary;
+    private OrderEventSchema[] schemas;
+    private int[] schemaIds;
+    
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        binary = OrderEventSerdeConfig.binaryEncoding(configs);
+        if (binary) {
+            SchemaRegistry registry = OrderEventSerdeConfig.schemaRegistry(configs);
+            OrderEventType[] types = OrderEventType.values();
+            schemas = new OrderEventSchema[types.length];
+            schemaIds = new int[types.length];
+            for (OrderEventType type : types) {
+                schemas[type.ordinal()] = OrderEventSchemas.current(type);
+                schemaIds[type.ordinal()] = registry.register(schemas[type.ordinal()]);
+            }
+        }
+    }
+    
+    @Override
+    public byte[] serialize(String topic, OrderEvent event) {
+        if (event == null) {
+            return null;
+        }
+        try {
+            return OrderEventJsonCodec.encode(event);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to serialize order event for topic " + topic, e);
+        }
+    }
+    
+    @Override
+    public byte[] serialize(String topic, Headers headers, OrderEvent event) {
+        if (event == null) {
+            return null;
+        }
+        if (!binary || headers == null) {
+            if (headers != null) {
+                OrderEventHeaders.setContentType(headers, OrderEventHeaders.JSON_CONTENT_TYPE);
+            }
+            return serialize(topic, event);
+        }
+        
+        try {
+            int index = event.eventType().ordinal();
+            OrderEventHeaders.setContentType(headers, OrderEventHeaders.BINARY_CONTENT_TYPE);
+            OrderEventHeaders.setSchemaId(headers, schemaIds[index]);
+            return OrderEventBinaryCodec.encode(event, schemas[index]);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to serialize order event for topic " + topic, e);
+        }
+    }
+}
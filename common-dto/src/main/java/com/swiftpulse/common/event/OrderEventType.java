@@ -0,0 +1,7 @@
+package com.swiftpulse.common.event;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_UPDATED,
+    DRIVER_ASSIGNED
+}
@@ -0,0 +1,19 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+
+public record OrderStatusUpdatedEvent(
+        Long orderId,
+        Long customerId,
+        String orderNumber,
+        String trackingNumber,
+        String previousStatus,
+        String newStatus,
+        Long assignedDriverId,
+        Instant timestamp) implements OrderEvent {
+    
+    @Override
+    public OrderEventType eventType() {
+        return OrderEventType.ORDER_STATUS_UPDATED;
+    }
+}
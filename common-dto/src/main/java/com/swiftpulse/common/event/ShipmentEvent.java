@@ -0,0 +1,26 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Published by shipping-service on the shipment-events topic, keyed by order id,
+ * whenever a shipment is created or changes status.
+ */
+public record ShipmentEvent(
+        Long shipmentId,
+        Long orderId,
+        String trackingNumber,
+        Long driverId,
+        String status,
+        LocalDateTime estimatedPickupTime,
+        LocalDateTime estimatedDeliveryTime,
+        Double distanceKm,
+        Double pickupLatitude,
+        Double pickupLongitude,
+        Double deliveryLatitude,
+        Double deliveryLongitude,
+        Instant timestamp) {
+    
+    public static final String TOPIC = "shipment-events";
+}
@@ -0,0 +1,21 @@
+package com.swiftpulse.common.event;
+
+import java.time.Instant;
+
+/**
+ * Published by tracking-service on the tracking-events topic, keyed by order id, for
+ * every recorded position of a delivery.
+ */
+public record TrackingPositionEvent(
+        Long orderId,
+        String trackingNumber,
+        Long driverId,
+        Double latitude,
+        Double longitude,
+        Double speed,
+        Double heading,
+        String status,
+        Instant timestamp) {
+    
+    public static final String TOPIC = "tracking-events";
+}
@@ -0,0 +1,108 @@
+package com.swiftpulse.common.event.schema;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schema registry persisted as a single JSON file, for tests and single-host setups
+ * where producers and consumers share the file. Ids are schema fingerprints, so
+ * separate files agree on them, but a consumer only resolves schemas its own file holds;
+ * deployments use {@link KafkaSchemaRegistry}. Lookups are served from memory and the
+ * file is re-read only when an unknown id is requested.
+ */
+public class FileSchemaRegistry implements SchemaRegistry {
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Map<Path, FileSchemaRegistry> INSTANCES = new ConcurrentHashMap<>();
+    
+    private final Path file;
+    private final Map<Integer, OrderEventSchema> schemasById = new ConcurrentHashMap<>();
+    // A lock rather than synchronized: file I/O under a monitor would pin virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public FileSchemaRegistry(Path file) {
+        this.file = file;
+        reload();
+    }
+    
+    public static FileSchemaRegistry forPath(Path file) {
+        return INSTANCES.computeIfAbsent(file.toAbsolutePath().normalize(), FileSchemaRegistry::new);
+    }
+    
+    @Override
+    public int register(OrderEventSchema schema) {
+        lock.lock();
+        try {
+            reload();
+            int id = schema.fingerprint();
+            OrderEventSchema existing = schemasById.get(id);
+            if (existing != null) {
+                if (!existing.equals(schema)) {
+                    throw new IllegalStateException("Schema fingerprint " + id + " of " + schema.eventType() + " v"
+                            + schema.version() + " collides with " + existing.eventType() + " v" + existing.version());
+                }
+                return id;
+            }
+            schemasById.put(id, schema);
+            persist();
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public OrderEventSchema getById(int id) {
+        OrderEventSchema schema = schemasById.get(id);
+        if (schema == null) {
+            lock.lock();
+            try {
+                reload();
+                schema = schemasById.get(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown order event schema id: " + id);
+        }
+        return schema;
+    }
+    
+    private void reload() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Map<Integer, OrderEventSchema> stored = OBJECT_MAPPER.readValue(file.toFile(),
+                new TypeReference<Map<Integer, OrderEventSchema>>() {});
+            schemasById.putAll(stored);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schema registry " + file, e);
+        }
+    }
+    
+    private void persist() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, "schemas", ".tmp");
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), new TreeMap<>(schemasById));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write schema registry " + file, e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.swiftpulse.common.event.schema;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.common.event.OrderEventType;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schema registry shared through the compacted {@value #TOPIC} topic, keyed by schema
+ * fingerprint. Producers publish the schemas they write with before sending; a consumer
+ * resolves the schemas of its own build locally and reads the topic only for an id it
+ * has not seen, e.g. one written by a newer producer.
+ */
+public class KafkaSchemaRegistry implements SchemaRegistry {
+    
+    public static final String TOPIC = "order-event-schemas";
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Map<String, KafkaSchemaRegistry> INSTANCES = new ConcurrentHashMap<>();
+    
+    private final Map<String, Object> clientConfigs;
+    private final Map<Integer, OrderEventSchema> schemasById = new ConcurrentHashMap<>();
+    private final Set<Integer> published = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public KafkaSchemaRegistry(Map<String, Object> clientConfigs) {
+        this.clientConfigs = Map.copyOf(clientConfigs);
+        for (OrderEventType type : OrderEventType.values()) {
+            OrderEventSchema schema = OrderEventSchemas.current(type);
+            schemasById.put(schema.fingerprint(), schema);
+        }
+    }
+    
+    /**
+     * One registry per cluster, built from the connection settings of a client's configs;
+     * serializer and group settings are left out.
+     */
+    public static KafkaSchemaRegistry forClientConfigs(Map<String, ?> configs) {
+        Object servers = configs.get(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG);
+        if (servers == null) {
+            throw new IllegalArgumentException("No " + CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG
+                    + " to locate the schema registry topic");
+        }
+        String key = servers instanceof List<?> list ? String.join(",", list.stream().map(String::valueOf).toList())
+                : servers.toString();
+        return INSTANCES.computeIfAbsent(key, ignored -> {
+            Map<String, Object> connection = new HashMap<>();
+            configs.forEach((name, value) -> {
+                if (name.equals(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG) || name.startsWith("security.")
+                        || name.startsWith("ssl.") || name.startsWith("sasl.") || name.equals("client.dns.lookup")) {
+                    connection.put(name, value);
+                }
+            });
+            return new KafkaSchemaRegistry(connection);
+        });
+    }
+    
+    @Override
+    public int register(OrderEventSchema schema) {
+        int id = schema.fingerprint();
+        OrderEventSchema existing = schemasById.putIfAbsent(id, schema);
+        if (existing != null && !existing.equals(schema)) {
+            throw new IllegalStateException("Schema fingerprint " + id + " of " + schema.eventType() + " v"
+                    + schema.version() + " collides with " + existing.eventType() + " v" + existing.version());
+        }
+        if (published.contains(id)) {
+            return id;
+        }
+        lock.lock();
+        try {
+            if (published.add(id)) {
+                try {
+                    publish(id, schema);
+                } catch (RuntimeException e) {
+                    published.remove(id);
+                    throw e;
+                }
+            }
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public OrderEventSchema getById(int id) {
+        OrderEventSchema schema = schemasById.get(id);
+        if (schema == null) {
+            lock.lock();
+            try {
+                schema = schemasById.get(id);
+                if (schema == null) {
+                    readTopic();
+                    schema = schemasById.get(id);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown order event schema id: " + id);
+        }
+        return schema;
+    }
+    
+    private void publish(int id, OrderEventSchema schema) {
+        createTopicIfMissing();
+        Map<String, Object> configs = new HashMap<>(clientConfigs);
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(configs, new StringSerializer(), new StringSerializer())) {
+            producer.send(new ProducerRecord<>(TOPIC, String.valueOf(id), OBJECT_MAPPER.writeValueAsString(schema)))
+                    .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode schema " + id, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted publishing schema " + id, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish schema " + id + " to " + TOPIC, e);
+        }
+    }
+    
+    private void createTopicIfMissing() {
+        try (Admin admin = Admin.create(clientConfigs)) {
+            NewTopic topic = new NewTopic(TOPIC, Optional.of(1), Optional.empty())
+                    .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+            admin.createTopics(List.of(topic)).all().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw new IllegalStateException("Failed to create " + TOPIC, e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted creating " + TOPIC, e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out creating " + TOPIC, e);
+        }
+    }
+    
+    private void readTopic() {
+        Map<String, Object> configs = new HashMap<>(clientConfigs);
+        configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(configs, new StringDeserializer(), new StringDeserializer())) {
+            List<PartitionInfo> infos = consumer.partitionsFor(TOPIC, TIMEOUT);
+            if (infos == null || infos.isEmpty()) {
+                return;
+            }
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : infos) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions, TIMEOUT);
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (!caughtUp(consumer, endOffsets) && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                    remember(record);
+                }
+            }
+        }
+    }
+    
+    private void remember(ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return;
+        }
+        try {
+            OrderEventSchema schema = OBJECT_MAPPER.readValue(record.value(), OrderEventSchema.class);
+            // Ignore entries whose key does not match their content
+            if (String.valueOf(schema.fingerprint()).equals(record.key())) {
+                schemasById.putIfAbsent(schema.fingerprint(), schema);
+            }
+        } catch (JsonProcessingException e) {
+            // Not a schema this build understands, e.g. one with a field type added later
+        }
+    }
+    
+    private static boolean caughtUp(KafkaConsumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package com.swiftpulse.common.event.schema;
+
+import com.swiftpulse.common.event.OrderEventType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.List;
+
+public record OrderEventSchema(OrderEventType eventType, int version, List<Field> fields) {
+    
+    public OrderEventSchema {
+        fields = List.copyOf(fields);
+    }
+    
+    /**
+     * Registry id of this schema: the first four bytes of the SHA-256 of its canonical
+     * form. Every producer and consumer derives the same id for the same schema without
+     * having to agree on a counter.
+     */
+    public int fingerprint() {
+        StringBuilder canonical = new StringBuilder(eventType.name()).append(':').append(version).append('{');
+        for (Field field : fields) {
+            canonical.append(field.name()).append(':').append(field.type()).append(';');
+        }
+        canonical.append('}');
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return ((digest[0] & 0xff) << 24) | ((digest[1] & 0xff) << 16) | ((digest[2] & 0xff) << 8) | (digest[3] & 0xff);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    public enum FieldType {
+        LONG, DOUBLE, STRING, INSTANT;
+        
+        /**
+         * Whether a value written as this type can be read as {@code reader}: the same
+         * type, a long widened to a double, or any number or instant read as a string.
+         */
+        public boolean promotesTo(FieldType reader) {
+            return this == reader
+                    || (this == LONG && reader == DOUBLE)
+                    || reader == STRING;
+        }
+        
+        /** Converts a value decoded as this type to the reader's type. */
+        public Object promote(Object value, FieldType reader) {
+            if (this == reader) {
+                return value;
+            }
+            if (this == LONG && reader == DOUBLE) {
+                return ((Long) value).doubleValue();
+            }
+            if (reader == STRING) {
+                return value instanceof Instant instant ? instant.toString() : String.valueOf(value);
+            }
+            throw new IllegalArgumentException("Cannot read a " + this + " value as " + reader);
+        }
+    }
+    
+    public record Field(String name, FieldType type) {}
+}
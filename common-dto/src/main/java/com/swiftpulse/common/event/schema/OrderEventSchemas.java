@@ -0,0 +1,99 @@
+package com.swiftpulse.common.event.schema;
+
+import com.swiftpulse.common.event.OrderEventType;
+import com.swiftpulse.common.event.schema.OrderEventSchema.Field;
+import com.swiftpulse.common.event.schema.OrderEventSchema.FieldType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writer schemas for the order events currently produced. Bump the version when a
+ * field is added, removed or changes type; readers resolve fields by name against the
+ * writer schema fetched from the registry, so old and new producers can run side by
+ * side. A type may only change to one the old type promotes to, and only once every
+ * reader expects the new type.
+ */
+public final class OrderEventSchemas {
+    
+    private static final Field ORDER_ID = new Field("orderId", FieldType.LONG);
+    private static final Field CUSTOMER_ID = new Field("customerId", FieldType.LONG);
+    private static final Field ORDER_NUMBER = new Field("orderNumber", FieldType.STRING);
+    private static final Field TRACKING_NUMBER = new Field("trackingNumber", FieldType.STRING);
+    private static final Field TIMESTAMP = new Field("timestamp", FieldType.INSTANT);
+    
+    private static final OrderEventSchema ORDER_CREATED_V1 = new OrderEventSchema(OrderEventType.ORDER_CREATED, 1, List.of(
+        ORDER_ID, CUSTOMER_ID, ORDER_NUMBER, TRACKING_NUMBER,
+        new Field("pickupAddress", FieldType.STRING),
+        new Field("deliveryAddress", FieldType.STRING),
+        new Field("pickupLatitude", FieldType.DOUBLE),
+        new Field("pickupLongitude", FieldType.DOUBLE),
+        new Field("deliveryLatitude", FieldType.DOUBLE),
+        new Field("deliveryLongitude", FieldType.DOUBLE),
+        new Field("weight", FieldType.DOUBLE),
+        new Field("priorityLevel", FieldType.STRING),
+        TIMESTAMP
+    ));
+    
+    private static final OrderEventSchema ORDER_STATUS_UPDATED_V1 = new OrderEventSchema(OrderEventType.ORDER_STATUS_UPDATED, 1, List.of(
+        ORDER_ID, CUSTOMER_ID, ORDER_NUMBER, TRACKING_NUMBER,
+        new Field("previousStatus", FieldType.STRING),
+        new Field("newStatus", FieldType.STRING),
+        new Field("assignedDriverId", FieldType.LONG),
+        TIMESTAMP
+    ));
+    
+    private static final OrderEventSchema DRIVER_ASSIGNED_V1 = new OrderEventSchema(OrderEventType.DRIVER_ASSIGNED, 1, List.of(
+        ORDER_ID, CUSTOMER_ID, ORDER_NUMBER, TRACKING_NUMBER,
+        new Field("driverId", FieldType.LONG),
+        TIMESTAMP
+    ));
+    
+    private static final Map<OrderEventSchema, FieldType[]> READER_TYPES = new ConcurrentHashMap<>();
+    
+    private OrderEventSchemas() {}
+    
+    /**
+     * The type this reader expects for each field of the writer schema, in writer order;
+     * {@code null} for fields this reader does not know. Fails if a field was written with
+     * a type that cannot be promoted to the reader's type.
+     */
+    public static FieldType[] readerTypes(OrderEventSchema writer) {
+        return READER_TYPES.computeIfAbsent(writer, OrderEventSchemas::resolve);
+    }
+    
+    private static FieldType[] resolve(OrderEventSchema writer) {
+        List<Field> readerFields = current(writer.eventType()).fields();
+        List<Field> writerFields = writer.fields();
+        FieldType[] types = new FieldType[writerFields.size()];
+        for (int i = 0; i < types.length; i++) {
+            Field field = writerFields.get(i);
+            for (Field readerField : readerFields) {
+                if (readerField.name().equals(field.name())) {
+                    if (!field.type().promotesTo(readerField.type())) {
+                        throw new IllegalArgumentException("Field " + field.name() + " of " + writer.eventType()
+                                + " schema v" + writer.version() + " is written as " + field.type()
+                                + " and cannot be read as " + readerField.type());
+                    }
+                    types[i] = readerField.type();
+                    break;
+                }
+            }
+        }
+        return types;
+    }
+    
+    public static OrderEventSchema current(OrderEventType eventType) {
+        switch (eventType) {
+            case ORDER_CREATED:
+                return ORDER_CREATED_V1;
+            case ORDER_STATUS_UPDATED:
+                return ORDER_STATUS_UPDATED_V1;
+            case DRIVER_ASSIGNED:
+                return DRIVER_ASSIGNED_V1;
+            default:
+                throw new IllegalArgumentException("No schema for order event type: " + eventType);
+        }
+    }
+}
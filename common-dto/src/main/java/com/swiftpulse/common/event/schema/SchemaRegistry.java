@@ -0,0 +1,12 @@
+package com.swiftpulse.common.event.schema;
+
+public interface SchemaRegistry {
+    
+    /**
+     * Registers the schema if it is not known yet and returns its id. Registering an
+     * identical schema again returns the existing id.
+     */
+    int register(OrderEventSchema schema);
+    
+    OrderEventSchema getById(int id);
+}
@@ -0,0 +1,78 @@
+package com.swiftpulse.common.geo;
+
+/**
+ * Great-circle helpers shared by the services that reason about driver positions.
+ */
+public final class GeoDistance {
+    
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    
+    /** Largest latitude/longitude difference for which the equirectangular estimate is trusted. */
+    public static final double EQUIRECTANGULAR_MAX_SPAN_DEGREES = 1.0;
+    
+    /**
+     * Relative error of {@link #equirectangularKm} against haversine grows with the square of
+     * the latitude/longitude span: at most this many times the span in degrees squared, for
+     * spans up to {@link #EQUIRECTANGULAR_BOUNDED_SPAN_DEGREES} at any latitude up to 89°.
+     */
+    public static final double EQUIRECTANGULAR_ERROR_PER_SQUARE_DEGREE = 5e-5;
+    
+    /** Largest span for which {@link #EQUIRECTANGULAR_ERROR_PER_SQUARE_DEGREE} holds; beyond it no bound is assumed. */
+    public static final double EQUIRECTANGULAR_BOUNDED_SPAN_DEGREES = 10.0;
+    
+    /** Relative error bound of {@link #equirectangularKm} within {@link #EQUIRECTANGULAR_MAX_SPAN_DEGREES}. */
+    public static final double EQUIRECTANGULAR_MAX_ERROR = EQUIRECTANGULAR_ERROR_PER_SQUARE_DEGREE
+            * EQUIRECTANGULAR_MAX_SPAN_DEGREES * EQUIRECTANGULAR_MAX_SPAN_DEGREES;
+    
+    private GeoDistance() {}
+    
+    /**
+     * Great-circle distance, estimated on a flat projection around the midpoint when the
+     * points are within {@link #EQUIRECTANGULAR_MAX_SPAN_DEGREES} of each other and computed
+     * with the haversine formula otherwise.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        if (Math.abs(lat2 - lat1) <= EQUIRECTANGULAR_MAX_SPAN_DEGREES
+                && Math.abs(longitudeDelta(lon1, lon2)) <= EQUIRECTANGULAR_MAX_SPAN_DEGREES) {
+            return equirectangularKm(lat1, lon1, lat2, lon2);
+        }
+        return haversineKm(lat1, lon1, lat2, lon2);
+    }
+    
+    /** Flat-earth distance scaled by the cosine of the mean latitude; one trig call. */
+    public static double equirectangularKm(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(longitudeDelta(lon1, lon2)) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+    }
+    
+    /** Longitude difference wrapped into [-180, 180] so pairs across the antimeridian stay close. */
+    public static double longitudeDelta(double lon1, double lon2) {
+        double delta = lon2 - lon1;
+        if (delta > 180) {
+            delta -= 360;
+        } else if (delta < -180) {
+            delta += 360;
+        }
+        return delta;
+    }
+    
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+    
+    /** Initial bearing from the first point to the second, in degrees clockwise from north. */
+    public static double bearingDegrees(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double y = Math.sin(dLon) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLon);
+        return (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
+    }
+}
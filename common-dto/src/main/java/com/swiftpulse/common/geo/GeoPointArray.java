@@ -0,0 +1,52 @@
+package com.swiftpulse.common.geo;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Positions of many items in structure-of-arrays form, for scans that are repeated over
+ * the same snapshot. Each position is stored as a point on the unit sphere
+ * (cos φ cos λ, cos φ sin λ, sin φ) in three primitive arrays: the squared chord between
+ * two such points orders them exactly like great-circle distance, so a scan over them
+ * needs only multiply-adds and no trig calls. See {@link ProximityFilter#nearest(List, int)}.
+ */
+public final class GeoPointArray<T> {
+    
+    private final List<T> items;
+    final double[] x;
+    final double[] y;
+    final double[] z;
+    
+    private GeoPointArray(List<T> items, double[] x, double[] y, double[] z) {
+        this.items = items;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+    
+    /** Converts every item's position once; items must all have a position. */
+    public static <T> GeoPointArray<T> of(List<T> items, ToDoubleFunction<T> latitudeOf, ToDoubleFunction<T> longitudeOf) {
+        int n = items.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            T item = items.get(i);
+            double lat = Math.toRadians(latitudeOf.applyAsDouble(item));
+            double lon = Math.toRadians(longitudeOf.applyAsDouble(item));
+            double cosLat = Math.cos(lat);
+            x[i] = cosLat * Math.cos(lon);
+            y[i] = cosLat * Math.sin(lon);
+            z[i] = Math.sin(lat);
+        }
+        return new GeoPointArray<>(List.copyOf(items), x, y, z);
+    }
+    
+    public int size() {
+        return items.size();
+    }
+    
+    public T get(int index) {
+        return items.get(index);
+    }
+}
@@ -0,0 +1,332 @@
+package com.swiftpulse.common.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Tiered distance checks around one point for scans over many candidates. A bounding box
+ * in degrees rejects far candidates with two comparisons, an equirectangular estimate
+ * ranks the rest without trig calls, and the haversine formula is evaluated only for the
+ * candidates whose estimate is within the error bound of the cut-off. Where the candidates
+ * span too much for the estimate to have a known bound, every candidate gets haversine.
+ * Snapshots that are searched many times can be converted to a {@link GeoPointArray}
+ * once and scanned with exact chord distances instead.
+ */
+public final class ProximityFilter {
+    
+    private static final double KM_PER_DEGREE = GeoDistance.EARTH_RADIUS_KM * Math.PI / 180;
+    
+    // Below this half-difference in latitude, cos of the mid-latitude comes from a short series
+    private static final double SERIES_LIMIT_RADIANS = Math.toRadians(0.5);
+    
+    private final double latitude;
+    private final double longitude;
+    private final double radiusKm;
+    private final double sinLat;
+    private final double cosLat;
+    private final double latitudeSpan;
+    private final double longitudeSpan;
+    private final double boxError;
+    private final double qx;
+    private final double qy;
+    private final double qz;
+    private final double maxSquaredChord;
+    
+    public ProximityFilter(double latitude, double longitude, double radiusKm) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radiusKm = radiusKm;
+        double phi = Math.toRadians(latitude);
+        this.sinLat = Math.sin(phi);
+        this.cosLat = Math.cos(phi);
+        this.latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double edgeCos = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeSpan)));
+        this.longitudeSpan = edgeCos > 1e-9 ? Math.min(180, latitudeSpan / edgeCos) : 180;
+        this.boxError = relativeError(Math.max(latitudeSpan, longitudeSpan));
+        
+        double lambda = Math.toRadians(longitude);
+        this.qx = cosLat * Math.cos(lambda);
+        this.qy = cosLat * Math.sin(lambda);
+        this.qz = sinLat;
+        double angle = radiusKm / GeoDistance.EARTH_RADIUS_KM;
+        double chord = 2 * Math.sin(Math.min(angle, Math.PI) / 2);
+        this.maxSquaredChord = angle >= Math.PI ? Double.POSITIVE_INFINITY : chord * chord;
+    }
+    
+    public double radiusKm() {
+        return radiusKm;
+    }
+    
+    public boolean inBoundingBox(double lat, double lon) {
+        return Math.abs(lat - latitude) <= latitudeSpan
+                && Math.abs(GeoDistance.longitudeDelta(longitude, lon)) <= longitudeSpan;
+    }
+    
+    /** Equirectangular distance estimate, see {@link #relativeError(double)} for its accuracy. */
+    public double approximateKm(double lat, double lon) {
+        double dLat = Math.toRadians(lat - latitude);
+        double h = dLat / 2;
+        double cosMid;
+        if (Math.abs(h) <= SERIES_LIMIT_RADIANS) {
+            double h2 = h * h;
+            cosMid = cosLat * (1 - h2 / 2 + h2 * h2 / 24) - sinLat * h * (1 - h2 / 6);
+        } else {
+            cosMid = Math.cos(Math.toRadians(latitude) + h);
+        }
+        double x = Math.toRadians(GeoDistance.longitudeDelta(longitude, lon)) * cosMid;
+        return GeoDistance.EARTH_RADIUS_KM * Math.sqrt(x * x + dLat * dLat);
+    }
+    
+    /** Haversine distance, reusing the cosine of this point's latitude. */
+    public double exactKm(double lat, double lon) {
+        double dLat = Math.toRadians(lat - latitude);
+        double dLon = Math.toRadians(lon - longitude);
+        double sinLat2 = Math.sin(dLat / 2);
+        double sinLon2 = Math.sin(dLon / 2);
+        double a = sinLat2 * sinLat2 + cosLat * Math.cos(Math.toRadians(lat)) * sinLon2 * sinLon2;
+        return GeoDistance.EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+    
+    /** Whether the point lies within the radius; haversine only runs near the edge. */
+    public boolean contains(double lat, double lon) {
+        if (!inBoundingBox(lat, lon)) {
+            return false;
+        }
+        double estimate = approximateKm(lat, lon);
+        if (estimate <= radiusKm * (1 - boxError)) {
+            return true;
+        }
+        if (estimate > radiusKm * (1 + boxError)) {
+            return false;
+        }
+        return exactKm(lat, lon) <= radiusKm;
+    }
+    
+    /**
+     * Up to {@code limit} candidates nearest to this point by great-circle distance, nearest
+     * first. Candidates within the radius are returned when there are any; otherwise the
+     * nearest candidates overall.
+     */
+    public <T> List<T> nearest(Collection<T> candidates, ToDoubleFunction<T> latitudeOf,
+                               ToDoubleFunction<T> longitudeOf, int limit) {
+        if (limit <= 0 || candidates.isEmpty()) {
+            return List.of();
+        }
+        List<T> boxed = new ArrayList<>();
+        for (T candidate : candidates) {
+            if (inBoundingBox(latitudeOf.applyAsDouble(candidate), longitudeOf.applyAsDouble(candidate))) {
+                boxed.add(candidate);
+            }
+        }
+        if (!boxed.isEmpty()) {
+            List<T> inRadius = rank(boxed, latitudeOf, longitudeOf, limit, boxError, radiusKm);
+            if (!inRadius.isEmpty()) {
+                return inRadius;
+            }
+        }
+        return rank(new ArrayList<>(candidates), latitudeOf, longitudeOf, limit, Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY);
+    }
+    
+    /**
+     * Same result as {@link #nearest(Collection, ToDoubleFunction, ToDoubleFunction, int)}
+     * over all items of the given pools, computed in one pass over their unit vectors. The
+     * squared chord is exact for ranking and for the radius check, so no estimate tiers
+     * are needed.
+     */
+    public <T> List<T> nearest(List<GeoPointArray<T>> pools, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        NearestHeap<T> inRadius = new NearestHeap<>(limit);
+        NearestHeap<T> overall = new NearestHeap<>(limit);
+        for (GeoPointArray<T> pool : pools) {
+            double[] x = pool.x;
+            double[] y = pool.y;
+            double[] z = pool.z;
+            for (int i = 0; i < x.length; i++) {
+                double dx = x[i] - qx;
+                double dy = y[i] - qy;
+                double dz = z[i] - qz;
+                double d = dx * dx + dy * dy + dz * dz;
+                if (d < overall.worst()) {
+                    overall.offer(d, pool, i);
+                }
+                if (d <= maxSquaredChord && d < inRadius.worst()) {
+                    inRadius.offer(d, pool, i);
+                }
+            }
+        }
+        return inRadius.size() > 0 ? inRadius.drain() : overall.drain();
+    }
+    
+    private <T> List<T> rank(List<T> pool, ToDoubleFunction<T> latitudeOf, ToDoubleFunction<T> longitudeOf,
+                             int limit, double error, double maxKm) {
+        int n = pool.size();
+        if (Double.isInfinite(error)) {
+            return exactlyNearest(pool, latitudeOf, longitudeOf, limit, maxKm);
+        }
+        double[] estimates = new double[n];
+        for (int i = 0; i < n; i++) {
+            T candidate = pool.get(i);
+            estimates[i] = approximateKm(latitudeOf.applyAsDouble(candidate), longitudeOf.applyAsDouble(candidate));
+        }
+        
+        // Anything whose estimate could still beat the limit-th estimate gets an exact distance
+        double cutoff = kthSmallest(estimates, Math.min(limit, n)) * (1 + error) / (1 - error);
+        List<Ranked<T>> contenders = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (estimates[i] <= cutoff) {
+                T candidate = pool.get(i);
+                double km = exactKm(latitudeOf.applyAsDouble(candidate), longitudeOf.applyAsDouble(candidate));
+                if (km <= maxKm) {
+                    contenders.add(new Ranked<>(candidate, km));
+                }
+            }
+        }
+        return firstByDistance(contenders, limit);
+    }
+    
+    private <T> List<T> exactlyNearest(List<T> pool, ToDoubleFunction<T> latitudeOf, ToDoubleFunction<T> longitudeOf,
+                                       int limit, double maxKm) {
+        List<Ranked<T>> contenders = new ArrayList<>(pool.size());
+        for (T candidate : pool) {
+            double km = exactKm(latitudeOf.applyAsDouble(candidate), longitudeOf.applyAsDouble(candidate));
+            if (km <= maxKm) {
+                contenders.add(new Ranked<>(candidate, km));
+            }
+        }
+        return firstByDistance(contenders, limit);
+    }
+    
+    private static <T> List<T> firstByDistance(List<Ranked<T>> contenders, int limit) {
+        contenders.sort(Comparator.comparingDouble(Ranked::km));
+        List<T> nearest = new ArrayList<>(Math.min(limit, contenders.size()));
+        for (int i = 0; i < contenders.size() && i < limit; i++) {
+            nearest.add(contenders.get(i).candidate());
+        }
+        return nearest;
+    }
+    
+    /**
+     * Relative error bound of {@link #approximateKm} for points at most {@code spanDegrees}
+     * apart in latitude and longitude, see {@link GeoDistance#EQUIRECTANGULAR_ERROR_PER_SQUARE_DEGREE};
+     * infinite beyond {@link GeoDistance#EQUIRECTANGULAR_BOUNDED_SPAN_DEGREES}, where only
+     * haversine is trusted.
+     */
+    static double relativeError(double spanDegrees) {
+        if (spanDegrees > GeoDistance.EQUIRECTANGULAR_BOUNDED_SPAN_DEGREES) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.max(GeoDistance.EQUIRECTANGULAR_ERROR_PER_SQUARE_DEGREE * spanDegrees * spanDegrees, 1e-9);
+    }
+    
+    private static double kthSmallest(double[] values, int k) {
+        // Bounded max-heap of the k smallest values seen so far
+        double[] heap = new double[k];
+        int size = 0;
+        for (double value : values) {
+            if (size < k) {
+                int i = size++;
+                heap[i] = value;
+                while (i > 0 && heap[(i - 1) >>> 1] < heap[i]) {
+                    int parent = (i - 1) >>> 1;
+                    double t = heap[parent];
+                    heap[parent] = heap[i];
+                    heap[i] = t;
+                    i = parent;
+                }
+            } else if (value < heap[0]) {
+                heap[0] = value;
+                int i = 0;
+                while (true) {
+                    int left = 2 * i + 1;
+                    if (left >= size) {
+                        break;
+                    }
+                    int largest = left + 1 < size && heap[left + 1] > heap[left] ? left + 1 : left;
+                    if (heap[i] >= heap[largest]) {
+                        break;
+                    }
+                    double t = heap[i];
+                    heap[i] = heap[largest];
+                    heap[largest] = t;
+                    i = largest;
+                }
+            }
+        }
+        return heap[0];
+    }
+    
+    /** Bounded max-heap of the {@code limit} smallest distances seen, with their items. */
+    private static final class NearestHeap<T> {
+        
+        private final double[] distance;
+        private final Object[] item;
+        private int size;
+        
+        NearestHeap(int limit) {
+            this.distance = new double[limit];
+            this.item = new Object[limit];
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        /** Distance a new entry has to beat to be kept. */
+        double worst() {
+            return size < distance.length ? Double.POSITIVE_INFINITY : distance[0];
+        }
+        
+        void offer(double d, GeoPointArray<T> pool, int index) {
+            int i;
+            if (size < distance.length) {
+                i = size++;
+                while (i > 0 && distance[(i - 1) >>> 1] < d) {
+                    int parent = (i - 1) >>> 1;
+                    distance[i] = distance[parent];
+                    item[i] = item[parent];
+                    i = parent;
+                }
+            } else {
+                i = 0;
+                while (true) {
+                    int left = 2 * i + 1;
+                    if (left >= size) {
+                        break;
+                    }
+                    int largest = left + 1 < size && distance[left + 1] > distance[left] ? left + 1 : left;
+                    if (d >= distance[largest]) {
+                        break;
+                    }
+                    distance[i] = distance[largest];
+                    item[i] = item[largest];
+                    i = largest;
+                }
+            }
+            distance[i] = d;
+            item[i] = pool.get(index);
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<T> drain() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> distance[i]));
+            List<T> nearest = new ArrayList<>(size);
+            for (Integer i : order) {
+                nearest.add((T) item[i]);
+            }
+            return nearest;
+        }
+    }
+    
+    private record Ranked<T>(T candidate, double km) {}
+}
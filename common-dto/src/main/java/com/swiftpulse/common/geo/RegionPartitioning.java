@@ -0,0 +1,79 @@
+package com.swiftpulse.common.geo;
+
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps coordinates to a dispatch region (a geohash prefix) and regions to partitions of
+ * a region-keyed topic. {@link #partitionFor} mirrors Kafka's default key partitioner,
+ * so consumers can tell which regions the partitions they were assigned carry.
+ */
+public final class RegionPartitioning {
+    
+    /** Geohash length 4 gives cells of roughly 39 x 20 km, about one metro area. */
+    public static final int DEFAULT_PRECISION = 4;
+    
+    private RegionPartitioning() {}
+    
+    public static String regionKey(double latitude, double longitude, int precision) {
+        return GeoHash.encode(latitude, longitude, precision);
+    }
+    
+    public static int partitionFor(String regionKey, int partitionCount) {
+        byte[] keyBytes = regionKey.getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % partitionCount;
+    }
+    
+    /**
+     * Regions of the cells within {@code rings} cells of the point's cell: the point's own
+     * region first, then each ring outward with its cells ordered by how close their
+     * centre is to the point. Cells beyond the poles are left out and longitude wraps at
+     * the antimeridian.
+     */
+    public static List<String> searchArea(double latitude, double longitude, int precision, int rings) {
+        int bits = 5 * precision;
+        long columns = 1L << ((bits + 1) / 2);
+        long rows = 1L << (bits / 2);
+        double cellWidth = 360.0 / columns;
+        double cellHeight = 180.0 / rows;
+        // Step from the centre of the point's cell so whole-cell offsets never land on a boundary
+        long row = Math.min(rows - 1, (long) Math.floor((latitude + 90) / cellHeight));
+        long column = Math.min(columns - 1, (long) Math.floor((longitude + 180) / cellWidth));
+        double centreLat = -90 + (row + 0.5) * cellHeight;
+        double centreLon = -180 + (column + 0.5) * cellWidth;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        
+        Set<String> regions = new LinkedHashSet<>();
+        regions.add(regionKey(centreLat, centreLon, precision));
+        for (int ring = 1; ring <= rings; ring++) {
+            List<double[]> cells = new ArrayList<>();
+            for (int dy = -ring; dy <= ring; dy++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != ring) {
+                        continue;
+                    }
+                    double lat = centreLat + dy * cellHeight;
+                    if (lat < -90 || lat > 90) {
+                        continue;
+                    }
+                    double lon = centreLon + dx * cellWidth;
+                    double dLat = lat - latitude;
+                    double dLon = (lon - longitude) * cosLat;
+                    cells.add(new double[] {lat, lon >= 180 ? lon - 360 : lon < -180 ? lon + 360 : lon,
+                            dLat * dLat + dLon * dLon});
+                }
+            }
+            cells.sort(Comparator.comparingDouble(cell -> cell[2]));
+            for (double[] cell : cells) {
+                regions.add(regionKey(cell[0], cell[1], precision));
+            }
+        }
+        return List.copyOf(regions);
+    }
+}
@@ -0,0 +1,75 @@
+package com.swiftpulse.common.jvm;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in-process. The JVM records one
+ * whenever a virtual thread blocks while it cannot unmount, typically inside a
+ * {@code synchronized} block, and so keeps its carrier thread for the whole wait. Each
+ * event is counted and logged with the top of its stack, which names the monitor holder.
+ */
+public class PinnedThreadMonitor implements AutoCloseable {
+    
+    public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+    private static final int LOGGED_FRAMES = 8;
+    
+    private final RecordingStream stream;
+    private final AtomicLong pinned = new AtomicLong();
+    
+    /** Reports pinning that lasted at least {@code threshold}; JFR's own default is 20 ms. */
+    public PinnedThreadMonitor(Duration threshold) {
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+    }
+    
+    public void start() {
+        stream.startAsync();
+    }
+    
+    public long pinnedCount() {
+        return pinned.get();
+    }
+    
+    /** Also hands every pinned event to {@code listener}, on the monitor's thread. */
+    public void onPinned(Consumer<RecordedEvent> listener) {
+        stream.onEvent(PINNED_EVENT, listener);
+    }
+    
+    private void report(RecordedEvent event) {
+        pinned.incrementAndGet();
+        RecordedThread thread = event.getThread();
+        log.warn("Virtual thread {} was pinned to its carrier for {} ms at\n{}",
+                thread != null ? thread.getJavaName() : "?", event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+    }
+    
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+    
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
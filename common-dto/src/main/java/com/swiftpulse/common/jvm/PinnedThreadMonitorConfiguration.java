@@ -0,0 +1,31 @@
+package com.swiftpulse.common.jvm;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Starts a {@link PinnedThreadMonitor} in services running with
+ * {@code spring.threads.virtual.enabled}, and exports its count as
+ * {@code jvm.threads.virtual.pinned}. Services opt in with {@code @Import}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class PinnedThreadMonitorConfiguration {
+    
+    @Bean(destroyMethod = "close")
+    public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry meterRegistry,
+                                                   @Value("${threads.virtual.pinned-threshold-ms:20}") long thresholdMs) {
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(thresholdMs));
+        FunctionCounter.builder("jvm.threads.virtual.pinned", monitor, PinnedThreadMonitor::pinnedCount)
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        monitor.start();
+        return monitor;
+    }
+}
@@ -0,0 +1,149 @@
+package com.swiftpulse.common.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copies records from a dead-letter topic back onto a topic the owning consumer reads,
+ * byte for byte. Progress is tracked with a dedicated consumer group, so each record is
+ * replayed once no matter how many times a replay is triggered.
+ */
+public class DeadLetterReplayer {
+    
+    /** Headers added by the retry and dead-letter machinery; replayed records start a fresh retry cycle. */
+    private static final String[] STRIPPED_HEADER_PREFIXES = {
+        "kafka_dlt-", "retry_topic-", "springDeserializerException"
+    };
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final int MAX_EMPTY_POLLS = 10;
+    
+    private final Map<String, Object> consumerConfigs;
+    private final Map<String, Object> producerConfigs;
+    // Replays block on the network for seconds; a lock avoids pinning virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public DeadLetterReplayer(Map<String, Object> consumerConfigs, Map<String, Object> producerConfigs) {
+        this.consumerConfigs = new HashMap<>(consumerConfigs);
+        this.producerConfigs = new HashMap<>(producerConfigs);
+    }
+    
+    public ReplayResult replay(String deadLetterTopic, String targetTopic, String groupId, int maxRecords) {
+        lock.lock();
+        try {
+            return doReplay(deadLetterTopic, targetTopic, groupId, maxRecords);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private ReplayResult doReplay(String deadLetterTopic, String targetTopic, String groupId, int maxRecords) {
+        Map<String, Object> configs = new HashMap<>(consumerConfigs);
+        configs.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.max(1, Math.min(maxRecords, 500)));
+        
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(configs, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+             KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(producerConfigs, new ByteArraySerializer(), new ByteArraySerializer())) {
+            
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(deadLetterTopic)) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            if (partitions.isEmpty()) {
+                return new ReplayResult(deadLetterTopic, targetTopic, 0, 0);
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> startOffsets = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                startOffsets.put(partition, consumer.position(partition));
+            }
+            
+            List<Future<RecordMetadata>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> replayedUpTo = new HashMap<>();
+            int emptyPolls = 0;
+            while (sends.size() < maxRecords && !caughtUp(consumer, endOffsets) && emptyPolls < MAX_EMPTY_POLLS) {
+                var records = consumer.poll(POLL_TIMEOUT);
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (sends.size() >= maxRecords || record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    sends.add(producer.send(new ProducerRecord<>(targetTopic, null, record.key(), record.value(), replayHeaders(record))));
+                    replayedUpTo.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+            
+            producer.flush();
+            for (Future<RecordMetadata> send : sends) {
+                send.get();
+            }
+            if (!replayedUpTo.isEmpty()) {
+                consumer.commitSync(replayedUpTo);
+            }
+            
+            long remaining = 0;
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata committed = replayedUpTo.get(partition);
+                long position = committed != null ? committed.offset() : startOffsets.get(partition);
+                remaining += Math.max(0, endOffsets.get(partition) - position);
+            }
+            return new ReplayResult(deadLetterTopic, targetTopic, sends.size(), remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while replaying " + deadLetterTopic, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to replay " + deadLetterTopic + " to " + targetTopic, e.getCause());
+        }
+    }
+    
+    private static boolean caughtUp(KafkaConsumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static RecordHeaders replayHeaders(ConsumerRecord<?, ?> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!stripped(header.key())) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+    
+    private static boolean stripped(String key) {
+        for (String prefix : STRIPPED_HEADER_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.swiftpulse.common.kafka;
+
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderEventDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads a topic from a chosen offset or timestamp up to the end offsets seen when the
+ * replay starts, and hands decoded events to a handler one batch at a time. It uses
+ * manual assignment and never commits, so live consumer groups are not affected.
+ */
+public class OrderEventReplayer {
+    
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final int MAX_EMPTY_POLLS = 20;
+    
+    private final Map<String, Object> consumerConfigs;
+    
+    public OrderEventReplayer(Map<String, Object> consumerConfigs) {
+        this.consumerConfigs = new HashMap<>(consumerConfigs);
+        this.consumerConfigs.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        this.consumerConfigs.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        this.consumerConfigs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumerConfigs.putIfAbsent(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1024 * 1024);
+        this.consumerConfigs.putIfAbsent(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100);
+        this.consumerConfigs.putIfAbsent(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 8 * 1024 * 1024);
+    }
+    
+    public void replay(String topic, ReplayRequest request, ReplayProgress progress, Consumer<List<OrderEvent>> handler) {
+        int batchSize = request.batchSizeOrDefault();
+        Map<String, Object> configs = new HashMap<>(consumerConfigs);
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        
+        OrderEventDeserializer valueDeserializer = new OrderEventDeserializer();
+        valueDeserializer.configure(configs, false);
+        
+        try (KafkaConsumer<String, OrderEvent> consumer = new KafkaConsumer<>(configs, new StringDeserializer(), valueDeserializer)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(topic)) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            seekToStart(consumer, partitions, endOffsets, request);
+            
+            long total = 0;
+            for (TopicPartition partition : partitions) {
+                total += Math.max(0, endOffsets.get(partition) - consumer.position(partition));
+            }
+            progress.setTotalRecords(total);
+            
+            List<OrderEvent> batch = new ArrayList<>(batchSize);
+            int emptyPolls = 0;
+            while (!progress.isCancelRequested() && !caughtUp(consumer, endOffsets) && emptyPolls < MAX_EMPTY_POLLS) {
+                ConsumerRecords<String, OrderEvent> records;
+                try {
+                    records = consumer.poll(POLL_TIMEOUT);
+                } catch (RecordDeserializationException e) {
+                    consumer.seek(e.topicPartition(), e.offset() + 1);
+                    progress.recordFailed();
+                    continue;
+                }
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                
+                long read = 0;
+                for (ConsumerRecord<String, OrderEvent> record : records) {
+                    if (record.offset() >= endOffsets.get(new TopicPartition(record.topic(), record.partition()))) {
+                        continue;
+                    }
+                    read++;
+                    if (record.value() != null) {
+                        batch.add(record.value());
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    handler.accept(batch);
+                    progress.eventsHandled(batch.size());
+                    batch = new ArrayList<>(batchSize);
+                }
+                progress.recordRead(read);
+            }
+            progress.finish(progress.isCancelRequested() ? ReplayProgress.State.CANCELLED : ReplayProgress.State.COMPLETED, null);
+        } catch (RuntimeException e) {
+            progress.finish(ReplayProgress.State.FAILED, e.getMessage());
+            throw e;
+        }
+    }
+    
+    private static void seekToStart(KafkaConsumer<?, ?> consumer, List<TopicPartition> partitions,
+                                    Map<TopicPartition, Long> endOffsets, ReplayRequest request) {
+        if (request.fromTimestamp() != null) {
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                timestamps.put(partition, request.fromTimestamp().toEpochMilli());
+            }
+            for (Map.Entry<TopicPartition, OffsetAndTimestamp> found : consumer.offsetsForTimes(timestamps).entrySet()) {
+                consumer.seek(found.getKey(), found.getValue() != null ? found.getValue().offset() : endOffsets.get(found.getKey()));
+            }
+        } else if (request.fromOffset() != null) {
+            Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+            for (TopicPartition partition : partitions) {
+                long offset = Math.max(beginningOffsets.get(partition), Math.min(request.fromOffset(), endOffsets.get(partition)));
+                consumer.seek(partition, offset);
+            }
+        } else {
+            consumer.seekToBeginning(partitions);
+        }
+    }
+    
+    private static boolean caughtUp(KafkaConsumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
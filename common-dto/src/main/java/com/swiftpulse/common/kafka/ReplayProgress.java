@@ -0,0 +1,81 @@
+package com.swiftpulse.common.kafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live view of a running or finished replay; updated by the replaying thread and safe
+ * to read from any other.
+ */
+public class ReplayProgress {
+    
+    public enum State { RUNNING, COMPLETED, CANCELLED, FAILED }
+    
+    private final String topic;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong totalRecords = new AtomicLong();
+    private final AtomicLong readRecords = new AtomicLong();
+    private final AtomicLong handledEvents = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    
+    public ReplayProgress(String topic) {
+        this.topic = topic;
+    }
+    
+    public void cancel() {
+        cancelRequested = true;
+    }
+    
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+    
+    void setTotalRecords(long total) {
+        totalRecords.set(total);
+    }
+    
+    void recordRead(long count) {
+        readRecords.addAndGet(count);
+    }
+    
+    void eventsHandled(long count) {
+        handledEvents.addAndGet(count);
+    }
+    
+    void recordFailed() {
+        failedRecords.incrementAndGet();
+        readRecords.incrementAndGet();
+    }
+    
+    void finish(State finalState, String errorMessage) {
+        this.error = errorMessage;
+        this.finishedAt = Instant.now();
+        this.state = finalState;
+    }
+    
+    public String getTopic() { return topic; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public State getState() { return state; }
+    public String getError() { return error; }
+    public long getTotalRecords() { return totalRecords.get(); }
+    public long getReadRecords() { return readRecords.get(); }
+    public long getHandledEvents() { return handledEvents.get(); }
+    public long getFailedRecords() { return failedRecords.get(); }
+    
+    public double getPercentComplete() {
+        long total = totalRecords.get();
+        return total == 0 ? (state == State.RUNNING ? 0.0 : 100.0) : Math.min(100.0, readRecords.get() * 100.0 / total);
+    }
+    
+    public double getRecordsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return readRecords.get() * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,16 @@
+package com.swiftpulse.common.kafka;
+
+import java.time.Instant;
+
+/**
+ * Where an event replay starts. {@code fromTimestamp} wins over {@code fromOffset};
+ * with neither set the replay starts at the beginning of every partition.
+ */
+public record ReplayRequest(Long fromOffset, Instant fromTimestamp, Integer batchSize) {
+    
+    public static final int DEFAULT_BATCH_SIZE = 2000;
+    
+    public int batchSizeOrDefault() {
+        return batchSize != null && batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+}
@@ -0,0 +1,4 @@
+package com.swiftpulse.common.kafka;
+
+public record ReplayResult(String sourceTopic, String targetTopic, long replayed, long remaining) {
+}
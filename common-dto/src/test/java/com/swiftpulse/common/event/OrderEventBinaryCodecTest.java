@@ -0,0 +1,85 @@
+package com.swiftpulse.common.event;
+
+import com.swiftpulse.common.event.schema.OrderEventSchema;
+import com.swiftpulse.common.event.schema.OrderEventSchema.Field;
+import com.swiftpulse.common.event.schema.OrderEventSchema.FieldType;
+import com.swiftpulse.common.event.schema.OrderEventSchemas;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventBinaryCodecTest {
+    
+    private static final Instant NOW = Instant.parse("2026-10-19T08:15:30.123456789Z");
+    
+    @Test
+    void decode_WithCurrentSchema_ShouldRoundTripEveryField() {
+        OrderCreatedEvent event = new OrderCreatedEvent(42L, 7L, "ORD0000000042", "TRK-42", "1 Main St", "9 Side Rd",
+                52.52, 13.405, 52.5, -0.1, 3.25, "HIGH", NOW);
+        OrderEventSchema schema = OrderEventSchemas.current(OrderEventType.ORDER_CREATED);
+        
+        OrderEvent decoded = OrderEventBinaryCodec.decode(OrderEventBinaryCodec.encode(event, schema), schema);
+        
+        assertEquals(event, decoded);
+    }
+    
+    @Test
+    void decode_WithNullFields_ShouldKeepThemNull() {
+        OrderStatusUpdatedEvent event = new OrderStatusUpdatedEvent(42L, 7L, "ORD0000000042", null, "PENDING",
+                "CANCELLED", null, NOW);
+        OrderEventSchema schema = OrderEventSchemas.current(OrderEventType.ORDER_STATUS_UPDATED);
+        
+        OrderEvent decoded = OrderEventBinaryCodec.decode(OrderEventBinaryCodec.encode(event, schema), schema);
+        
+        assertEquals(event, decoded);
+    }
+    
+    @Test
+    void decode_WithFieldUnknownToReader_ShouldSkipIt() {
+        List<Field> fields = new ArrayList<>(OrderEventSchemas.current(OrderEventType.DRIVER_ASSIGNED).fields());
+        fields.add(1, new Field("vehiclePlate", FieldType.STRING));
+        OrderEventSchema writer = new OrderEventSchema(OrderEventType.DRIVER_ASSIGNED, 2, fields);
+        DriverAssignedEvent event = new DriverAssignedEvent(42L, 7L, "ORD0000000042", "TRK-42", 99L, NOW);
+        
+        OrderEvent decoded = OrderEventBinaryCodec.decode(OrderEventBinaryCodec.encode(event, writer), writer);
+        
+        assertEquals(event, decoded);
+    }
+    
+    @Test
+    void decode_WithWriterTypePromotableToReaderType_ShouldPromoteValue() {
+        OrderEventSchema writer = new OrderEventSchema(OrderEventType.DRIVER_ASSIGNED, 2, List.of(
+                new Field("orderId", FieldType.LONG),
+                new Field("trackingNumber", FieldType.LONG)));
+        // Empty null bitmap, then zig-zag varints 42 and 7
+        byte[] data = {0x00, 0x54, 0x0E};
+        
+        OrderEvent decoded = OrderEventBinaryCodec.decode(data, writer);
+        
+        assertEquals(42L, decoded.orderId());
+        assertEquals("7", decoded.trackingNumber());
+    }
+    
+    @Test
+    void decode_WithIncompatibleWriterType_ShouldRejectSchema() {
+        OrderEventSchema writer = new OrderEventSchema(OrderEventType.DRIVER_ASSIGNED, 3, List.of(
+                new Field("orderId", FieldType.STRING)));
+        
+        assertThrows(IllegalArgumentException.class, () -> OrderEventBinaryCodec.decode(new byte[] {0x01}, writer));
+    }
+    
+    @Test
+    void encode_ShouldBeSmallerThanJson() {
+        OrderCreatedEvent event = new OrderCreatedEvent(42L, 7L, "ORD0000000042", "TRK-42", "1 Main St", "9 Side Rd",
+                52.52, 13.405, 52.5, -0.1, 3.25, "HIGH", NOW);
+        
+        byte[] binary = OrderEventBinaryCodec.encode(event, OrderEventSchemas.current(OrderEventType.ORDER_CREATED));
+        byte[] json = OrderEventJsonCodec.encode(event);
+        
+        assertTrue(binary.length * 2 < json.length, binary.length + " binary bytes vs " + json.length + " JSON bytes");
+    }
+}
@@ -0,0 +1,92 @@
+package com.swiftpulse.common.event.schema;
+
+import com.swiftpulse.common.event.OrderEventType;
+import com.swiftpulse.common.event.schema.OrderEventSchema.Field;
+import com.swiftpulse.common.event.schema.OrderEventSchema.FieldType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaRegistryTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void register_InSeparateRegistries_ShouldAssignTheSameIds() {
+        FileSchemaRegistry producerHost = new FileSchemaRegistry(tempDir.resolve("producer.json"));
+        FileSchemaRegistry consumerHost = new FileSchemaRegistry(tempDir.resolve("consumer.json"));
+        
+        // Registered in opposite orders, which gave diverging ids with sequential numbering
+        int created = producerHost.register(OrderEventSchemas.current(OrderEventType.ORDER_CREATED));
+        int assigned = producerHost.register(OrderEventSchemas.current(OrderEventType.DRIVER_ASSIGNED));
+        
+        assertEquals(assigned, consumerHost.register(OrderEventSchemas.current(OrderEventType.DRIVER_ASSIGNED)));
+        assertEquals(created, consumerHost.register(OrderEventSchemas.current(OrderEventType.ORDER_CREATED)));
+        assertEquals(OrderEventSchemas.current(OrderEventType.ORDER_CREATED), consumerHost.getById(created));
+    }
+    
+    @Test
+    void register_SameSchemaTwice_ShouldReturnSameId() {
+        FileSchemaRegistry registry = new FileSchemaRegistry(tempDir.resolve("schemas.json"));
+        OrderEventSchema schema = OrderEventSchemas.current(OrderEventType.ORDER_STATUS_UPDATED);
+        
+        assertEquals(registry.register(schema), registry.register(schema));
+    }
+    
+    @Test
+    void getById_AfterRestart_ShouldReadPersistedSchema() {
+        Path file = tempDir.resolve("schemas.json");
+        OrderEventSchema schema = OrderEventSchemas.current(OrderEventType.ORDER_CREATED);
+        int id = new FileSchemaRegistry(file).register(schema);
+        
+        assertEquals(schema, new FileSchemaRegistry(file).getById(id));
+    }
+    
+    @Test
+    void getById_WithUnknownId_ShouldThrow() {
+        FileSchemaRegistry registry = new FileSchemaRegistry(tempDir.resolve("schemas.json"));
+        
+        assertThrows(IllegalArgumentException.class, () -> registry.getById(12345));
+    }
+    
+    @Test
+    void fingerprint_ShouldDifferBetweenSchemas() {
+        Set<Integer> ids = new HashSet<>();
+        for (OrderEventType type : OrderEventType.values()) {
+            ids.add(OrderEventSchemas.current(type).fingerprint());
+        }
+        OrderEventSchema current = OrderEventSchemas.current(OrderEventType.DRIVER_ASSIGNED);
+        ids.add(new OrderEventSchema(current.eventType(), current.version() + 1, current.fields()).fingerprint());
+        
+        assertEquals(OrderEventType.values().length + 1, ids.size());
+    }
+    
+    @Test
+    void readerTypes_ShouldPromoteLongToDoubleAndAnythingToString() {
+        OrderEventSchema writer = new OrderEventSchema(OrderEventType.ORDER_CREATED, 2, List.of(
+                new Field("weight", FieldType.LONG),
+                new Field("priorityLevel", FieldType.INSTANT),
+                new Field("somethingNew", FieldType.DOUBLE)));
+        
+        FieldType[] types = OrderEventSchemas.readerTypes(writer);
+        
+        assertArrayEquals(new FieldType[] {FieldType.DOUBLE, FieldType.STRING, null}, types);
+        assertEquals(3.0, FieldType.LONG.promote(3L, FieldType.DOUBLE));
+        assertEquals("2.5", FieldType.DOUBLE.promote(2.5, FieldType.STRING));
+    }
+    
+    @Test
+    void readerTypes_WithNarrowingChange_ShouldThrow() {
+        OrderEventSchema writer = new OrderEventSchema(OrderEventType.ORDER_CREATED, 3, List.of(
+                new Field("weight", FieldType.STRING)));
+        
+        assertThrows(IllegalArgumentException.class, () -> OrderEventSchemas.readerTypes(writer));
+    }
+}
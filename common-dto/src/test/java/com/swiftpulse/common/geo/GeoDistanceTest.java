@@ -0,0 +1,85 @@
+package com.swiftpulse.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoDistanceTest {
+    
+    @Test
+    void haversineKm_BerlinToParis_ShouldMatchKnownDistance() {
+        assertEquals(877.5, GeoDistance.haversineKm(52.5200, 13.4050, 48.8566, 2.3522), 1.0);
+    }
+    
+    @Test
+    void equirectangularKm_WithinBoundedSpan_ShouldStayWithinDocumentedError() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            double span = random.nextDouble() * GeoDistance.EQUIRECTANGULAR_BOUNDED_SPAN_DEGREES;
+            double lat1 = -89 + random.nextDouble() * 178;
+            double lat2 = clampLatitude(lat1 + (random.nextDouble() * 2 - 1) * span);
+            double lon1 = -180 + random.nextDouble() * 360;
+            double lon2 = lon1 + (random.nextDouble() * 2 - 1) * span;
+            double exact = GeoDistance.haversineKm(lat1, lon1, lat2, lon2);
+            if (exact < 1e-6) {
+                continue;
+            }
+            
+            double error = Math.abs(GeoDistance.equirectangularKm(lat1, lon1, lat2, lon2) - exact) / exact;
+            double actualSpan = Math.max(Math.abs(lat2 - lat1), Math.abs(lon2 - lon1));
+            
+            assertTrue(error <= GeoDistance.EQUIRECTANGULAR_ERROR_PER_SQUARE_DEGREE * actualSpan * actualSpan + 1e-12,
+                    () -> String.format("error %.3g for (%f, %f) -> (%f, %f)", error, lat1, lon1, lat2, lon2));
+        }
+    }
+    
+    @Test
+    void distanceKm_WithinMaxSpan_ShouldStayWithinMaxError() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            double lat1 = -89 + random.nextDouble() * 178;
+            double lon1 = -180 + random.nextDouble() * 360;
+            double lat2 = clampLatitude(lat1 + random.nextDouble() * 2 - 1);
+            double lon2 = lon1 + random.nextDouble() * 2 - 1;
+            double exact = GeoDistance.haversineKm(lat1, lon1, lat2, lon2);
+            
+            assertEquals(exact, GeoDistance.distanceKm(lat1, lon1, lat2, lon2), exact * GeoDistance.EQUIRECTANGULAR_MAX_ERROR + 1e-9);
+        }
+    }
+    
+    @Test
+    void distanceKm_AcrossAntimeridian_ShouldBeShort() {
+        double km = GeoDistance.distanceKm(0, 179.9, 0, -179.9);
+        
+        assertEquals(GeoDistance.haversineKm(0, 179.9, 0, -179.9), km, 1e-3);
+        assertEquals(22.24, km, 0.01);
+    }
+    
+    @Test
+    void distanceKm_NearPoleWithWideLongitudeGap_ShouldUseHaversine() {
+        // 90 degrees of longitude at 89.5N is only ~78 km, far outside the equirectangular span
+        double km = GeoDistance.distanceKm(89.5, 0, 89.5, 90);
+        
+        assertEquals(GeoDistance.haversineKm(89.5, 0, 89.5, 90), km, 1e-9);
+        assertTrue(km < 80);
+    }
+    
+    @Test
+    void longitudeDelta_ShouldWrapIntoHalfTurn() {
+        assertEquals(0.2, GeoDistance.longitudeDelta(179.9, -179.9), 1e-9);
+        assertEquals(-0.2, GeoDistance.longitudeDelta(-179.9, 179.9), 1e-9);
+        assertEquals(10.0, GeoDistance.longitudeDelta(5, 15), 1e-9);
+    }
+    
+    @Test
+    void bearingDegrees_DueEastOnEquator_ShouldBeNinety() {
+        assertEquals(90.0, GeoDistance.bearingDegrees(0, 0, 0, 1), 1e-9);
+        assertEquals(0.0, GeoDistance.bearingDegrees(0, 0, 1, 0), 1e-9);
+    }
+    
+    private static double clampLatitude(double latitude) {
+        return Math.max(-89, Math.min(89, latitude));
+    }
+}
@@ -0,0 +1,158 @@
+package com.swiftpulse.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProximityFilterTest {
+    
+    private record Point(double lat, double lon) {}
+    
+    @Test
+    void approximateKm_ShouldStayWithinRelativeErrorOfSpan() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            double lat = -89 + random.nextDouble() * 178;
+            double lon = -180 + random.nextDouble() * 360;
+            double span = random.nextDouble() * GeoDistance.EQUIRECTANGULAR_BOUNDED_SPAN_DEGREES;
+            double otherLat = Math.max(-89, Math.min(89, lat + (random.nextDouble() * 2 - 1) * span));
+            double otherLon = lon + (random.nextDouble() * 2 - 1) * span;
+            ProximityFilter filter = new ProximityFilter(lat, lon, 10);
+            double exact = filter.exactKm(otherLat, otherLon);
+            if (exact < 1e-6) {
+                continue;
+            }
+            
+            double actualSpan = Math.max(Math.abs(otherLat - lat), Math.abs(otherLon - lon));
+            double error = Math.abs(filter.approximateKm(otherLat, otherLon) - exact) / exact;
+            
+            assertTrue(error <= ProximityFilter.relativeError(actualSpan),
+                    () -> String.format("error %.3g at (%f, %f) -> (%f, %f)", error, lat, lon, otherLat, otherLon));
+        }
+    }
+    
+    @Test
+    void exactKm_ShouldMatchHaversine() {
+        ProximityFilter filter = new ProximityFilter(52.52, 13.405, 5);
+        
+        assertEquals(GeoDistance.haversineKm(52.52, 13.405, 48.8566, 2.3522), filter.exactKm(48.8566, 2.3522), 1e-9);
+    }
+    
+    @Test
+    void contains_ShouldAgreeWithHaversine() {
+        Random random = new Random(3);
+        double[][] centres = {{52.52, 13.405}, {0, 179.98}, {-33.87, 151.21}, {78.22, 15.65}, {88.9, -40}, {-89, 120}};
+        for (double[] centre : centres) {
+            for (double radiusKm : new double[] {0.5, 5, 50, 400}) {
+                ProximityFilter filter = new ProximityFilter(centre[0], centre[1], radiusKm);
+                double degrees = radiusKm / 111.0 * 3;
+                for (int i = 0; i < 5_000; i++) {
+                    double lat = Math.max(-90, Math.min(90, centre[0] + (random.nextDouble() * 2 - 1) * degrees));
+                    double lon = wrap(centre[1] + (random.nextDouble() * 2 - 1) * degrees / Math.max(0.05, Math.cos(Math.toRadians(lat))));
+                    boolean inside = GeoDistance.haversineKm(centre[0], centre[1], lat, lon) <= radiusKm;
+                    
+                    assertEquals(inside, filter.contains(lat, lon),
+                            String.format("(%f, %f) vs centre (%f, %f) r=%s", lat, lon, centre[0], centre[1], radiusKm));
+                }
+            }
+        }
+    }
+    
+    @Test
+    void inBoundingBox_AcrossAntimeridian_ShouldAcceptNearbyPoint() {
+        ProximityFilter filter = new ProximityFilter(0, 179.99, 5);
+        
+        assertTrue(filter.inBoundingBox(0, -179.99));
+        assertTrue(filter.contains(0, -179.99));
+        assertFalse(filter.contains(0, -179.5));
+    }
+    
+    @Test
+    void nearest_ShouldMatchBruteForceOrder() {
+        Random random = new Random(5);
+        double[][] centres = {{52.52, 13.405}, {0.1, 179.95}, {84.5, 30}, {-60, -179.9}};
+        for (double[] centre : centres) {
+            for (int round = 0; round < 200; round++) {
+                double spread = random.nextBoolean() ? 0.3 : 20;
+                List<Point> points = new ArrayList<>();
+                for (int i = 0; i < 300; i++) {
+                    points.add(new Point(Math.max(-90, Math.min(90, centre[0] + (random.nextDouble() * 2 - 1) * spread)),
+                            wrap(centre[1] + (random.nextDouble() * 2 - 1) * spread)));
+                }
+                double radiusKm = random.nextBoolean() ? 2 : 25;
+                ProximityFilter filter = new ProximityFilter(centre[0], centre[1], radiusKm);
+                
+                List<Point> nearest = filter.nearest(points, Point::lat, Point::lon, 5);
+                
+                assertEquals(bruteForce(points, centre, radiusKm, 5), nearest);
+            }
+        }
+    }
+    
+    @Test
+    void nearest_OverPointArrays_ShouldMatchBruteForceOrder() {
+        Random random = new Random(9);
+        double[][] centres = {{52.52, 13.405}, {0.1, 179.95}, {84.5, 30}, {-60, -179.9}};
+        for (double[] centre : centres) {
+            for (int round = 0; round < 200; round++) {
+                double spread = random.nextBoolean() ? 0.3 : 20;
+                List<Point> first = new ArrayList<>();
+                List<Point> second = new ArrayList<>();
+                for (int i = 0; i < 300; i++) {
+                    Point point = new Point(Math.max(-90, Math.min(90, centre[0] + (random.nextDouble() * 2 - 1) * spread)),
+                            wrap(centre[1] + (random.nextDouble() * 2 - 1) * spread));
+                    (i % 3 == 0 ? first : second).add(point);
+                }
+                List<Point> all = new ArrayList<>(first);
+                all.addAll(second);
+                double radiusKm = random.nextBoolean() ? 2 : 25;
+                ProximityFilter filter = new ProximityFilter(centre[0], centre[1], radiusKm);
+                
+                List<Point> nearest = filter.nearest(List.of(GeoPointArray.of(first, Point::lat, Point::lon),
+                        GeoPointArray.of(second, Point::lat, Point::lon)), 5);
+                
+                assertEquals(bruteForce(all, centre, radiusKm, 5), nearest);
+                assertEquals(filter.nearest(all, Point::lat, Point::lon, 5), nearest);
+            }
+        }
+    }
+    
+    @Test
+    void nearest_OverEmptyPointArrays_ShouldReturnNothing() {
+        ProximityFilter filter = new ProximityFilter(0, 0, 1);
+        
+        assertEquals(List.of(), filter.nearest(List.of(GeoPointArray.of(List.<Point>of(), Point::lat, Point::lon)), 3));
+        assertEquals(List.of(), filter.nearest(List.<GeoPointArray<Point>>of(), 3));
+    }
+    
+    @Test
+    void nearest_WithNothingInRadius_ShouldFallBackToNearestOverall() {
+        List<Point> points = List.of(new Point(10, 10), new Point(1, 1), new Point(-5, 3));
+        ProximityFilter filter = new ProximityFilter(0, 0, 1);
+        
+        assertEquals(List.of(new Point(1, 1), new Point(-5, 3)), filter.nearest(points, Point::lat, Point::lon, 2));
+    }
+    
+    @Test
+    void relativeError_BeyondBoundedSpan_ShouldBeInfinite() {
+        assertTrue(Double.isInfinite(ProximityFilter.relativeError(GeoDistance.EQUIRECTANGULAR_BOUNDED_SPAN_DEGREES + 0.1)));
+        assertEquals(GeoDistance.EQUIRECTANGULAR_MAX_ERROR, ProximityFilter.relativeError(1.0), 1e-15);
+    }
+    
+    private static List<Point> bruteForce(List<Point> points, double[] centre, double radiusKm, int limit) {
+        Comparator<Point> byDistance = Comparator.comparingDouble(p -> GeoDistance.haversineKm(centre[0], centre[1], p.lat(), p.lon()));
+        List<Point> inRadius = points.stream()
+                .filter(p -> GeoDistance.haversineKm(centre[0], centre[1], p.lat(), p.lon()) <= radiusKm)
+                .sorted(byDistance).limit(limit).toList();
+        return !inRadius.isEmpty() ? inRadius : points.stream().sorted(byDistance).limit(limit).toList();
+    }
+    
+    private static double wrap(double lon) {
+        return lon > 180 ? lon - 360 : lon < -180 ? lon + 360 : lon;
+    }
+}
@@ -0,0 +1,93 @@
+package com.swiftpulse.common.jvm;
+
+import com.swiftpulse.common.event.OrderEventType;
+import com.swiftpulse.common.event.schema.FileSchemaRegistry;
+import com.swiftpulse.common.event.schema.OrderEventSchemas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PinnedThreadMonitorTest {
+    
+    private static final String SENTINEL = "pinning-sentinel";
+    // A shared monitor: the JIT may drop a lock on an object that never escapes
+    private static final Object LOCK = new Object();
+    
+    @TempDir
+    Path tempDir;
+    
+    private final List<String> pinnedThreads = new CopyOnWriteArrayList<>();
+    private PinnedThreadMonitor monitor;
+    
+    @BeforeEach
+    void setUp() {
+        monitor = new PinnedThreadMonitor(Duration.ofMillis(1));
+        monitor.onPinned(event -> pinnedThreads.add(event.getThread().getJavaName()));
+        monitor.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        monitor.close();
+    }
+    
+    @Test
+    void sleepInsideSynchronized_OnVirtualThread_ShouldBeReported() throws InterruptedException {
+        pinWhileSleeping();
+        
+        awaitSentinel();
+        assertEquals(1, monitor.pinnedCount());
+    }
+    
+    @Test
+    void fileSchemaRegistry_UnderContentionOnVirtualThreads_ShouldNotPin() throws InterruptedException {
+        FileSchemaRegistry registry = new FileSchemaRegistry(tempDir.resolve("schemas.json"));
+        OrderEventType[] types = OrderEventType.values();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                OrderEventType type = types[i % types.length];
+                executor.submit(() -> {
+                    registry.getById(registry.register(OrderEventSchemas.current(type)));
+                    // An unknown id re-reads the file under the registry lock
+                    assertThrows(IllegalArgumentException.class, () -> registry.getById(-1));
+                });
+            }
+        }
+        // Events arrive in time order, so every pin before the sentinel's has been reported once it shows up
+        pinWhileSleeping();
+        
+        awaitSentinel();
+        assertEquals(List.of(SENTINEL), pinnedThreads);
+    }
+    
+    private static void pinWhileSleeping() throws InterruptedException {
+        Thread.ofVirtual().name(SENTINEL).start(() -> {
+            synchronized (LOCK) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+    }
+    
+    private void awaitSentinel() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!pinnedThreads.contains(SENTINEL) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(pinnedThreads.contains(SENTINEL), "No pinned event for " + SENTINEL + ": " + pinnedThreads);
+    }
+}
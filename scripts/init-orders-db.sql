@@ -1,11 +1,12 @@
 -- Initialize Order Service Database
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
--- Create orders table
+-- Create orders table, range partitioned by created_at (monthly partitions are
+-- maintained by the order-service OrderPartitionManager)
 CREATE TABLE IF NOT EXISTS orders (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     customer_id BIGINT NOT NULL,
-    order_number VARCHAR(50) UNIQUE NOT NULL,
+    order_number VARCHAR(50) NOT NULL,
     weight DECIMAL(10,2) NOT NULL,
     description TEXT NOT NULL,
     package_type VARCHAR(20) NOT NULL,
@@ -31,9 +32,38 @@ CREATE TABLE IF NOT EXISTS orders (
     tracking_number VARCHAR(100),
     assigned_driver_id BIGINT,
     created_at TIMESTAMP NOT NULL DEFAULT NOW(),
-    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Order and tracking numbers are unique across all partitions and the archive. A
+-- partitioned table can only enforce uniqueness per created_at, so the numbers are
+-- claimed in this plain table when an order is created and kept after archiving.
+CREATE TABLE IF NOT EXISTS order_keys (
+    order_number VARCHAR(50) PRIMARY KEY,
+    tracking_number VARCHAR(100) UNIQUE,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
 );
 
+-- Catch-all partition for rows outside the managed monthly ranges
+CREATE TABLE IF NOT EXISTS orders_default PARTITION OF orders DEFAULT;
+
+-- Create monthly partitions for the current month and the next three
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR i IN 0..3 LOOP
+        month_start := (date_trunc('month', NOW()) + make_interval(months => i))::DATE;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+            'orders_p' || to_char(month_start, 'YYYY_MM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::DATE
+        );
+    END LOOP;
+END $$;
+
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX IF NOT EXISTS idx_orders_order_number ON orders(order_number);
@@ -42,6 +72,66 @@ CREATE INDEX IF NOT EXISTS idx_orders_tracking_number ON orders(tracking_number)
 CREATE INDEX IF NOT EXISTS idx_orders_assigned_driver_id ON orders(assigned_driver_id);
 CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
 
+-- Status transitions appended by the order-service whenever an order's status changes
+CREATE TABLE IF NOT EXISTS order_status_history (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    previous_status VARCHAR(20),
+    new_status VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_status_history_order_id ON order_status_history(order_id);
+
+-- Create cold archive for delivered/cancelled orders. The payload column holds the
+-- gzip-compressed order document, so TOAST compression is disabled for it.
+CREATE TABLE IF NOT EXISTS orders_archive (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    order_number VARCHAR(50) NOT NULL,
+    tracking_number VARCHAR(100),
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    payload BYTEA NOT NULL
+);
+
+ALTER TABLE orders_archive ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_customer_id ON orders_archive(customer_id);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_order_number ON orders_archive(order_number);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_tracking_number ON orders_archive(tracking_number);
+
+-- Create denormalized order view (read model fed by order, shipment and tracking events)
+CREATE TABLE IF NOT EXISTS order_views (
+    order_id BIGINT PRIMARY KEY,
+    order_number VARCHAR(50),
+    tracking_number VARCHAR(100),
+    customer_id BIGINT,
+    status VARCHAR(20),
+    pickup_address TEXT,
+    delivery_address TEXT,
+    weight DOUBLE PRECISION,
+    priority_level VARCHAR(20),
+    order_event_at TIMESTAMP WITH TIME ZONE,
+    shipment_id BIGINT,
+    driver_id BIGINT,
+    shipment_status VARCHAR(30),
+    estimated_pickup_time TIMESTAMP,
+    estimated_delivery_time TIMESTAMP,
+    distance_km DOUBLE PRECISION,
+    shipment_event_at TIMESTAMP WITH TIME ZONE,
+    current_latitude DOUBLE PRECISION,
+    current_longitude DOUBLE PRECISION,
+    current_speed DOUBLE PRECISION,
+    current_heading DOUBLE PRECISION,
+    tracking_status VARCHAR(50),
+    position_event_at TIMESTAMP WITH TIME ZONE,
+    version BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_views_tracking_number ON order_views(tracking_number);
+
 -- Create sequence for order numbers
 CREATE SEQUENCE IF NOT EXISTS order_number_seq
     START WITH 1000
@@ -9,9 +9,12 @@ CREATE TABLE IF NOT EXISTS drivers (
     vehicle_type VARCHAR(50) NOT NULL,
     vehicle_plate_number VARCHAR(20) UNIQUE NOT NULL,
     is_available BOOLEAN NOT NULL DEFAULT true,
+    active_shipments INTEGER NOT NULL DEFAULT 0,
+    load_kg DOUBLE PRECISION NOT NULL DEFAULT 0,
     current_latitude DECIMAL(10,8),
     current_longitude DECIMAL(11,8),
     last_location_update TIMESTAMP,
+    region_key VARCHAR(12),
     rating DECIMAL(3,2) DEFAULT 5.0,
     total_deliveries INTEGER DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT NOW(),
@@ -30,18 +33,37 @@ CREATE TABLE IF NOT EXISTS shipments (
     actual_delivery_time TIMESTAMP,
     pickup_confirmed BOOLEAN DEFAULT false,
     delivery_confirmed BOOLEAN DEFAULT false,
+    weight_kg DOUBLE PRECISION,
     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     created_at TIMESTAMP NOT NULL DEFAULT NOW(),
     updated_at TIMESTAMP NOT NULL DEFAULT NOW()
 );
 
+-- Create processed events table (consumer idempotency)
+CREATE TABLE IF NOT EXISTS processed_events (
+    event_key VARCHAR(100) PRIMARY KEY,
+    processed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS dispatch_forward_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    region_key VARCHAR(12) NOT NULL,
+    order_id BIGINT,
+    payload TEXT NOT NULL,
+    searched_regions TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_drivers_user_id ON drivers(user_id);
 CREATE INDEX IF NOT EXISTS idx_drivers_is_available ON drivers(is_available);
 CREATE INDEX IF NOT EXISTS idx_drivers_vehicle_type ON drivers(vehicle_type);
+CREATE INDEX IF NOT EXISTS idx_drivers_region_key ON drivers(region_key);
 CREATE INDEX IF NOT EXISTS idx_shipments_order_id ON shipments(order_id);
 CREATE INDEX IF NOT EXISTS idx_shipments_driver_id ON shipments(driver_id);
 CREATE INDEX IF NOT EXISTS idx_shipments_status ON shipments(status);
+CREATE INDEX IF NOT EXISTS idx_processed_events_processed_at ON processed_events(processed_at);
 
 -- Insert sample driver
 INSERT INTO drivers (user_id, license_number, vehicle_type, vehicle_plate_number, is_available, rating, created_at, updated_at)
@@ -1,11 +1,14 @@
 package com.swiftpulse.identity;
 
+import com.swiftpulse.common.jvm.PinnedThreadMonitorConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
 
 @SpringBootApplication
+@Import(PinnedThreadMonitorConfiguration.class)
 @EnableDiscoveryClient
 @EnableKafka
 public class IdentityServiceApplication {
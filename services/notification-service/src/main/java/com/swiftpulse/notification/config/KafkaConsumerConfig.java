@@ -0,0 +1,42 @@
+package com.swiftpulse.notification.config;
+
+import com.swiftpulse.common.event.OrderEvent;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+@Configuration
+public class KafkaConsumerConfig {
+    
+    /**
+     * Records are acknowledged by KeyOrderedRecordProcessor as they finish, possibly out
+     * of order; async acks make the container commit only contiguous completed offsets.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        factory.setAckDiscarded(true);
+        return factory;
+    }
+    
+    /**
+     * Drops records that OrderEventDeserializer skipped based on their event-type
+     * header. Records that failed to deserialize also carry a null value, but keep
+     * their exception header and are passed through to the error handler.
+     */
+    @Bean
+    public RecordFilterStrategy<String, OrderEvent> skippedOrderEventFilter() {
+        return record -> record.value() == null
+                && record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) == null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.swiftpulse.notification.config;
+
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderEventSerializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaRetryConfig {
+    
+    /**
+     * Republishes failed order events to the retry and dead-letter topics. Events are
+     * re-encoded with OrderEventSerializer; records that never deserialized are
+     * forwarded as their original bytes.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> retryTopicKafkaTemplate(KafkaProperties kafkaProperties) {
+        Map<String, Object> configs = kafkaProperties.buildProducerProperties(null);
+        
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(OrderEvent.class, new OrderEventSerializer());
+        
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(configs,
+                new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers, true));
+        return new KafkaTemplate<>(producerFactory);
+    }
+}
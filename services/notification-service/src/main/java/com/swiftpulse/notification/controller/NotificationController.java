@@ -1,8 +1,14 @@
 package com.swiftpulse.notification.controller;
 
+import com.swiftpulse.common.kafka.ReplayProgress;
+import com.swiftpulse.common.kafka.ReplayRequest;
+import com.swiftpulse.common.kafka.ReplayResult;
+import com.swiftpulse.notification.service.DeadLetterReplayService;
+import com.swiftpulse.notification.service.EventReplayService;
 import com.swiftpulse.notification.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,9 +18,14 @@ import org.springframework.web.bind.annotation.*;
 public class NotificationController {
     
     private final NotificationService notificationService;
+    private final DeadLetterReplayService deadLetterReplayService;
+    private final EventReplayService eventReplayService;
     
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, DeadLetterReplayService deadLetterReplayService,
+                                  EventReplayService eventReplayService) {
         this.notificationService = notificationService;
+        this.deadLetterReplayService = deadLetterReplayService;
+        this.eventReplayService = eventReplayService;
     }
     
     @PostMapping("/email")
@@ -33,4 +44,36 @@ public class NotificationController {
         notificationService.sendSMS(phoneNumber, message);
         return ResponseEntity.ok("SMS sent successfully");
     }
+    
+    @PostMapping("/admin/dlt/replay")
+    @Operation(summary = "Replay dead-lettered order events", description = "Sends up to maxRecords dead-lettered order events back through the notification retry topics")
+    public ResponseEntity<ReplayResult> replayDeadLetters(@RequestParam(defaultValue = "1000") int maxRecords) {
+        return ResponseEntity.ok(deadLetterReplayService.replay(maxRecords));
+    }
+    
+    @PostMapping("/admin/replay")
+    @Operation(summary = "Replay order events", description = "Replays order-events from an offset or timestamp with customer emails suppressed or redirected")
+    public ResponseEntity<ReplayProgress> startReplay(@RequestBody(required = false) ReplayRequest request) {
+        try {
+            return ResponseEntity.accepted().body(eventReplayService.start(request != null ? request : new ReplayRequest(null, null, null)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @GetMapping("/admin/replay")
+    @Operation(summary = "Get replay progress")
+    public ResponseEntity<ReplayProgress> getReplayProgress() {
+        return eventReplayService.current()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @DeleteMapping("/admin/replay")
+    @Operation(summary = "Cancel the running replay")
+    public ResponseEntity<ReplayProgress> cancelReplay() {
+        return eventReplayService.cancel()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,31 @@
+package com.swiftpulse.notification.service;
+
+import com.swiftpulse.common.kafka.DeadLetterReplayer;
+import com.swiftpulse.common.kafka.ReplayResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DeadLetterReplayService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterReplayService.class);
+    
+    static final String DEAD_LETTER_TOPIC = "order-events-notification-dlt";
+    static final String FIRST_RETRY_TOPIC = "order-events-notification-retry-0";
+    private static final String REPLAY_GROUP_ID = "notification-service-dlt-replay";
+    
+    private final DeadLetterReplayer replayer;
+    
+    public DeadLetterReplayService(KafkaProperties kafkaProperties) {
+        this.replayer = new DeadLetterReplayer(kafkaProperties.buildConsumerProperties(null),
+                kafkaProperties.buildProducerProperties(null));
+    }
+    
+    public ReplayResult replay(int maxRecords) {
+        ReplayResult result = replayer.replay(DEAD_LETTER_TOPIC, FIRST_RETRY_TOPIC, REPLAY_GROUP_ID, maxRecords);
+        log.info("Replayed {} dead-lettered order events to {}, {} remaining", result.replayed(), result.targetTopic(), result.remaining());
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package com.swiftpulse.notification.service;
+
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderEventSerdeConfig;
+import com.swiftpulse.common.kafka.OrderEventReplayer;
+import com.swiftpulse.common.kafka.ReplayProgress;
+import com.swiftpulse.common.kafka.ReplayRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays order-events through the notification templates outside the live consumer
+ * group. Emails are not sent to customers: they are only counted, or redirected to
+ * notification.replay.redirect-to when that is set.
+ */
+@Service
+public class EventReplayService {
+    
+    private static final Logger log = LoggerFactory.getLogger(EventReplayService.class);
+    private static final String ORDER_EVENTS_TOPIC = "order-events";
+    private static final long PROGRESS_LOG_INTERVAL_MS = 10_000;
+    
+    private final OrderEventReplayer replayer;
+    private final NotificationService notificationService;
+    private final String redirectTo;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-event-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile ReplayProgress current;
+    
+    public EventReplayService(KafkaProperties kafkaProperties, NotificationService notificationService,
+                              @Value("${notification.replay.redirect-to:}") String redirectTo) {
+        Map<String, Object> configs = kafkaProperties.buildConsumerProperties(null);
+        configs.put(OrderEventSerdeConfig.ACCEPTED_TYPES, "ORDER_CREATED,ORDER_STATUS_UPDATED,DRIVER_ASSIGNED");
+        this.replayer = new OrderEventReplayer(configs);
+        this.notificationService = notificationService;
+        this.redirectTo = redirectTo;
+    }
+    
+    public synchronized ReplayProgress start(ReplayRequest request) {
+        if (current != null && current.getState() == ReplayProgress.State.RUNNING) {
+            throw new IllegalStateException("A replay is already running");
+        }
+        ReplayProgress progress = new ReplayProgress(ORDER_EVENTS_TOPIC);
+        current = progress;
+        executor.submit(() -> run(request, progress));
+        return progress;
+    }
+    
+    public Optional<ReplayProgress> current() {
+        return Optional.ofNullable(current);
+    }
+    
+    public Optional<ReplayProgress> cancel() {
+        ReplayProgress progress = current;
+        if (progress != null) {
+            progress.cancel();
+        }
+        return Optional.ofNullable(progress);
+    }
+    
+    private void run(ReplayRequest request, ReplayProgress progress) {
+        log.info("Starting order-events replay from offset {} / timestamp {}, emails {}", request.fromOffset(),
+                request.fromTimestamp(), redirectTo.isBlank() ? "suppressed" : "redirected to " + redirectTo);
+        AtomicLong rendered = new AtomicLong();
+        NotificationService.EmailDelivery delivery = (to, subject, body) -> {
+            rendered.incrementAndGet();
+            if (!redirectTo.isBlank()) {
+                notificationService.sendEmail(redirectTo, "[replay for " + to + "] " + subject, body);
+            }
+        };
+        long[] lastLog = {System.currentTimeMillis()};
+        try {
+            replayer.replay(ORDER_EVENTS_TOPIC, request, progress, (List<OrderEvent> batch) -> {
+                for (OrderEvent event : batch) {
+                    notificationService.processOrderEvent(event, delivery);
+                }
+                if (System.currentTimeMillis() - lastLog[0] >= PROGRESS_LOG_INTERVAL_MS) {
+                    lastLog[0] = System.currentTimeMillis();
+                    log.info("Replay progress: {}/{} records ({}%), {} records/s, {} emails rendered",
+                            progress.getReadRecords(), progress.getTotalRecords(), String.format("%.1f", progress.getPercentComplete()),
+                            String.format("%.0f", progress.getRecordsPerSecond()), rendered.get());
+                }
+            });
+            log.info("Replay {}: {} records in {} records/s, {} emails rendered, {} unreadable",
+                    progress.getState(), progress.getReadRecords(), String.format("%.0f", progress.getRecordsPerSecond()),
+                    rendered.get(), progress.getFailedRecords());
+        } catch (RuntimeException e) {
+            log.error("Replay failed after {} records", progress.getReadRecords(), e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        ReplayProgress progress = current;
+        if (progress != null) {
+            progress.cancel();
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,167 @@
+package com.swiftpulse.notification.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs record handlers on a worker pool, in parallel across keys and in order within a
+ * key. Each record is acknowledged when its handler finishes; the listener container
+ * runs with async acks, so it only commits an offset once every earlier offset of the
+ * partition has been acknowledged too. A failing handler never reaches the container,
+ * so its record is passed to the recoverer before being acknowledged.
+ */
+@Component
+public class KeyOrderedRecordProcessor {
+    
+    private static final Logger log = LoggerFactory.getLogger(KeyOrderedRecordProcessor.class);
+    
+    private final boolean parallel;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final Map<Object, CompletableFuture<Void>> tailByKey = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionProgress> progress = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    public KeyOrderedRecordProcessor(MeterRegistry meterRegistry,
+                                     @Value("${notification.consumer.mode:parallel}") String mode,
+                                     @Value("${notification.consumer.concurrency:64}") int concurrency,
+                                     @Value("${notification.consumer.max-in-flight:1000}") int maxInFlight) {
+        this.parallel = "parallel".equalsIgnoreCase(mode);
+        this.permits = new Semaphore(maxInFlight);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "notification-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Gauge.builder("notification.consumer.in.flight", inFlight, AtomicInteger::get)
+                .description("Records handed to workers and not yet finished")
+                .register(meterRegistry);
+        Gauge.builder("notification.consumer.commit.lag", this, KeyOrderedRecordProcessor::commitLag)
+                .description("Received records that cannot be committed yet because an earlier offset is still running")
+                .register(meterRegistry);
+    }
+    
+    public void submit(ConsumerRecord<?, ?> record, Object key, Runnable handler,
+                       ConsumerRecordRecoverer recoverer, Acknowledgment acknowledgment) {
+        if (!parallel) {
+            run(handler, recoverer, record);
+            acknowledgment.acknowledge();
+            return;
+        }
+        
+        TopicPartition topicPartition = new TopicPartition(record.topic(), record.partition());
+        Object orderingKey = orderingKey(key, record, topicPartition);
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run(handler, recoverer, record);
+            acknowledgment.acknowledge();
+            return;
+        }
+        
+        long offset = record.offset();
+        PartitionProgress partition = progress.computeIfAbsent(topicPartition, tp -> new PartitionProgress());
+        partition.received(offset);
+        inFlight.incrementAndGet();
+        
+        CompletableFuture<Void> tail = tailByKey.compute(orderingKey, (k, previous) ->
+                (previous != null ? previous : CompletableFuture.<Void>completedFuture(null))
+                        .thenRunAsync(() -> run(handler, recoverer, record), workers)
+                        .whenComplete((result, ex) -> {
+                            partition.completed(offset);
+                            inFlight.decrementAndGet();
+                            permits.release();
+                            acknowledgment.acknowledge();
+                        }));
+        tail.whenComplete((result, ex) -> tailByKey.remove(orderingKey, tail));
+    }
+    
+    /**
+     * Records without a key of their own, e.g. an event with no order id, fall back to the
+     * record key and then to their partition, which runs them serially with each other.
+     */
+    private static Object orderingKey(Object key, ConsumerRecord<?, ?> record, TopicPartition topicPartition) {
+        if (key != null) {
+            return key;
+        }
+        return record.key() != null ? record.key() : topicPartition;
+    }
+    
+    public long commitLag() {
+        long lag = 0;
+        for (PartitionProgress partition : progress.values()) {
+            lag += partition.lag();
+        }
+        return lag;
+    }
+    
+    private void run(Runnable handler, ConsumerRecordRecoverer recoverer, ConsumerRecord<?, ?> record) {
+        try {
+            handler.run();
+        } catch (RuntimeException e) {
+            log.warn("Handler failed for record {}-{}@{}, handing it to the recoverer",
+                    record.topic(), record.partition(), record.offset(), e);
+            try {
+                recoverer.accept(record, e);
+            } catch (RuntimeException recoveryFailure) {
+                log.error("Could not recover record {}-{}@{}", record.topic(), record.partition(), record.offset(), recoveryFailure);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("{} notification records still in flight at shutdown", inFlight.get());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static final class PartitionProgress {
+        
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        private final AtomicLong highestReceived = new AtomicLong(-1);
+        
+        void received(long offset) {
+            pending.add(offset);
+            highestReceived.accumulateAndGet(offset, Math::max);
+        }
+        
+        void completed(long offset) {
+            pending.remove(offset);
+        }
+        
+        long lag() {
+            Long lowestPending = pending.isEmpty() ? null : pending.first();
+            return lowestPending != null ? highestReceived.get() - lowestPending + 1 : 0;
+        }
+    }
+}
@@ -1,57 +1,94 @@
 package com.swiftpulse.notification.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.common.event.DriverAssignedEvent;
+import com.swiftpulse.common.event.OrderCreatedEvent;
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderStatusUpdatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Service
 public class NotificationService {
     
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
     
+    static final String ORDER_EVENTS_LISTENER_ID = "notification-order-events";
+    
     private final JavaMailSender mailSender;
-    private final ObjectMapper objectMapper;
+    private final KeyOrderedRecordProcessor recordProcessor;
+    private final RetryTopicRecoverer retryTopicRecoverer;
+    private final Counter deadLettered;
     
-    public NotificationService(JavaMailSender mailSender, ObjectMapper objectMapper) {
+    public NotificationService(JavaMailSender mailSender, KeyOrderedRecordProcessor recordProcessor,
+                               RetryTopicRecoverer retryTopicRecoverer, MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
-        this.objectMapper = objectMapper;
+        this.recordProcessor = recordProcessor;
+        this.retryTopicRecoverer = retryTopicRecoverer;
+        this.deadLettered = Counter.builder("notification.events.dead.lettered")
+                .description("Order events moved to the notification dead-letter topic")
+                .register(meterRegistry);
     }
     
-    @KafkaListener(topics = "order-events", groupId = "notification-service")
-    public void handleOrderEvents(String eventJson) {
-        try {
-            Map<String, Object> event = objectMapper.readValue(eventJson, HashMap.class);
-            String eventType = (String) event.get("eventType");
-            
-            switch (eventType) {
-                case "ORDER_CREATED":
-                    handleOrderCreated(event);
-                    break;
-                case "ORDER_STATUS_UPDATED":
-                    handleOrderStatusUpdated(event);
-                    break;
-                case "DRIVER_ASSIGNED":
-                    handleDriverAssigned(event);
-                    break;
-                default:
-                    log.debug("Unhandled event type: {}", eventType);
-            }
-        } catch (Exception e) {
-            log.error("Error processing notification event: {}", eventJson, e);
+    @RetryableTopic(
+            attempts = "${notification.events.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${notification.events.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${notification.events.retry.multiplier:5}",
+                    maxDelayExpression = "${notification.events.retry.max-delay-ms:60000}"),
+            retryTopicSuffix = "-notification-retry",
+            dltTopicSuffix = "-notification-dlt",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            kafkaTemplate = "retryTopicKafkaTemplate")
+    @KafkaListener(id = ORDER_EVENTS_LISTENER_ID, topics = "order-events", groupId = "notification-service", filter = "skippedOrderEventFilter", properties = {
+        "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.deserializer.value.delegate.class=com.swiftpulse.common.event.OrderEventDeserializer",
+        "swiftpulse.event.accepted-types=ORDER_CREATED,ORDER_STATUS_UPDATED,DRIVER_ASSIGNED"
+    })
+    public void handleOrderEvents(ConsumerRecord<String, OrderEvent> record, Acknowledgment acknowledgment) {
+        OrderEvent event = record.value();
+        recordProcessor.submit(record, event.orderId(), () -> processOrderEvent(event), retryTopicRecoverer, acknowledgment);
+    }
+    
+    @DltHandler
+    public void handleDeadLetter(ConsumerRecord<String, OrderEvent> record, Acknowledgment acknowledgment,
+                                 @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error) {
+        deadLettered.increment();
+        log.error("Order event dead-lettered at {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), error);
+        acknowledgment.acknowledge();
+    }
+    
+    public void processOrderEvent(OrderEvent event) {
+        processOrderEvent(event, this::sendEmail);
+    }
+    
+    /** Renders the notifications for an event and hands them to the given delivery, e.g. a replay sink. */
+    public void processOrderEvent(OrderEvent event, EmailDelivery delivery) {
+        if (event instanceof OrderCreatedEvent created) {
+            handleOrderCreated(created, delivery);
+        } else if (event instanceof OrderStatusUpdatedEvent updated) {
+            handleOrderStatusUpdated(updated, delivery);
+        } else if (event instanceof DriverAssignedEvent assigned) {
+            handleDriverAssigned(assigned, delivery);
         }
     }
     
-    private void handleOrderCreated(Map<String, Object> event) {
-        String orderNumber = (String) event.get("orderNumber");
-        String trackingNumber = (String) event.get("trackingNumber");
-        Long customerId = Long.valueOf(event.get("customerId").toString());
+    private void handleOrderCreated(OrderCreatedEvent event, EmailDelivery delivery) {
+        String orderNumber = event.orderNumber();
+        String trackingNumber = event.trackingNumber();
         
         log.info("Sending order confirmation for order: {}", orderNumber);
         
@@ -65,13 +102,12 @@ public class NotificationService {
             orderNumber, trackingNumber, trackingNumber
         );
         
-        sendEmail(getCustomerEmail(customerId), subject, body);
+        delivery.send(getCustomerEmail(event.customerId()), subject, body);
     }
     
-    private void handleOrderStatusUpdated(Map<String, Object> event) {
-        String orderNumber = (String) event.get("orderNumber");
-        String newStatus = (String) event.get("newStatus");
-        Long customerId = Long.valueOf(event.get("customerId").toString());
+    private void handleOrderStatusUpdated(OrderStatusUpdatedEvent event, EmailDelivery delivery) {
+        String orderNumber = event.orderNumber();
+        String newStatus = event.newStatus();
         
         log.info("Sending status update for order: {}, status: {}", orderNumber, newStatus);
         
@@ -80,16 +116,14 @@ public class NotificationService {
             "Your order status has been updated to: %s\n\n" +
             "Order Number: %s\n\n" +
             "Track your order at: http://localhost:3000/tracking/%s",
-            newStatus, orderNumber, event.get("trackingNumber")
+            newStatus, orderNumber, event.trackingNumber()
         );
         
-        sendEmail(getCustomerEmail(customerId), subject, body);
+        delivery.send(getCustomerEmail(event.customerId()), subject, body);
     }
     
-    private void handleDriverAssigned(Map<String, Object> event) {
-        String orderNumber = (String) event.get("orderNumber");
-        Long driverId = Long.valueOf(event.get("driverId").toString());
-        Long customerId = Long.valueOf(event.get("customerId").toString());
+    private void handleDriverAssigned(DriverAssignedEvent event, EmailDelivery delivery) {
+        String orderNumber = event.orderNumber();
         
         log.info("Sending driver assignment notification for order: {}", orderNumber);
         
@@ -99,10 +133,10 @@ public class NotificationService {
             "Order Number: %s\n" +
             "Driver ID: %d\n\n" +
             "Your delivery is on its way!",
-            orderNumber, driverId
+            orderNumber, event.driverId()
         );
         
-        sendEmail(getCustomerEmail(customerId), subject, body);
+        delivery.send(getCustomerEmail(event.customerId()), subject, body);
     }
     
     public void sendEmail(String to, String subject, String body) {
@@ -115,8 +149,9 @@ public class NotificationService {
             
             mailSender.send(message);
             log.info("Email sent successfully to: {}", to);
-        } catch (Exception e) {
+        } catch (MailException e) {
             log.error("Failed to send email to: {}", to, e);
+            throw e;
         }
     }
     
@@ -124,6 +159,11 @@ public class NotificationService {
         log.info("SMS notification sent to: {} - {}", phoneNumber, message);
     }
     
+    @FunctionalInterface
+    public interface EmailDelivery {
+        void send(String to, String subject, String body);
+    }
+    
     private String getCustomerEmail(Long customerId) {
         return "customer" + customerId + "@example.com";
     }
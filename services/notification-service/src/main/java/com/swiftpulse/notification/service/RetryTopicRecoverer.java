@@ -0,0 +1,40 @@
+package com.swiftpulse.notification.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopicResolver;
+import org.springframework.kafka.retrytopic.RetryTopicBeanNames;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a failed order event to its next retry topic, or to the dead-letter topic
+ * once retries are exhausted, using the destinations registered for the notification
+ * listener's @RetryableTopic. Used for failures on worker threads, which the listener
+ * container never sees.
+ */
+@Component
+public class RetryTopicRecoverer implements ConsumerRecordRecoverer {
+    
+    private final ObjectProvider<DestinationTopicResolver> destinationTopicResolver;
+    private volatile DeadLetterPublishingRecoverer delegate;
+    
+    public RetryTopicRecoverer(@Qualifier(RetryTopicBeanNames.DESTINATION_TOPIC_RESOLVER_BEAN_NAME)
+                               ObjectProvider<DestinationTopicResolver> destinationTopicResolver) {
+        this.destinationTopicResolver = destinationTopicResolver;
+    }
+    
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Exception exception) {
+        DeadLetterPublishingRecoverer recoverer = delegate;
+        if (recoverer == null) {
+            recoverer = new DeadLetterPublishingRecovererFactory(destinationTopicResolver.getObject())
+                    .create(NotificationService.ORDER_EVENTS_LISTENER_ID);
+            delegate = recoverer;
+        }
+        recoverer.accept(record, exception);
+    }
+}
@@ -0,0 +1,57 @@
+package com.swiftpulse.notification.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedRecordProcessorTest {
+    
+    private final KeyOrderedRecordProcessor processor = new KeyOrderedRecordProcessor(new SimpleMeterRegistry(), "parallel", 4, 2);
+    
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+    
+    @Test
+    void submit_WithNullKeys_ShouldRunSeriallyAndReleaseEveryPermit() throws InterruptedException {
+        int records = 10;
+        CountDownLatch acknowledged = new CountDownLatch(records);
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        Acknowledgment acknowledgment = acknowledged::countDown;
+        
+        // More records than permits: a leaked permit would block the submitting thread
+        for (long offset = 0; offset < records; offset++) {
+            ConsumerRecord<String, String> record = new ConsumerRecord<>("order-events", 0, offset, null, "value");
+            long current = offset;
+            processor.submit(record, null, () -> handled.add(current), (r, e) -> fail(e), acknowledgment);
+        }
+        
+        assertTrue(acknowledged.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), handled);
+        assertEquals(0, processor.commitLag());
+    }
+    
+    @Test
+    void submit_WhenHandlerFails_ShouldRecoverAndAcknowledge() throws InterruptedException {
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        List<ConsumerRecord<?, ?>> recovered = new CopyOnWriteArrayList<>();
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("order-events", 0, 0L, "42", "value");
+        
+        processor.submit(record, 42L, () -> {
+            throw new IllegalStateException("boom");
+        }, (r, e) -> recovered.add(r), acknowledged::countDown);
+        
+        assertTrue(acknowledged.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(record), recovered);
+    }
+}
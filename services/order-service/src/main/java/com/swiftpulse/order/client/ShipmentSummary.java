@@ -0,0 +1,17 @@
+package com.swiftpulse.order.client;
+
+import java.time.LocalDateTime;
+
+public record ShipmentSummary(
+        Long id,
+        Long orderId,
+        Long driverId,
+        String status,
+        LocalDateTime estimatedPickupTime,
+        LocalDateTime estimatedDeliveryTime,
+        LocalDateTime actualPickupTime,
+        LocalDateTime actualDeliveryTime,
+        Double distanceKm,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,12 @@
+package com.swiftpulse.order.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient(name = "shipping-service", url = "${orders.timeline.shipping-url:}", dismiss404 = true)
+public interface ShippingClient {
+    
+    @GetMapping("/api/shipping/shipments/{orderId}")
+    ShipmentSummary getShipmentByOrderId(@PathVariable("orderId") Long orderId);
+}
@@ -0,0 +1,14 @@
+package com.swiftpulse.order.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+
+@FeignClient(name = "tracking-service", url = "${orders.timeline.tracking-url:}", dismiss404 = true)
+public interface TrackingClient {
+    
+    @GetMapping("/api/tracking/order/{orderId}")
+    List<TrackingPoint> getOrderTracking(@PathVariable("orderId") Long orderId);
+}
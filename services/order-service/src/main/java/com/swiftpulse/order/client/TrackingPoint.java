@@ -0,0 +1,14 @@
+package com.swiftpulse.order.client;
+
+import java.time.LocalDateTime;
+
+public record TrackingPoint(
+        Long driverId,
+        String driverName,
+        Double latitude,
+        Double longitude,
+        String locationDescription,
+        String status,
+        String notes,
+        LocalDateTime timestamp) {
+}
@@ -2,8 +2,12 @@ package com.swiftpulse.order.controller;
 
 import com.swiftpulse.order.dto.CreateOrderRequest;
 import com.swiftpulse.order.dto.OrderResponse;
+import com.swiftpulse.order.dto.OrderTimelineResponse;
 import com.swiftpulse.order.entity.Order;
+import com.swiftpulse.order.entity.OrderView;
 import com.swiftpulse.order.service.OrderService;
+import com.swiftpulse.order.service.OrderTimelineService;
+import com.swiftpulse.order.service.OrderViewProjector;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -23,9 +27,14 @@ public class OrderController {
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
     
     private final OrderService orderService;
+    private final OrderViewProjector orderViewProjector;
+    private final OrderTimelineService orderTimelineService;
     
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderViewProjector orderViewProjector,
+                           OrderTimelineService orderTimelineService) {
         this.orderService = orderService;
+        this.orderViewProjector = orderViewProjector;
+        this.orderTimelineService = orderTimelineService;
     }
     
     @PostMapping
@@ -44,6 +53,28 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/{orderId}/view")
+    @Operation(summary = "Get order view", description = "Retrieves the order together with its shipment and latest position in one lookup")
+    public ResponseEntity<OrderView> getOrderView(@PathVariable Long orderId) {
+        return orderViewProjector.findByOrderId(orderId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{orderId}/timeline")
+    @Operation(summary = "Get order timeline", description = "Merges order, shipment and tracking history into one chronological view")
+    public ResponseEntity<OrderTimelineResponse> getOrderTimeline(@PathVariable Long orderId) {
+        return ResponseEntity.ok(orderTimelineService.getTimeline(orderId));
+    }
+    
+    @GetMapping("/track/{trackingNumber}/view")
+    @Operation(summary = "Get order view by tracking number", description = "Retrieves the order together with its shipment and latest position in one lookup")
+    public ResponseEntity<OrderView> getOrderViewByTrackingNumber(@PathVariable String trackingNumber) {
+        return orderViewProjector.findByTrackingNumber(trackingNumber)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/number/{orderNumber}")
     @Operation(summary = "Get order by number", description = "Retrieves order details by order number")
     public ResponseEntity<OrderResponse> getOrderByNumber(@PathVariable String orderNumber) {
@@ -59,9 +90,10 @@ public class OrderController {
     }
     
     @GetMapping("/customer/{customerId}")
-    @Operation(summary = "Get customer orders", description = "Retrieves all orders for a customer")
-    public ResponseEntity<List<OrderResponse>> getCustomerOrders(@PathVariable Long customerId) {
-        List<OrderResponse> orders = orderService.getOrdersByCustomer(customerId);
+    @Operation(summary = "Get customer orders", description = "Retrieves all orders for a customer, optionally including archived ones")
+    public ResponseEntity<List<OrderResponse>> getCustomerOrders(@PathVariable Long customerId,
+                                                                 @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<OrderResponse> orders = orderService.getOrdersByCustomer(customerId, includeArchived);
         return ResponseEntity.ok(orders);
     }
     
@@ -0,0 +1,11 @@
+package com.swiftpulse.order.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chronological merge of order, shipment and tracking history. {@code sources} reports
+ * OK, TIMEOUT or UNAVAILABLE per source; entries from degraded sources are missing.
+ */
+public record OrderTimelineResponse(Long orderId, boolean complete, Map<String, String> sources, List<TimelineEntry> entries) {
+}
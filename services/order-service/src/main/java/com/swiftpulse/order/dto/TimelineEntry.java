@@ -0,0 +1,6 @@
+package com.swiftpulse.order.dto;
+
+import java.time.LocalDateTime;
+
+public record TimelineEntry(LocalDateTime at, String source, String type, String description) {
+}
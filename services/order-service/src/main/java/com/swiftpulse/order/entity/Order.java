@@ -15,10 +15,10 @@ public class Order {
     @Column(name = "customer_id", nullable = false)
     private Long customerId;
     
-    @Column(name = "order_number", nullable = false, unique = true)
+    @Column(name = "order_number", nullable = false)
     private String orderNumber;
     
-    @Column(name = "tracking_number", nullable = false, unique = true)
+    @Column(name = "tracking_number", nullable = false)
     private String trackingNumber;
     
     @Column(nullable = false)
@@ -0,0 +1,50 @@
+package com.swiftpulse.order.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Globally unique order and tracking numbers. The partitioned orders table can only
+ * enforce uniqueness together with created_at, so every number is also claimed in this
+ * plain table; rows outlive archiving so archived numbers are never handed out again.
+ */
+@Entity
+@Table(name = "order_keys")
+public class OrderKey implements Persistable<String> {
+    
+    @Id
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+    
+    @Column(name = "tracking_number", length = 100, unique = true)
+    private String trackingNumber;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public OrderKey() {}
+    
+    public OrderKey(String orderNumber, String trackingNumber) {
+        this.orderNumber = orderNumber;
+        this.trackingNumber = trackingNumber;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    @Override
+    public String getId() { return orderNumber; }
+    
+    @Override
+    public boolean isNew() { return true; }
+    
+    // Getters and Setters
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    
+    public String getTrackingNumber() { return trackingNumber; }
+    public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
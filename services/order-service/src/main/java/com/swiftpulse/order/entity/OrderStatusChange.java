@@ -0,0 +1,56 @@
+package com.swiftpulse.order.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One status transition of an order, appended by OrderService whenever it changes an
+ * order's status. The order row only keeps the current status.
+ */
+@Entity
+@Table(name = "order_status_history", indexes = @Index(name = "idx_order_status_history_order_id", columnList = "order_id"))
+public class OrderStatusChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private Order.OrderStatus previousStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false, length = 20)
+    private Order.OrderStatus newStatus;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    public OrderStatusChange() {}
+    
+    public OrderStatusChange(Long orderId, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        this.orderId = orderId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.changedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public Order.OrderStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(Order.OrderStatus previousStatus) { this.previousStatus = previousStatus; }
+    
+    public Order.OrderStatus getNewStatus() { return newStatus; }
+    public void setNewStatus(Order.OrderStatus newStatus) { this.newStatus = newStatus; }
+    
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
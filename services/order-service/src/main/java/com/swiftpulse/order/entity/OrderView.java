@@ -0,0 +1,165 @@
+package com.swiftpulse.order.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized order, shipment and live position, maintained from events by
+ * OrderViewProjector. Each section remembers the timestamp of the event it was last
+ * built from, so late events never overwrite newer data.
+ */
+@Entity
+@Table(name = "order_views")
+public class OrderView {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(name = "order_number")
+    private String orderNumber;
+    
+    @Column(name = "tracking_number")
+    private String trackingNumber;
+    
+    @Column(name = "customer_id")
+    private Long customerId;
+    
+    private String status;
+    
+    @Column(name = "pickup_address", columnDefinition = "TEXT")
+    private String pickupAddress;
+    
+    @Column(name = "delivery_address", columnDefinition = "TEXT")
+    private String deliveryAddress;
+    
+    private Double weight;
+    
+    @Column(name = "priority_level")
+    private String priorityLevel;
+    
+    @Column(name = "order_event_at")
+    private Instant orderEventAt;
+    
+    @Column(name = "shipment_id")
+    private Long shipmentId;
+    
+    @Column(name = "driver_id")
+    private Long driverId;
+    
+    @Column(name = "shipment_status")
+    private String shipmentStatus;
+    
+    @Column(name = "estimated_pickup_time")
+    private LocalDateTime estimatedPickupTime;
+    
+    @Column(name = "estimated_delivery_time")
+    private LocalDateTime estimatedDeliveryTime;
+    
+    @Column(name = "distance_km")
+    private Double distanceKm;
+    
+    @Column(name = "shipment_event_at")
+    private Instant shipmentEventAt;
+    
+    @Column(name = "current_latitude")
+    private Double currentLatitude;
+    
+    @Column(name = "current_longitude")
+    private Double currentLongitude;
+    
+    @Column(name = "current_speed")
+    private Double currentSpeed;
+    
+    @Column(name = "current_heading")
+    private Double currentHeading;
+    
+    @Column(name = "tracking_status")
+    private String trackingStatus;
+    
+    @Column(name = "position_event_at")
+    private Instant positionEventAt;
+    
+    @Version
+    private Long version;
+    
+    public OrderView() {}
+    
+    public OrderView(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    
+    public String getTrackingNumber() { return trackingNumber; }
+    public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
+    
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getPickupAddress() { return pickupAddress; }
+    public void setPickupAddress(String pickupAddress) { this.pickupAddress = pickupAddress; }
+    
+    public String getDeliveryAddress() { return deliveryAddress; }
+    public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
+    
+    public Double getWeight() { return weight; }
+    public void setWeight(Double weight) { this.weight = weight; }
+    
+    public String getPriorityLevel() { return priorityLevel; }
+    public void setPriorityLevel(String priorityLevel) { this.priorityLevel = priorityLevel; }
+    
+    public Instant getOrderEventAt() { return orderEventAt; }
+    public void setOrderEventAt(Instant orderEventAt) { this.orderEventAt = orderEventAt; }
+    
+    public Long getShipmentId() { return shipmentId; }
+    public void setShipmentId(Long shipmentId) { this.shipmentId = shipmentId; }
+    
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    
+    public String getShipmentStatus() { return shipmentStatus; }
+    public void setShipmentStatus(String shipmentStatus) { this.shipmentStatus = shipmentStatus; }
+    
+    public LocalDateTime getEstimatedPickupTime() { return estimatedPickupTime; }
+    public void setEstimatedPickupTime(LocalDateTime estimatedPickupTime) { this.estimatedPickupTime = estimatedPickupTime; }
+    
+    public LocalDateTime getEstimatedDeliveryTime() { return estimatedDeliveryTime; }
+    public void setEstimatedDeliveryTime(LocalDateTime estimatedDeliveryTime) { this.estimatedDeliveryTime = estimatedDeliveryTime; }
+    
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+    
+    public Instant getShipmentEventAt() { return shipmentEventAt; }
+    public void setShipmentEventAt(Instant shipmentEventAt) { this.shipmentEventAt = shipmentEventAt; }
+    
+    public Double getCurrentLatitude() { return currentLatitude; }
+    public void setCurrentLatitude(Double currentLatitude) { this.currentLatitude = currentLatitude; }
+    
+    public Double getCurrentLongitude() { return currentLongitude; }
+    public void setCurrentLongitude(Double currentLongitude) { this.currentLongitude = currentLongitude; }
+    
+    public Double getCurrentSpeed() { return currentSpeed; }
+    public void setCurrentSpeed(Double currentSpeed) { this.currentSpeed = currentSpeed; }
+    
+    public Double getCurrentHeading() { return currentHeading; }
+    public void setCurrentHeading(Double currentHeading) { this.currentHeading = currentHeading; }
+    
+    public String getTrackingStatus() { return trackingStatus; }
+    public void setTrackingStatus(String trackingStatus) { this.trackingStatus = trackingStatus; }
+    
+    public Instant getPositionEventAt() { return positionEventAt; }
+    public void setPositionEventAt(Instant positionEventAt) { this.positionEventAt = positionEventAt; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -1,14 +1,19 @@
 package com.swiftpulse.order.event;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.common.event.DriverAssignedEvent;
+import com.swiftpulse.common.event.OrderCreatedEvent;
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderEventHeaders;
+import com.swiftpulse.common.event.OrderStatusUpdatedEvent;
+import com.swiftpulse.common.geo.RegionPartitioning;
 import com.swiftpulse.order.entity.Order;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Instant;
 
 @Component
 public class OrderEventPublisher {
@@ -16,34 +21,34 @@ public class OrderEventPublisher {
     private static final Logger log = LoggerFactory.getLogger(OrderEventPublisher.class);
     private static final String ORDER_EVENTS_TOPIC = "order-events";
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OrderEventSendTracker sendTracker;
     
-    public OrderEventPublisher(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
-        this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+    @Value("${orders.events.region-precision:" + RegionPartitioning.DEFAULT_PRECISION + "}")
+    private int regionPrecision;
+    
+    public OrderEventPublisher(OrderEventSendTracker sendTracker) {
+        this.sendTracker = sendTracker;
     }
     
     public void publishOrderCreatedEvent(Order order) {
         try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", "ORDER_CREATED");
-            event.put("orderId", order.getId());
-            event.put("customerId", order.getCustomerId());
-            event.put("orderNumber", order.getOrderNumber());
-            event.put("trackingNumber", order.getTrackingNumber());
-            event.put("pickupAddress", buildAddress(order.getPickupAddressStreet(), order.getPickupAddressCity(), order.getPickupAddressState()));
-            event.put("deliveryAddress", buildAddress(order.getDeliveryAddressStreet(), order.getDeliveryAddressCity(), order.getDeliveryAddressState()));
-            event.put("pickupLatitude", order.getPickupLatitude());
-            event.put("pickupLongitude", order.getPickupLongitude());
-            event.put("deliveryLatitude", order.getDeliveryLatitude());
-            event.put("deliveryLongitude", order.getDeliveryLongitude());
-            event.put("weight", order.getWeight());
-            event.put("priorityLevel", order.getPriorityLevel());
-            event.put("timestamp", java.time.Instant.now().toString());
+            OrderCreatedEvent event = new OrderCreatedEvent(
+                order.getId(),
+                order.getCustomerId(),
+                order.getOrderNumber(),
+                order.getTrackingNumber(),
+                buildAddress(order.getPickupAddressStreet(), order.getPickupAddressCity(), order.getPickupAddressState()),
+                buildAddress(order.getDeliveryAddressStreet(), order.getDeliveryAddressCity(), order.getDeliveryAddressState()),
+                order.getPickupLatitude(),
+                order.getPickupLongitude(),
+                order.getDeliveryLatitude(),
+                order.getDeliveryLongitude(),
+                order.getWeight(),
+                order.getPriorityLevel(),
+                Instant.now()
+            );
             
-            String eventJson = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(ORDER_EVENTS_TOPIC, order.getId().toString(), eventJson);
+            send(order, event);
             
             log.info("Published ORDER_CREATED event for order: {}", order.getOrderNumber());
         } catch (Exception e) {
@@ -53,19 +58,18 @@ public class OrderEventPublisher {
     
     public void publishOrderStatusUpdatedEvent(Order order, String previousStatus) {
         try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", "ORDER_STATUS_UPDATED");
-            event.put("orderId", order.getId());
-            event.put("orderNumber", order.getOrderNumber());
-            event.put("trackingNumber", order.getTrackingNumber());
-            event.put("previousStatus", previousStatus);
-            event.put("newStatus", order.getStatus().name());
-            event.put("customerId", order.getCustomerId());
-            event.put("assignedDriverId", order.getAssignedDriverId());
-            event.put("timestamp", java.time.Instant.now().toString());
+            OrderStatusUpdatedEvent event = new OrderStatusUpdatedEvent(
+                order.getId(),
+                order.getCustomerId(),
+                order.getOrderNumber(),
+                order.getTrackingNumber(),
+                previousStatus,
+                order.getStatus().name(),
+                order.getAssignedDriverId(),
+                Instant.now()
+            );
             
-            String eventJson = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(ORDER_EVENTS_TOPIC, order.getId().toString(), eventJson);
+            send(order, event);
             
             log.info("Published ORDER_STATUS_UPDATED event for order: {}, status changed from {} to {}", 
                     order.getOrderNumber(), previousStatus, order.getStatus().name());
@@ -76,17 +80,16 @@ public class OrderEventPublisher {
     
     public void publishDriverAssignedEvent(Order order) {
         try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", "DRIVER_ASSIGNED");
-            event.put("orderId", order.getId());
-            event.put("orderNumber", order.getOrderNumber());
-            event.put("trackingNumber", order.getTrackingNumber());
-            event.put("driverId", order.getAssignedDriverId());
-            event.put("customerId", order.getCustomerId());
-            event.put("timestamp", java.time.Instant.now().toString());
+            DriverAssignedEvent event = new DriverAssignedEvent(
+                order.getId(),
+                order.getCustomerId(),
+                order.getOrderNumber(),
+                order.getTrackingNumber(),
+                order.getAssignedDriverId(),
+                Instant.now()
+            );
             
-            String eventJson = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(ORDER_EVENTS_TOPIC, order.getId().toString(), eventJson);
+            send(order, event);
             
             log.info("Published DRIVER_ASSIGNED event for order: {}, driver: {}", 
                     order.getOrderNumber(), order.getAssignedDriverId());
@@ -95,6 +98,24 @@ public class OrderEventPublisher {
         }
     }
     
+    private void send(Order order, OrderEvent event) {
+        ProducerRecord<String, OrderEvent> record =
+            new ProducerRecord<>(ORDER_EVENTS_TOPIC, partitionKey(order), event);
+        OrderEventHeaders.stamp(record.headers(), event);
+        sendTracker.send(record);
+    }
+    
+    /**
+     * Keys every event of an order by the region of its pickup point, so one consumer
+     * sees all orders for a region while per-order ordering is preserved.
+     */
+    private String partitionKey(Order order) {
+        if (order.getPickupLatitude() == null || order.getPickupLongitude() == null) {
+            return order.getId().toString();
+        }
+        return RegionPartitioning.regionKey(order.getPickupLatitude(), order.getPickupLongitude(), regionPrecision);
+    }
+    
     private String buildAddress(String street, String city, String state) {
         return String.format("%s, %s, %s", street, city, state);
     }
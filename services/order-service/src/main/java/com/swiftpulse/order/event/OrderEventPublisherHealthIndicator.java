@@ -0,0 +1,28 @@
+package com.swiftpulse.order.event;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE (HTTP 503 on /actuator/health) while the event publisher is
+ * saturated, so the gateway or load balancer can steer new orders elsewhere.
+ */
+@Component("orderEvents")
+public class OrderEventPublisherHealthIndicator implements HealthIndicator {
+    
+    private final OrderEventSendTracker sendTracker;
+    
+    public OrderEventPublisherHealthIndicator(OrderEventSendTracker sendTracker) {
+        this.sendTracker = sendTracker;
+    }
+    
+    @Override
+    public Health health() {
+        Health.Builder builder = sendTracker.isSaturated() ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("inFlight", sendTracker.getInFlight())
+                .withDetail("saturation", sendTracker.saturation())
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.swiftpulse.order.event;
+
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends order events straight to the producer, in call order, and tracks their
+ * acknowledgements. Retriable failures are retried by the idempotent producer itself
+ * until {@code delivery.timeout.ms}, which keeps events of one order in sequence on its
+ * partition; re-sending from here could let a later event for the same key overtake an
+ * earlier one. A send blocks the caller only while the producer's buffer is full or
+ * metadata is missing, for at most {@code max.block.ms}. The in-flight count above
+ * {@code max-in-flight} marks the publisher saturated for the health check.
+ */
+@Component
+public class OrderEventSendTracker {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderEventSendTracker.class);
+    
+    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final boolean tracked;
+    private final int maxInFlight;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private final Map<OrderEventType, Timer> ackLatency = new EnumMap<>(OrderEventType.class);
+    private final Counter failed;
+    
+    public OrderEventSendTracker(KafkaTemplate<String, OrderEvent> kafkaTemplate, MeterRegistry meterRegistry,
+                                 @Value("${orders.events.publisher.mode:tracked}") String mode,
+                                 @Value("${orders.events.publisher.max-in-flight:1000}") int maxInFlight) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.tracked = !"fire-and-forget".equalsIgnoreCase(mode);
+        this.maxInFlight = maxInFlight;
+        
+        for (OrderEventType type : OrderEventType.values()) {
+            ackLatency.put(type, Timer.builder("order.events.publish.ack.latency")
+                    .description("Time from send to broker acknowledgement")
+                    .tag("eventType", type.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.failed = meterRegistry.counter("order.events.publish.failed");
+        
+        Gauge.builder("order.events.publish.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("order.events.publish.saturation", this, OrderEventSendTracker::saturation).register(meterRegistry);
+    }
+    
+    public void send(ProducerRecord<String, OrderEvent> record) {
+        if (!tracked) {
+            kafkaTemplate.send(record);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        
+        CompletableFuture<SendResult<String, OrderEvent>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // Thrown after max.block.ms without buffer space or metadata; the publisher logs it
+            inFlight.decrementAndGet();
+            failed.increment();
+            throw e;
+        }
+        
+        future.whenComplete((result, ex) -> {
+            inFlight.decrementAndGet();
+            if (ex == null) {
+                ackLatency.get(record.value().eventType()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                onFailure(record, ex);
+            }
+        });
+    }
+    
+    public double saturation() {
+        return (double) inFlight.get() / maxInFlight;
+    }
+    
+    public boolean isSaturated() {
+        return inFlight.get() >= maxInFlight;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    // The producer has already retried retriable errors until delivery.timeout.ms
+    private void onFailure(ProducerRecord<String, OrderEvent> record, Throwable ex) {
+        failed.increment();
+        log.error("Failed to deliver {} event for order {}",
+                record.value().eventType(), record.value().orderId(), ex);
+    }
+}
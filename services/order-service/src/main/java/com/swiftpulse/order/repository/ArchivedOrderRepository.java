@@ -0,0 +1,20 @@
+package com.swiftpulse.order.repository;
+
+import com.swiftpulse.order.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    
+    Optional<ArchivedOrder> findByOrderNumber(String orderNumber);
+    
+    Optional<ArchivedOrder> findByTrackingNumber(String trackingNumber);
+    
+    @Query("SELECT a FROM ArchivedOrder a WHERE a.customerId = ?1 ORDER BY a.createdAt DESC")
+    List<ArchivedOrder> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
+}
@@ -0,0 +1,9 @@
+package com.swiftpulse.order.repository;
+
+import com.swiftpulse.order.entity.OrderKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderKeyRepository extends JpaRepository<OrderKey, String> {
+}
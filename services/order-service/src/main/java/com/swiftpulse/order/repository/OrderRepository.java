@@ -1,10 +1,13 @@
 package com.swiftpulse.order.repository;
 
 import com.swiftpulse.order.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +32,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT o FROM Order o WHERE o.status IN ('PENDING', 'CONFIRMED', 'ASSIGNED') ORDER BY o.createdAt ASC")
     List<Order> findPendingOrders();
+    
+    @Query(value = "SELECT nextval('order_number_seq')", nativeQuery = true)
+    long nextOrderNumber();
+    
+    @Query("SELECT o FROM Order o WHERE o.status IN ?1 AND o.createdAt < ?2 ORDER BY o.createdAt ASC")
+    List<Order> findArchivableOrders(Collection<Order.OrderStatus> statuses, LocalDateTime createdBefore, Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.swiftpulse.order.repository;
+
+import com.swiftpulse.order.entity.OrderStatusChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderStatusChangeRepository extends JpaRepository<OrderStatusChange, Long> {
+    
+    List<OrderStatusChange> findByOrderIdOrderByChangedAtAscIdAsc(Long orderId);
+}
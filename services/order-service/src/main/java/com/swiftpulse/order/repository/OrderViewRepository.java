@@ -0,0 +1,13 @@
+package com.swiftpulse.order.repository;
+
+import com.swiftpulse.order.entity.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+    
+    Optional<OrderView> findByTrackingNumber(String trackingNumber);
+}
@@ -0,0 +1,144 @@
+package com.swiftpulse.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.order.entity.ArchivedOrder;
+import com.swiftpulse.order.entity.Order;
+import com.swiftpulse.order.repository.ArchivedOrderRepository;
+import com.swiftpulse.order.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class OrderArchiveService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+    
+    private static final List<Order.OrderStatus> ARCHIVABLE_STATUSES =
+            List.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED);
+    
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${orders.archive.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${orders.archive.retention-days:180}")
+    private int retentionDays;
+    
+    @Value("${orders.archive.batch-size:500}")
+    private int batchSize;
+    
+    public OrderArchiveService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                               ObjectMapper objectMapper, TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+    
+    @Scheduled(cron = "${orders.archive.cron:0 30 2 * * *}")
+    public void archiveTerminalOrders() {
+        if (!enabled) {
+            return;
+        }
+        
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int moved;
+        
+        do {
+            Integer batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            moved = batch != null ? batch : 0;
+            total += moved;
+        } while (moved == batchSize);
+        
+        log.info("Archived {} orders created before {}", total, cutoff);
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Order> orders = orderRepository.findArchivableOrders(ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<ArchivedOrder> archived = orders.stream()
+                .map(order -> toArchivedOrder(order, archivedAt))
+                .collect(Collectors.toList());
+        
+        archivedOrderRepository.saveAll(archived);
+        orderRepository.deleteAllInBatch(orders);
+        
+        log.debug("Moved {} orders to archive", orders.size());
+        return orders.size();
+    }
+    
+    public Optional<Order> findById(Long orderId) {
+        return archivedOrderRepository.findById(orderId).map(this::restore);
+    }
+    
+    public Optional<Order> findByOrderNumber(String orderNumber) {
+        return archivedOrderRepository.findByOrderNumber(orderNumber).map(this::restore);
+    }
+    
+    public Optional<Order> findByTrackingNumber(String trackingNumber) {
+        return archivedOrderRepository.findByTrackingNumber(trackingNumber).map(this::restore);
+    }
+    
+    public List<Order> findByCustomer(Long customerId) {
+        return archivedOrderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId)
+                .stream()
+                .map(this::restore)
+                .collect(Collectors.toList());
+    }
+    
+    private ArchivedOrder toArchivedOrder(Order order, LocalDateTime archivedAt) {
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.setId(order.getId());
+        archived.setCustomerId(order.getCustomerId());
+        archived.setOrderNumber(order.getOrderNumber());
+        archived.setTrackingNumber(order.getTrackingNumber());
+        archived.setStatus(order.getStatus());
+        archived.setCreatedAt(order.getCreatedAt());
+        archived.setArchivedAt(archivedAt);
+        archived.setPayload(compress(order));
+        return archived;
+    }
+    
+    private byte[] compress(Order order) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(out, order);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to archive order: " + order.getId(), e);
+        }
+        return buffer.toByteArray();
+    }
+    
+    private Order restore(ArchivedOrder archived) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archived.getPayload()))) {
+            return objectMapper.readValue(in, Order.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to restore archived order: " + archived.getId(), e);
+        }
+    }
+}
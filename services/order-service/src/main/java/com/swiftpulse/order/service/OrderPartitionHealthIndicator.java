@@ -0,0 +1,29 @@
+package com.swiftpulse.order.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Reports DOWN while a month in the managed range has no orders partition, since its
+ * orders then pile up in orders_default until someone intervenes.
+ */
+@Component("orderPartitions")
+public class OrderPartitionHealthIndicator implements HealthIndicator {
+    
+    private final OrderPartitionManager partitionManager;
+    
+    public OrderPartitionHealthIndicator(OrderPartitionManager partitionManager) {
+        this.partitionManager = partitionManager;
+    }
+    
+    @Override
+    public Health health() {
+        List<YearMonth> missing = partitionManager.getMissingMonths();
+        Health.Builder builder = missing.isEmpty() ? Health.up() : Health.down();
+        return builder.withDetail("missingMonths", missing.stream().map(YearMonth::toString).toList()).build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.swiftpulse.order.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps monthly range partitions of the {@code orders} table created ahead of time and
+ * drops old partitions once the archival job has emptied them. Does nothing when the
+ * table is a plain heap (e.g. created by Hibernate instead of init-orders-db.sql).
+ * Months whose partition could not be created are exposed through the
+ * {@code orders.partitions.missing} gauge and the {@code orderPartitions} health check.
+ */
+@Component
+public class OrderPartitionManager {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionManager.class);
+    
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("orders_p(\\d{4}_\\d{2})");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SortedSet<YearMonth> missingMonths = new ConcurrentSkipListSet<>();
+    
+    @Value("${orders.partitioning.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Value("${orders.partitioning.drop-empty-after-months:12}")
+    private int dropEmptyAfterMonths;
+    
+    public OrderPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("orders.partitions.missing", missingMonths, Set::size)
+                .description("Months within the managed range whose orders partition could not be created")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${orders.partitioning.cron:0 0 1 * * *}")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            log.debug("orders table is not partitioned, skipping partition maintenance");
+            return;
+        }
+        
+        YearMonth current = YearMonth.now();
+        missingMonths.headSet(current).clear();
+        for (int i = 0; i <= Math.max(0, monthsAhead); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (createPartition(month)) {
+                missingMonths.remove(month);
+            } else {
+                missingMonths.add(month);
+            }
+        }
+        
+        dropEmptyPartitionsBefore(current.minusMonths(dropEmptyAfterMonths));
+    }
+    
+    private boolean isPartitioned() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                "WHERE c.relname = 'orders'", Integer.class);
+            return count != null && count > 0;
+        } catch (DataAccessException e) {
+            log.warn("Could not determine whether orders table is partitioned", e);
+            return false;
+        }
+    }
+    
+    /** Months in the managed range that still have no partition of their own, oldest first. */
+    public List<YearMonth> getMissingMonths() {
+        return List.copyOf(missingMonths);
+    }
+    
+    /**
+     * Creates the month's partition unless it exists. Postgres refuses to add a range that
+     * rows in orders_default already fall into, so in that case the default partition is
+     * detached, the new partition created, the month's rows moved over and the default
+     * re-attached, all in one transaction.
+     */
+    private boolean createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Serializes instances that run maintenance at the same time
+                jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext('orders_partitions'))", Object.class);
+                Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+                if (Boolean.TRUE.equals(exists)) {
+                    return;
+                }
+                boolean hasDefault = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('orders_default') IS NOT NULL", Boolean.class));
+                boolean stranded = hasDefault && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM orders_default WHERE created_at >= ?::timestamp AND created_at < ?::timestamp)",
+                    Boolean.class, from, to));
+                if (!stranded) {
+                    jdbcTemplate.execute(String.format(
+                        "CREATE TABLE %s PARTITION OF orders FOR VALUES FROM ('%s') TO ('%s')", name, from, to));
+                    return;
+                }
+                jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION orders_default");
+                jdbcTemplate.execute(String.format(
+                    "CREATE TABLE %s PARTITION OF orders FOR VALUES FROM ('%s') TO ('%s')", name, from, to));
+                int moved = jdbcTemplate.update(String.format(
+                    "WITH moved AS (DELETE FROM orders_default WHERE created_at >= '%s' AND created_at < '%s' RETURNING *) " +
+                    "INSERT INTO %s SELECT * FROM moved", from, to, name));
+                jdbcTemplate.execute("ALTER TABLE orders ATTACH PARTITION orders_default DEFAULT");
+                log.warn("Moved {} orders from orders_default into new partition {}", moved, name);
+            });
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Failed to create orders partition {}; its orders stay in orders_default", name, e);
+            return false;
+        }
+    }
+    
+    private void dropEmptyPartitionsBefore(YearMonth threshold) {
+        List<String> partitions = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'orders'", String.class);
+        
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), SUFFIX_FORMAT).isBefore(threshold)) {
+                continue;
+            }
+            
+            Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped empty orders partition {}", partition);
+            }
+        }
+    }
+    
+    private String partitionName(YearMonth month) {
+        return "orders_p" + month.format(SUFFIX_FORMAT);
+    }
+}
@@ -3,9 +3,13 @@ package com.swiftpulse.order.service;
 import com.swiftpulse.order.dto.CreateOrderRequest;
 import com.swiftpulse.order.dto.OrderResponse;
 import com.swiftpulse.order.entity.Order;
+import com.swiftpulse.order.entity.OrderKey;
+import com.swiftpulse.order.entity.OrderStatusChange;
 import com.swiftpulse.order.event.OrderEventPublisher;
 import com.swiftpulse.order.mapper.OrderMapper;
+import com.swiftpulse.order.repository.OrderKeyRepository;
 import com.swiftpulse.order.repository.OrderRepository;
+import com.swiftpulse.order.repository.OrderStatusChangeRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -13,10 +17,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -25,13 +30,21 @@ public class OrderService {
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
     
     private final OrderRepository orderRepository;
+    private final OrderKeyRepository orderKeyRepository;
+    private final OrderStatusChangeRepository orderStatusChangeRepository;
     private final OrderMapper orderMapper;
     private final OrderEventPublisher orderEventPublisher;
+    private final OrderArchiveService orderArchiveService;
     
-    public OrderService(OrderRepository orderRepository, OrderMapper orderMapper, OrderEventPublisher orderEventPublisher) {
+    public OrderService(OrderRepository orderRepository, OrderKeyRepository orderKeyRepository,
+                        OrderStatusChangeRepository orderStatusChangeRepository, OrderMapper orderMapper,
+                        OrderEventPublisher orderEventPublisher, OrderArchiveService orderArchiveService) {
         this.orderRepository = orderRepository;
+        this.orderKeyRepository = orderKeyRepository;
+        this.orderStatusChangeRepository = orderStatusChangeRepository;
         this.orderMapper = orderMapper;
         this.orderEventPublisher = orderEventPublisher;
+        this.orderArchiveService = orderArchiveService;
     }
     
     public OrderResponse createOrder(Long customerId, CreateOrderRequest request) {
@@ -41,6 +54,8 @@ public class OrderService {
         order.setCustomerId(customerId);
         order.setOrderNumber(generateOrderNumber());
         order.setTrackingNumber(generateTrackingNumber());
+        // Claimed in the same transaction; a clash fails the insert instead of duplicating a number
+        orderKeyRepository.save(new OrderKey(order.getOrderNumber(), order.getTrackingNumber()));
         
         if (order.getEstimatedCost() == null) {
             order.setEstimatedCost(calculateEstimatedCost(order.getWeight(), order.getDeliveryType()));
@@ -50,6 +65,7 @@ public class OrderService {
         order.setStatus(Order.OrderStatus.PENDING);
         
         Order savedOrder = orderRepository.save(order);
+        recordStatusChange(savedOrder, null);
         log.info("Order created successfully: {}", savedOrder.getOrderNumber());
         
         orderEventPublisher.publishOrderCreatedEvent(savedOrder);
@@ -59,25 +75,38 @@ public class OrderService {
     
     public OrderResponse getOrderById(Long orderId) {
         Order order = orderRepository.findById(orderId)
+                .or(() -> orderArchiveService.findById(orderId))
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         return orderMapper.toResponse(order);
     }
     
     public OrderResponse getOrderByNumber(String orderNumber) {
         Order order = orderRepository.findByOrderNumber(orderNumber)
+                .or(() -> orderArchiveService.findByOrderNumber(orderNumber))
                 .orElseThrow(() -> new RuntimeException("Order not found with number: " + orderNumber));
         return orderMapper.toResponse(order);
     }
     
     public OrderResponse getOrderByTrackingNumber(String trackingNumber) {
         Order order = orderRepository.findByTrackingNumber(trackingNumber)
+                .or(() -> orderArchiveService.findByTrackingNumber(trackingNumber))
                 .orElseThrow(() -> new RuntimeException("Order not found with tracking number: " + trackingNumber));
         return orderMapper.toResponse(order);
     }
     
-    public List<OrderResponse> getOrdersByCustomer(Long customerId) {
-        return orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId)
-                .stream()
+    /**
+     * Live orders of the customer, newest first. Archived orders are decompressed and
+     * merged in only when asked for.
+     */
+    public List<OrderResponse> getOrdersByCustomer(Long customerId, boolean includeArchived) {
+        List<Order> live = orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId);
+        if (!includeArchived) {
+            return live.stream()
+                    .map(orderMapper::toResponse)
+                    .collect(Collectors.toList());
+        }
+        return Stream.concat(live.stream(), orderArchiveService.findByCustomer(customerId).stream())
+                .sorted(Comparator.comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
                 .map(orderMapper::toResponse)
                 .collect(Collectors.toList());
     }
@@ -93,10 +122,12 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
-        String previousStatus = order.getStatus().name();
+        Order.OrderStatus previous = order.getStatus();
+        String previousStatus = previous.name();
         order.setStatus(newStatus);
         
         Order updatedOrder = orderRepository.save(order);
+        recordStatusChange(updatedOrder, previous);
         log.info("Order {} status updated from {} to {}", orderId, previousStatus, newStatus.name());
         
         orderEventPublisher.publishOrderStatusUpdatedEvent(updatedOrder, previousStatus);
@@ -108,10 +139,12 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
+        Order.OrderStatus previous = order.getStatus();
         order.setAssignedDriverId(driverId);
         order.setStatus(Order.OrderStatus.ASSIGNED);
         
         Order updatedOrder = orderRepository.save(order);
+        recordStatusChange(updatedOrder, previous);
         log.info("Driver {} assigned to order {}", driverId, orderId);
         
         orderEventPublisher.publishDriverAssignedEvent(updatedOrder);
@@ -127,8 +160,9 @@ public class OrderService {
             throw new RuntimeException("Cannot cancel delivered order");
         }
         
+        Order.OrderStatus previous = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        recordStatusChange(orderRepository.save(order), previous);
         
         log.info("Order {} cancelled", orderId);
     }
@@ -140,8 +174,22 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Status transitions of the order, oldest first. Orders created before the history
+     * was recorded have none.
+     */
+    public List<OrderStatusChange> getStatusHistory(Long orderId) {
+        return orderStatusChangeRepository.findByOrderIdOrderByChangedAtAscIdAsc(orderId);
+    }
+    
+    private void recordStatusChange(Order order, Order.OrderStatus previous) {
+        if (previous != order.getStatus()) {
+            orderStatusChangeRepository.save(new OrderStatusChange(order.getId(), previous, order.getStatus()));
+        }
+    }
+    
     private String generateOrderNumber() {
-        return "ORD" + System.currentTimeMillis() + new Random().nextInt(1000);
+        return String.format("ORD%010d", orderRepository.nextOrderNumber());
     }
     
     private String generateTrackingNumber() {
@@ -0,0 +1,207 @@
+package com.swiftpulse.order.service;
+
+import com.swiftpulse.order.client.ShipmentSummary;
+import com.swiftpulse.order.client.ShippingClient;
+import com.swiftpulse.order.client.TrackingClient;
+import com.swiftpulse.order.client.TrackingPoint;
+import com.swiftpulse.order.dto.OrderResponse;
+import com.swiftpulse.order.dto.OrderTimelineResponse;
+import com.swiftpulse.order.dto.TimelineEntry;
+import com.swiftpulse.order.entity.OrderStatusChange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds an order timeline by querying the order, shipping and tracking sources in
+ * parallel. Every source gets the same deadline, so the response time follows the
+ * slowest source rather than their sum; a source that times out or fails is reported
+ * as degraded and its entries are left out.
+ */
+@Service
+public class OrderTimelineService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderTimelineService.class);
+    
+    static final String OK = "OK";
+    static final String TIMEOUT = "TIMEOUT";
+    static final String UNAVAILABLE = "UNAVAILABLE";
+    
+    private final OrderService orderService;
+    private final ShippingClient shippingClient;
+    private final TrackingClient trackingClient;
+    private final long deadlineMs;
+    private final ExecutorService executor;
+    
+    public OrderTimelineService(OrderService orderService, ShippingClient shippingClient, TrackingClient trackingClient,
+                                @Value("${orders.timeline.deadline-ms:1500}") long deadlineMs,
+                                @Value("${orders.timeline.connect-timeout-ms:300}") long connectTimeoutMs,
+                                @Value("${orders.timeline.read-timeout-ms:1200}") long readTimeoutMs,
+                                @Value("${orders.timeline.threads:32}") int threads,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // completeOnTimeout does not cancel a Feign call; only the client timeouts free its thread
+        if (connectTimeoutMs + readTimeoutMs > deadlineMs) {
+            throw new IllegalArgumentException("orders.timeline connect-timeout-ms (" + connectTimeoutMs
+                    + ") + read-timeout-ms (" + readTimeoutMs + ") must not exceed deadline-ms (" + deadlineMs + ")");
+        }
+        this.orderService = orderService;
+        this.shippingClient = shippingClient;
+        this.trackingClient = trackingClient;
+        this.deadlineMs = deadlineMs;
+        
+        if (virtualThreads) {
+            // One virtual thread per source call; the Feign timeouts still bound how long each one lives
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-timeline-", 1).factory());
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(threads * 8),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "order-timeline-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        }
+    }
+    
+    public OrderTimelineResponse getTimeline(Long orderId) {
+        CompletableFuture<List<TimelineEntry>> order = submit(() -> orderEntries(orderService.getOrderById(orderId),
+                orderService.getStatusHistory(orderId)));
+        CompletableFuture<SourceResult> shipment = fetch("shipment", () -> shipmentEntries(shippingClient.getShipmentByOrderId(orderId)));
+        CompletableFuture<SourceResult> tracking = fetch("tracking", () -> trackingEntries(trackingClient.getOrderTracking(orderId)));
+        
+        Map<String, String> sources = new LinkedHashMap<>();
+        List<TimelineEntry> entries = new ArrayList<>();
+        try {
+            entries.addAll(order.get(deadlineMs, TimeUnit.MILLISECONDS));
+            sources.put("order", OK);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime && !(runtime instanceof RejectedExecutionException)) {
+                shipment.cancel(true);
+                tracking.cancel(true);
+                throw runtime;
+            }
+            sources.put("order", UNAVAILABLE);
+        } catch (TimeoutException e) {
+            sources.put("order", TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sources.put("order", UNAVAILABLE);
+        }
+        
+        for (SourceResult result : List.of(shipment.join(), tracking.join())) {
+            sources.put(result.source(), result.status());
+            entries.addAll(result.entries());
+        }
+        
+        entries.sort(Comparator.comparing(TimelineEntry::at, Comparator.nullsLast(Comparator.naturalOrder())));
+        boolean complete = sources.values().stream().allMatch(OK::equals);
+        if (!complete) {
+            log.warn("Degraded timeline for order {}: {}", orderId, sources);
+        }
+        return new OrderTimelineResponse(orderId, complete, sources, entries);
+    }
+    
+    private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    private CompletableFuture<SourceResult> fetch(String source, Supplier<List<TimelineEntry>> supplier) {
+        return submit(supplier)
+                .thenApply(entries -> new SourceResult(source, OK, entries))
+                .exceptionally(ex -> {
+                    log.debug("Timeline source {} failed", source, ex);
+                    return new SourceResult(source, UNAVAILABLE, List.of());
+                })
+                .completeOnTimeout(new SourceResult(source, TIMEOUT, List.of()), deadlineMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * The order's creation and every recorded status transition. Orders without recorded
+     * transitions, created before the history existed, only show their current status.
+     */
+    private static List<TimelineEntry> orderEntries(OrderResponse order, List<OrderStatusChange> history) {
+        List<TimelineEntry> entries = new ArrayList<>();
+        entries.add(new TimelineEntry(order.getCreatedAt(), "order", "ORDER_CREATED",
+                "Order " + order.getOrderNumber() + " created"));
+        if (!history.isEmpty()) {
+            for (OrderStatusChange change : history) {
+                if (change.getPreviousStatus() != null) {
+                    entries.add(new TimelineEntry(change.getChangedAt(), "order", "STATUS_" + change.getNewStatus(),
+                            "Order status changed from " + change.getPreviousStatus() + " to " + change.getNewStatus()));
+                }
+            }
+        } else if (order.getUpdatedAt() != null && !"PENDING".equals(order.getStatus())) {
+            entries.add(new TimelineEntry(order.getUpdatedAt(), "order", "STATUS_" + order.getStatus(),
+                    "Order status changed to " + order.getStatus()));
+        }
+        return entries;
+    }
+    
+    private static List<TimelineEntry> shipmentEntries(ShipmentSummary shipment) {
+        List<TimelineEntry> entries = new ArrayList<>();
+        if (shipment == null) {
+            return entries;
+        }
+        entries.add(new TimelineEntry(shipment.createdAt(), "shipment", "DRIVER_ASSIGNED",
+                "Driver " + shipment.driverId() + " assigned"));
+        if (shipment.actualPickupTime() != null) {
+            entries.add(new TimelineEntry(shipment.actualPickupTime(), "shipment", "PICKED_UP", "Package picked up"));
+        } else if (shipment.estimatedPickupTime() != null) {
+            entries.add(new TimelineEntry(shipment.estimatedPickupTime(), "shipment", "PICKUP_ESTIMATED", "Estimated pickup"));
+        }
+        if (shipment.actualDeliveryTime() != null) {
+            entries.add(new TimelineEntry(shipment.actualDeliveryTime(), "shipment", "DELIVERED", "Package delivered"));
+        } else if (shipment.estimatedDeliveryTime() != null) {
+            entries.add(new TimelineEntry(shipment.estimatedDeliveryTime(), "shipment", "DELIVERY_ESTIMATED", "Estimated delivery"));
+        }
+        return entries;
+    }
+    
+    private static List<TimelineEntry> trackingEntries(List<TrackingPoint> points) {
+        List<TimelineEntry> entries = new ArrayList<>();
+        if (points == null) {
+            return entries;
+        }
+        for (TrackingPoint point : points) {
+            String description = point.locationDescription() != null ? point.locationDescription()
+                    : String.format("Location at %.4f, %.4f", point.latitude(), point.longitude());
+            entries.add(new TimelineEntry(point.timestamp(), "tracking",
+                    point.status() != null ? point.status() : "POSITION", description));
+        }
+        return entries;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private record SourceResult(String source, String status, List<TimelineEntry> entries) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.swiftpulse.order.service;
+
+import com.swiftpulse.common.event.DriverAssignedEvent;
+import com.swiftpulse.common.event.OrderCreatedEvent;
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderStatusUpdatedEvent;
+import com.swiftpulse.common.event.ShipmentEvent;
+import com.swiftpulse.common.event.TrackingPositionEvent;
+import com.swiftpulse.order.entity.OrderView;
+import com.swiftpulse.order.repository.OrderViewRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the order_views read model from order, shipment and tracking events. The
+ * three topics are consumed independently, so rows are updated with optimistic locking
+ * and each section only accepts events newer than the one it was last built from.
+ */
+@Service
+public class OrderViewProjector {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderViewProjector.class);
+    private static final int MAX_ATTEMPTS = 3;
+    
+    private final OrderViewRepository orderViewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer orderLag;
+    private final Timer shipmentLag;
+    private final Timer trackingLag;
+    
+    public OrderViewProjector(OrderViewRepository orderViewRepository, TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.orderViewRepository = orderViewRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.orderLag = lagTimer(meterRegistry, "order");
+        this.shipmentLag = lagTimer(meterRegistry, "shipment");
+        this.trackingLag = lagTimer(meterRegistry, "tracking");
+    }
+    
+    private static Timer lagTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("order.view.lag")
+                .description("Time from a source event being produced to it being applied to the order view")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    @KafkaListener(topics = "order-events", groupId = "order-view", properties = {
+        "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.deserializer.value.delegate.class=com.swiftpulse.common.event.OrderEventDeserializer",
+        "swiftpulse.event.accepted-types=ORDER_CREATED,ORDER_STATUS_UPDATED,DRIVER_ASSIGNED"
+    })
+    public void onOrderEvent(OrderEvent event) {
+        if (event == null) {
+            return;
+        }
+        Instant eventAt = timestampOrNow(event.timestamp());
+        upsert(event.orderId(), view -> {
+            if (event instanceof OrderCreatedEvent created) {
+                view.setCustomerId(created.customerId());
+                view.setOrderNumber(created.orderNumber());
+                view.setTrackingNumber(created.trackingNumber());
+                view.setPickupAddress(created.pickupAddress());
+                view.setDeliveryAddress(created.deliveryAddress());
+                view.setWeight(created.weight());
+                view.setPriorityLevel(created.priorityLevel());
+                if (isNewer(eventAt, view.getOrderEventAt())) {
+                    view.setStatus("PENDING");
+                    view.setOrderEventAt(eventAt);
+                }
+            } else if (isNewer(eventAt, view.getOrderEventAt())) {
+                view.setCustomerId(event.customerId());
+                view.setOrderNumber(event.orderNumber());
+                view.setTrackingNumber(event.trackingNumber());
+                if (event instanceof OrderStatusUpdatedEvent updated) {
+                    view.setStatus(updated.newStatus());
+                    if (updated.assignedDriverId() != null && view.getShipmentEventAt() == null) {
+                        view.setDriverId(updated.assignedDriverId());
+                    }
+                } else if (event instanceof DriverAssignedEvent assigned && view.getShipmentEventAt() == null) {
+                    view.setDriverId(assigned.driverId());
+                }
+                view.setOrderEventAt(eventAt);
+            }
+        });
+        orderLag.record(lagSince(eventAt));
+    }
+    
+    @KafkaListener(topics = ShipmentEvent.TOPIC, groupId = "order-view", properties = {
+        "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.deserializer.value.delegate.class=org.springframework.kafka.support.serializer.JsonDeserializer",
+        "spring.json.value.default.type=com.swiftpulse.common.event.ShipmentEvent",
+        "spring.json.use.type.headers=false"
+    })
+    public void onShipmentEvent(ShipmentEvent event) {
+        if (event == null) {
+            return;
+        }
+        Instant eventAt = timestampOrNow(event.timestamp());
+        upsert(event.orderId(), view -> {
+            if (isNewer(eventAt, view.getShipmentEventAt())) {
+                view.setShipmentId(event.shipmentId());
+                view.setDriverId(event.driverId());
+                view.setShipmentStatus(event.status());
+                view.setEstimatedPickupTime(event.estimatedPickupTime());
+                view.setEstimatedDeliveryTime(event.estimatedDeliveryTime());
+                view.setDistanceKm(event.distanceKm());
+                view.setShipmentEventAt(eventAt);
+                if (view.getTrackingNumber() == null) {
+                    view.setTrackingNumber(event.trackingNumber());
+                }
+            }
+        });
+        shipmentLag.record(lagSince(eventAt));
+    }
+    
+    @KafkaListener(topics = TrackingPositionEvent.TOPIC, groupId = "order-view", properties = {
+        "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.deserializer.value.delegate.class=org.springframework.kafka.support.serializer.JsonDeserializer",
+        "spring.json.value.default.type=com.swiftpulse.common.event.TrackingPositionEvent",
+        "spring.json.use.type.headers=false"
+    })
+    public void onTrackingEvent(TrackingPositionEvent event) {
+        if (event == null) {
+            return;
+        }
+        Instant eventAt = timestampOrNow(event.timestamp());
+        upsert(event.orderId(), view -> {
+            if (isNewer(eventAt, view.getPositionEventAt())) {
+                view.setCurrentLatitude(event.latitude());
+                view.setCurrentLongitude(event.longitude());
+                view.setCurrentSpeed(event.speed());
+                view.setCurrentHeading(event.heading());
+                view.setTrackingStatus(event.status());
+                view.setPositionEventAt(eventAt);
+                if (view.getTrackingNumber() == null) {
+                    view.setTrackingNumber(event.trackingNumber());
+                }
+            }
+        });
+        trackingLag.record(lagSince(eventAt));
+    }
+    
+    public Optional<OrderView> findByOrderId(Long orderId) {
+        return orderViewRepository.findById(orderId);
+    }
+    
+    public Optional<OrderView> findByTrackingNumber(String trackingNumber) {
+        return orderViewRepository.findByTrackingNumber(trackingNumber);
+    }
+    
+    private void upsert(Long orderId, Consumer<OrderView> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    OrderView view = orderViewRepository.findById(orderId).orElseGet(() -> new OrderView(orderId));
+                    mutation.accept(view);
+                    orderViewRepository.save(view);
+                });
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent update of order view {}, retrying", orderId);
+            }
+        }
+    }
+    
+    private static boolean isNewer(Instant eventAt, Instant appliedAt) {
+        return appliedAt == null || !eventAt.isBefore(appliedAt);
+    }
+    
+    private static Instant timestampOrNow(Instant timestamp) {
+        return timestamp != null ? timestamp : Instant.now();
+    }
+    
+    private static Duration lagSince(Instant eventAt) {
+        Duration lag = Duration.between(eventAt, Instant.now());
+        return lag.isNegative() ? Duration.ZERO : lag;
+    }
+}
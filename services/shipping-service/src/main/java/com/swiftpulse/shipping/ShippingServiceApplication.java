@@ -1,15 +1,20 @@
 package com.swiftpulse.shipping;
 
+import com.swiftpulse.common.jvm.PinnedThreadMonitorConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@Import(PinnedThreadMonitorConfiguration.class)
 @EnableDiscoveryClient
 @EnableFeignClients
 @EnableKafka
+@EnableScheduling
 public class ShippingServiceApplication {
     
     public static void main(String[] args) {
@@ -0,0 +1,63 @@
+package com.swiftpulse.shipping.config;
+
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.event.OrderEventSerializer;
+import com.swiftpulse.common.event.ShipmentEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaProducerConfig {
+    
+    /**
+     * Shared producer for shipment events and for republishing failed order events to
+     * the retry and dead-letter topics. Order events are re-encoded with
+     * OrderEventSerializer, records that never deserialized are forwarded as their
+     * original bytes, and anything else is written as JSON.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate(KafkaProperties kafkaProperties) {
+        Map<String, Object> configs = kafkaProperties.buildProducerProperties(null);
+        
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(OrderEvent.class, new OrderEventSerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>());
+        
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(configs,
+                new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers, true));
+        return new KafkaTemplate<>(producerFactory);
+    }
+    
+    /**
+     * shipment-events is compacted by order id, and finished shipments are deleted with
+     * a tombstone (see ShipmentEventPublisher), so a consumer reading it from the start
+     * only gets the latest state of the open shipments. Superseded events are kept for
+     * the compaction lag, so group consumers that fall behind still see every change.
+     * The partition count is left to the broker; changing it would move order ids.
+     */
+    @Bean
+    public NewTopic shipmentEventsTopic(@Value("${shipping.events.topic.min-compaction-lag-ms:3600000}") long minCompactionLagMs,
+                                        @Value("${shipping.events.topic.delete-retention-ms:86400000}") long deleteRetentionMs) {
+        return TopicBuilder.name(ShipmentEvent.TOPIC)
+                .compact()
+                .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, String.valueOf(minCompactionLagMs))
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, String.valueOf(deleteRetentionMs))
+                .build();
+    }
+}
@@ -1,14 +1,26 @@
 package com.swiftpulse.shipping.controller;
 
+import com.swiftpulse.common.event.DriverLocationEvent;
+import com.swiftpulse.common.kafka.ReplayProgress;
+import com.swiftpulse.common.kafka.ReplayRequest;
+import com.swiftpulse.common.kafka.ReplayResult;
+import com.swiftpulse.shipping.dto.MatrixRequest;
 import com.swiftpulse.shipping.entity.Driver;
 import com.swiftpulse.shipping.entity.Shipment;
+import com.swiftpulse.shipping.event.DriverLocationPublisher;
+import com.swiftpulse.shipping.routing.CostMatrix;
+import com.swiftpulse.shipping.routing.DistanceMatrixService;
+import com.swiftpulse.shipping.service.DeadLetterReplayService;
+import com.swiftpulse.shipping.service.EventReplayService;
 import com.swiftpulse.shipping.service.ShippingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/shipping")
@@ -16,9 +28,19 @@ import java.util.List;
 public class ShippingController {
     
     private final ShippingService shippingService;
+    private final DeadLetterReplayService deadLetterReplayService;
+    private final EventReplayService eventReplayService;
+    private final DriverLocationPublisher driverLocationPublisher;
+    private final DistanceMatrixService distanceMatrixService;
     
-    public ShippingController(ShippingService shippingService) {
+    public ShippingController(ShippingService shippingService, DeadLetterReplayService deadLetterReplayService,
+                              EventReplayService eventReplayService, DriverLocationPublisher driverLocationPublisher,
+                              DistanceMatrixService distanceMatrixService) {
         this.shippingService = shippingService;
+        this.deadLetterReplayService = deadLetterReplayService;
+        this.eventReplayService = eventReplayService;
+        this.driverLocationPublisher = driverLocationPublisher;
+        this.distanceMatrixService = distanceMatrixService;
     }
     
     @GetMapping("/shipments/{shipmentId}")
@@ -59,10 +81,11 @@ public class ShippingController {
     
     @PutMapping("/drivers/{driverId}/location")
     @Operation(summary = "Update driver location")
-    public ResponseEntity<Driver> updateDriverLocation(@PathVariable Long driverId,
-                                                        @RequestParam Double latitude,
-                                                        @RequestParam Double longitude) {
-        return ResponseEntity.ok(shippingService.updateDriverLocation(driverId, latitude, longitude));
+    public CompletableFuture<ResponseEntity<DriverLocationEvent>> updateDriverLocation(@PathVariable Long driverId,
+                                                                                        @RequestParam Double latitude,
+                                                                                        @RequestParam Double longitude) {
+        return driverLocationPublisher.publish(driverId, latitude, longitude)
+                .thenApply(event -> ResponseEntity.accepted().body(event));
     }
     
     @GetMapping("/drivers/available")
@@ -78,4 +101,54 @@ public class ShippingController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+    
+    @PostMapping("/routing/matrix")
+    @Operation(summary = "Compute distance/time matrix", description = "Returns road distance (km) and travel time (minutes) from every origin to every destination")
+    public ResponseEntity<CostMatrix> computeMatrix(@RequestBody MatrixRequest request) {
+        if (request.origins() == null || request.destinations() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(distanceMatrixService.compute(request.origins(), request.destinations()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/admin/dlt/replay")
+    @Operation(summary = "Replay dead-lettered order events", description = "Sends up to maxRecords dead-lettered records of order-events or dispatch-forwards back through the shipping retry topics")
+    public ResponseEntity<ReplayResult> replayDeadLetters(@RequestParam(defaultValue = "order-events") String topic,
+                                                          @RequestParam(defaultValue = "1000") int maxRecords) {
+        try {
+            return ResponseEntity.ok(deadLetterReplayService.replay(topic, maxRecords));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/admin/replay")
+    @Operation(summary = "Rebuild shipments from order events", description = "Replays order-events from an offset or timestamp without flipping driver availability")
+    public ResponseEntity<ReplayProgress> startReplay(@RequestBody(required = false) ReplayRequest request) {
+        try {
+            return ResponseEntity.accepted().body(eventReplayService.start(request != null ? request : new ReplayRequest(null, null, null)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @GetMapping("/admin/replay")
+    @Operation(summary = "Get replay progress")
+    public ResponseEntity<ReplayProgress> getReplayProgress() {
+        return eventReplayService.current()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @DeleteMapping("/admin/replay")
+    @Operation(summary = "Cancel the running replay")
+    public ResponseEntity<ReplayProgress> cancelReplay() {
+        return eventReplayService.cancel()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,4 @@
+package com.swiftpulse.shipping.dto;
+
+public record DriverLoad(Long driverId, Double loadKg, Long shipments) {
+}
@@ -0,0 +1,12 @@
+package com.swiftpulse.shipping.dto;
+
+import java.time.LocalDateTime;
+
+public record DriverPosition(
+        Long driverId,
+        Double latitude,
+        Double longitude,
+        String regionKey,
+        LocalDateTime recordedAt
+) {
+}
@@ -0,0 +1,4 @@
+package com.swiftpulse.shipping.dto;
+
+public record GeoPoint(double latitude, double longitude) {
+}
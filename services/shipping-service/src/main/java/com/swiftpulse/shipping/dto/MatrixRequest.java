@@ -0,0 +1,6 @@
+package com.swiftpulse.shipping.dto;
+
+import java.util.List;
+
+public record MatrixRequest(List<GeoPoint> origins, List<GeoPoint> destinations) {
+}
@@ -0,0 +1,71 @@
+package com.swiftpulse.shipping.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for an order handed to the owner of another region. Written in the
+ * transaction that gave up on the order and deleted once the forward is on the broker.
+ */
+@Entity
+@Table(name = "dispatch_forward_outbox")
+public class DispatchForward {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "region_key", nullable = false, length = 12)
+    private String regionKey;
+    
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(name = "searched_regions", nullable = false, columnDefinition = "TEXT")
+    private String searchedRegions;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public DispatchForward() {}
+    
+    public DispatchForward(String regionKey, Long orderId, String payload, String searchedRegions) {
+        this.regionKey = regionKey;
+        this.orderId = orderId;
+        this.payload = payload;
+        this.searchedRegions = searchedRegions;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getRegionKey() { return regionKey; }
+    public void setRegionKey(String regionKey) { this.regionKey = regionKey; }
+    
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    
+    public String getSearchedRegions() { return searchedRegions; }
+    public void setSearchedRegions(String searchedRegions) { this.searchedRegions = searchedRegions; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,9 +1,16 @@
 package com.swiftpulse.shipping.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
+// Position columns are written behind by DriverLocationStore and the load columns only by the
+// conditional reservation updates in DriverRepository; dynamic updates keep entity saves from
+// overwriting them with the stale values loaded at the start of a transaction
 @Entity
+@DynamicUpdate
 @Table(name = "drivers")
 public class Driver {
     
@@ -38,6 +45,14 @@ public class Driver {
     @Column(name = "is_available", nullable = false)
     private Boolean isAvailable = true;
     
+    @ColumnDefault("0")
+    @Column(name = "active_shipments", nullable = false)
+    private Integer activeShipments = 0;
+    
+    @ColumnDefault("0")
+    @Column(name = "load_kg", nullable = false)
+    private Double loadKg = 0.0;
+    
     @Column(name = "current_latitude")
     private Double currentLatitude;
     
@@ -47,6 +62,9 @@ public class Driver {
     @Column(name = "last_location_update")
     private LocalDateTime lastLocationUpdate;
     
+    @Column(name = "region_key", length = 12)
+    private String regionKey;
+    
     private Double rating = 5.0;
     
     @Column(name = "total_deliveries")
@@ -102,6 +120,12 @@ public class Driver {
     public Boolean getIsAvailable() { return isAvailable; }
     public void setIsAvailable(Boolean isAvailable) { this.isAvailable = isAvailable; }
     
+    public Integer getActiveShipments() { return activeShipments; }
+    public void setActiveShipments(Integer activeShipments) { this.activeShipments = activeShipments; }
+    
+    public Double getLoadKg() { return loadKg; }
+    public void setLoadKg(Double loadKg) { this.loadKg = loadKg; }
+    
     public Double getCurrentLatitude() { return currentLatitude; }
     public void setCurrentLatitude(Double currentLatitude) { this.currentLatitude = currentLatitude; }
     
@@ -111,6 +135,9 @@ public class Driver {
     public LocalDateTime getLastLocationUpdate() { return lastLocationUpdate; }
     public void setLastLocationUpdate(LocalDateTime lastLocationUpdate) { this.lastLocationUpdate = lastLocationUpdate; }
     
+    public String getRegionKey() { return regionKey; }
+    public void setRegionKey(String regionKey) { this.regionKey = regionKey; }
+    
     public Double getRating() { return rating; }
     public void setRating(Double rating) { this.rating = rating; }
     
@@ -0,0 +1,42 @@
+package com.swiftpulse.shipping.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker for an event whose side effects have been committed. Always inserted, never
+ * merged, so a concurrent duplicate fails on the primary key instead of overwriting.
+ */
+@Entity
+@Table(name = "processed_events")
+public class ProcessedEvent implements Persistable<String> {
+    
+    @Id
+    @Column(name = "event_key", length = 100)
+    private String eventKey;
+    
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+    
+    public ProcessedEvent() {}
+    
+    public ProcessedEvent(String eventKey) {
+        this.eventKey = eventKey;
+        this.processedAt = LocalDateTime.now();
+    }
+    
+    @Override
+    public String getId() { return eventKey; }
+    
+    @Override
+    public boolean isNew() { return true; }
+    
+    // Getters and Setters
+    public String getEventKey() { return eventKey; }
+    public void setEventKey(String eventKey) { this.eventKey = eventKey; }
+    
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
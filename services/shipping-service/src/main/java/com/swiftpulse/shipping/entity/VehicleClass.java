@@ -0,0 +1,58 @@
+package com.swiftpulse.shipping.entity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Dispatch classes for the free-form {@link Driver#getVehicleType()}, ordered by payload.
+ * Unrecognised or missing vehicle types are treated as {@link #CAR}.
+ */
+public enum VehicleClass {
+    BICYCLE(15),
+    MOTORCYCLE(30),
+    CAR(150),
+    VAN(1000),
+    TRUCK(5000);
+    
+    private static final VehicleClass[] BY_PAYLOAD = values();
+    
+    private final double maxPayloadKg;
+    
+    VehicleClass(double maxPayloadKg) {
+        this.maxPayloadKg = maxPayloadKg;
+    }
+    
+    public double getMaxPayloadKg() {
+        return maxPayloadKg;
+    }
+    
+    public boolean canCarry(double weightKg) {
+        return weightKg <= maxPayloadKg;
+    }
+    
+    /**
+     * Classes whose payload can take a parcel of the given weight, smallest first.
+     */
+    public static List<VehicleClass> carrying(double weightKg) {
+        for (int i = 0; i < BY_PAYLOAD.length; i++) {
+            if (BY_PAYLOAD[i].canCarry(weightKg)) {
+                return Arrays.asList(BY_PAYLOAD).subList(i, BY_PAYLOAD.length);
+            }
+        }
+        return List.of();
+    }
+    
+    public static VehicleClass of(String vehicleType) {
+        if (vehicleType == null) {
+            return CAR;
+        }
+        return switch (vehicleType.trim().toUpperCase(Locale.ROOT)) {
+            case "BICYCLE", "BIKE", "CARGO_BIKE" -> BICYCLE;
+            case "MOTORCYCLE", "MOTORBIKE", "SCOOTER", "MOPED" -> MOTORCYCLE;
+            case "VAN", "MINIVAN", "PICKUP" -> VAN;
+            case "TRUCK", "LORRY", "BOX_TRUCK" -> TRUCK;
+            default -> CAR;
+        };
+    }
+}
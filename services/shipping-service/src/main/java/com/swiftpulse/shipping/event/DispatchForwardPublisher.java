@@ -0,0 +1,156 @@
+package com.swiftpulse.shipping.event;
+
+import com.swiftpulse.common.event.OrderCreatedEvent;
+import com.swiftpulse.common.event.OrderEventHeaders;
+import com.swiftpulse.common.event.OrderEventJsonCodec;
+import com.swiftpulse.shipping.entity.DispatchForward;
+import com.swiftpulse.shipping.repository.DispatchForwardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Hands an order this instance could not dispatch to the instance owning another region
+ * of its search area. The dispatch-forwards topic is keyed by region like order-events
+ * and consumed by the same listener, so with equal partition counts a region's forwards
+ * are assigned to the instance that holds the region's drivers.
+ */
+@Component
+public class DispatchForwardPublisher {
+    
+    public static final String TOPIC = "dispatch-forwards";
+    public static final String SEARCHED_REGIONS = "dispatch-searched-regions";
+    
+    private static final Logger log = LoggerFactory.getLogger(DispatchForwardPublisher.class);
+    private static final String SEPARATOR = ",";
+    
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final DispatchForwardRepository outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayed;
+    private final Counter sendFailures;
+    
+    @Value("${shipping.dispatch.forward-relay.grace-ms:10000}")
+    private long relayGraceMs;
+    
+    @Value("${shipping.dispatch.forward-relay.batch-size:100}")
+    private int relayBatchSize;
+    
+    public DispatchForwardPublisher(KafkaTemplate<String, Object> kafkaTemplate, DispatchForwardRepository outbox,
+                                    PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.outbox = outbox;
+        // after-commit callbacks still see the finished transaction and must not join it
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.relayed = Counter.builder("shipping.dispatch.forward.relayed")
+                .description("Forwards sent from the outbox after their after-commit send did not go through")
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("shipping.dispatch.forward.send.failures")
+                .description("Forward sends that failed and were left in the outbox")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Sends the order to the owner of {@code region} with the regions searched so far.
+     * Inside a transaction the forward is written to the outbox with it and sent after
+     * commit, so a rolled back attempt never reaches another instance and no transaction
+     * stays open for the broker round-trip; a send that fails is left in the outbox for
+     * {@link #relayPending}. Without a transaction the send waits for the broker and a
+     * failure propagates to the caller.
+     */
+    public void forward(OrderCreatedEvent event, String region, Collection<String> searchedRegions) {
+        String searched = String.join(SEPARATOR, searchedRegions);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(event, region, searched);
+            return;
+        }
+        
+        Long id = outbox.save(new DispatchForward(region, event.orderId(),
+                new String(OrderEventJsonCodec.encode(event), StandardCharsets.UTF_8), searched)).getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    send(event, region, searched);
+                    transactionTemplate.executeWithoutResult(status -> outbox.deleteSent(id));
+                } catch (RuntimeException e) {
+                    sendFailures.increment();
+                    log.warn("Forward of order {} to region {} left in the outbox: {}", event.orderNumber(), region, e.getMessage());
+                }
+            }
+        });
+    }
+    
+    /**
+     * Sends outbox rows older than the grace period, i.e. forwards whose after-commit
+     * send failed or never ran because the instance stopped after the commit. Rows are
+     * locked while they are sent, so concurrent relays on other instances skip them; the
+     * run stops at the first failure and the next run starts over.
+     */
+    @Scheduled(fixedDelayString = "${shipping.dispatch.forward-relay.interval-ms:5000}")
+    public void relayPending() {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime cutoff = LocalDateTime.now().minusNanos(relayGraceMs * 1_000_000);
+            for (DispatchForward forward : outbox.lockPendingBefore(cutoff, relayBatchSize)) {
+                OrderCreatedEvent event = (OrderCreatedEvent) OrderEventJsonCodec.decode(
+                        forward.getPayload().getBytes(StandardCharsets.UTF_8));
+                try {
+                    send(event, forward.getRegionKey(), forward.getSearchedRegions());
+                } catch (RuntimeException e) {
+                    forward.setAttempts(forward.getAttempts() + 1);
+                    sendFailures.increment();
+                    log.warn("Relaying forward of order {} to region {} failed after {} attempts: {}",
+                            event.orderNumber(), forward.getRegionKey(), forward.getAttempts(), e.getMessage());
+                    return;
+                }
+                outbox.delete(forward);
+                relayed.increment();
+            }
+        });
+    }
+    
+    private void send(OrderCreatedEvent event, String region, String searched) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(TOPIC, region, event);
+        OrderEventHeaders.stamp(record.headers(), event);
+        record.headers().add(SEARCHED_REGIONS, searched.getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaTemplate.send(record).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted forwarding order " + event.orderNumber() + " to region " + region, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to forward order " + event.orderNumber() + " to region " + region, e.getCause());
+        }
+    }
+    
+    public static Set<String> searchedRegions(String header) {
+        Set<String> regions = new HashSet<>();
+        if (header != null) {
+            for (String region : header.split(SEPARATOR)) {
+                if (!region.isBlank()) {
+                    regions.add(region);
+                }
+            }
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,29 @@
+package com.swiftpulse.shipping.event;
+
+import com.swiftpulse.common.event.DriverLocationEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes driver pings received over HTTP to the driver-locations topic. The dispatch
+ * index picks them up from the topic like pings from any other source.
+ */
+@Component
+public class DriverLocationPublisher {
+    
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    
+    public DriverLocationPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+    
+    public CompletableFuture<DriverLocationEvent> publish(Long driverId, Double latitude, Double longitude) {
+        DriverLocationEvent event = new DriverLocationEvent(driverId, null, null, null, latitude, longitude,
+                null, null, null, null, Instant.now());
+        return kafkaTemplate.send(DriverLocationEvent.TOPIC, String.valueOf(driverId), event)
+                .thenApply(result -> event);
+    }
+}
@@ -0,0 +1,69 @@
+package com.swiftpulse.shipping.event;
+
+import com.swiftpulse.common.event.ShipmentEvent;
+import com.swiftpulse.shipping.entity.Shipment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Publishes shipment changes for downstream read models. Inside a transaction the event
+ * is only sent after commit, so rolled back changes are never announced. A finished
+ * shipment is followed by a tombstone, so compaction drops it from shipment-events.
+ */
+@Component
+public class ShipmentEventPublisher {
+    
+    private static final Logger log = LoggerFactory.getLogger(ShipmentEventPublisher.class);
+    private static final Set<String> FINISHED = Set.of(Shipment.ShipmentStatus.COMPLETED.name(),
+            Shipment.ShipmentStatus.FAILED.name());
+    
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    
+    public ShipmentEventPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+    
+    public void publish(Shipment shipment) {
+        ShipmentEvent event = new ShipmentEvent(shipment.getId(), shipment.getOrderId(), shipment.getTrackingNumber(),
+                shipment.getDriverId(), shipment.getStatus().name(), shipment.getEstimatedPickupTime(),
+                shipment.getEstimatedDeliveryTime(), shipment.getDistanceKm(), shipment.getPickupLatitude(),
+                shipment.getPickupLongitude(), shipment.getDeliveryLatitude(), shipment.getDeliveryLongitude(), Instant.now());
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+    
+    private void send(ShipmentEvent event) {
+        String key = String.valueOf(event.orderId());
+        kafkaTemplate.send(ShipmentEvent.TOPIC, key, event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish shipment event for order {}", event.orderId(), ex);
+                    }
+                });
+        if (FINISHED.contains(event.status())) {
+            // Same key and producer, so the tombstone lands after the final event
+            kafkaTemplate.send(ShipmentEvent.TOPIC, key, null)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.warn("Failed to publish shipment tombstone for order {}", event.orderId(), ex);
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.swiftpulse.shipping.repository;
+
+import com.swiftpulse.shipping.entity.DispatchForward;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DispatchForwardRepository extends JpaRepository<DispatchForward, Long> {
+    
+    /** Oldest unsent forwards, skipping rows another instance is relaying. */
+    @Query(value = "SELECT * FROM dispatch_forward_outbox WHERE created_at < ?1 ORDER BY id LIMIT ?2 FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<DispatchForward> lockPendingBefore(LocalDateTime cutoff, int limit);
+    
+    @Modifying
+    @Query("DELETE FROM DispatchForward f WHERE f.id = ?1")
+    int deleteSent(Long id);
+}
@@ -2,9 +2,11 @@ package com.swiftpulse.shipping.repository;
 
 import com.swiftpulse.shipping.entity.Driver;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +29,41 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
     
     @Query("SELECT d FROM Driver d WHERE d.rating >= ?1 AND d.isAvailable = true")
     List<Driver> findHighRatedAvailableDrivers(Double minRating);
+    
+    @Query("SELECT DISTINCT d.regionKey FROM Driver d WHERE d.regionKey IS NOT NULL")
+    List<String> findDistinctRegionKeys();
+    
+    List<Driver> findByRegionKeyIn(Collection<String> regionKeys);
+    
+    @Query("SELECT d FROM Driver d WHERE d.regionKey IS NULL AND d.currentLatitude IS NOT NULL AND d.currentLongitude IS NOT NULL")
+    List<Driver> findLocatedDriversWithoutRegion();
+    
+    @Query("SELECT d FROM Driver d WHERE d.id IN ?1 AND d.isAvailable = true AND d.currentLatitude IS NOT NULL AND d.currentLongitude IS NOT NULL")
+    List<Driver> findAvailableDriversWithLocationByIdIn(Collection<Long> driverIds);
+    
+    /**
+     * Atomically books a parcel of ?2 kg on the driver if they are available and have a
+     * shipment slot (below ?3) and payload (up to ?4 kg) left, marking them unavailable when
+     * no parcel of ?5 kg would fit afterwards. Returns 0 when another dispatcher got there first.
+     */
+    @Modifying
+    @Query(value = "UPDATE drivers SET active_shipments = active_shipments + 1, load_kg = load_kg + ?2, " +
+           "is_available = (active_shipments + 1 < ?3 AND load_kg + ?2 + ?5 <= ?4) " +
+           "WHERE id = ?1 AND is_available = true AND active_shipments < ?3 AND load_kg + ?2 <= ?4",
+           nativeQuery = true)
+    int reserve(Long driverId, double weightKg, int maxShipments, double maxPayloadKg, double minParcelKg);
+    
+    /** Adds shipments to the driver's load without checking availability, for replayed assignments. */
+    @Modifying
+    @Query(value = "UPDATE drivers SET active_shipments = active_shipments + ?2, load_kg = load_kg + ?3 WHERE id = ?1",
+           nativeQuery = true)
+    int addLoad(Long driverId, int shipments, double weightKg);
+    
+    /** Frees a finished shipment's slot and payload and makes the driver available again. */
+    @Modifying
+    @Query(value = "UPDATE drivers SET active_shipments = GREATEST(active_shipments - 1, 0), " +
+           "load_kg = GREATEST(load_kg - ?2, 0), is_available = true, total_deliveries = COALESCE(total_deliveries, 0) + ?3 " +
+           "WHERE id = ?1",
+           nativeQuery = true)
+    int release(Long driverId, double weightKg, int delivered);
 }
@@ -0,0 +1,21 @@
+package com.swiftpulse.shipping.repository;
+
+import com.swiftpulse.shipping.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+    
+    @Query("SELECT p.eventKey FROM ProcessedEvent p WHERE p.processedAt >= ?1")
+    List<String> findEventKeysProcessedSince(LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent p WHERE p.processedAt < ?1")
+    int deleteProcessedBefore(LocalDateTime cutoff);
+}
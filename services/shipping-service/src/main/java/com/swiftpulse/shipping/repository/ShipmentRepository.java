@@ -1,10 +1,12 @@
 package com.swiftpulse.shipping.repository;
 
+import com.swiftpulse.shipping.dto.DriverLoad;
 import com.swiftpulse.shipping.entity.Shipment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +15,9 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
     
     Optional<Shipment> findByOrderId(Long orderId);
     
+    @Query("SELECT s.orderId FROM Shipment s WHERE s.orderId IN ?1")
+    List<Long> findOrderIdsByOrderIdIn(Collection<Long> orderIds);
+    
     Optional<Shipment> findByOrderNumber(String orderNumber);
     
     Optional<Shipment> findByTrackingNumber(String trackingNumber);
@@ -24,6 +29,11 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
     @Query("SELECT s FROM Shipment s WHERE s.driverId = ?1 AND s.status IN ('ASSIGNED', 'EN_ROUTE_TO_PICKUP', 'AT_PICKUP', 'EN_ROUTE_TO_DELIVERY')")
     List<Shipment> findActiveShipmentsByDriver(Long driverId);
     
+    @Query("SELECT new com.swiftpulse.shipping.dto.DriverLoad(s.driverId, COALESCE(SUM(s.weightKg), 0.0), COUNT(s)) " +
+           "FROM Shipment s WHERE s.driverId IN ?1 AND s.status IN ('ASSIGNED', 'EN_ROUTE_TO_PICKUP', 'AT_PICKUP', 'EN_ROUTE_TO_DELIVERY') " +
+           "GROUP BY s.driverId")
+    List<DriverLoad> findActiveLoadsByDriverIdIn(Collection<Long> driverIds);
+    
     @Query("SELECT s FROM Shipment s WHERE s.status = 'ASSIGNED' ORDER BY s.createdAt ASC")
     List<Shipment> findPendingShipments();
     
@@ -0,0 +1,7 @@
+package com.swiftpulse.shipping.routing;
+
+/**
+ * Travel costs from every origin (row) to every destination (column).
+ */
+public record CostMatrix(double[][] distancesKm, double[][] durationsMinutes) {
+}
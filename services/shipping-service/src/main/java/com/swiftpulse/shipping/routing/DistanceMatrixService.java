@@ -0,0 +1,203 @@
+package com.swiftpulse.shipping.routing;
+
+import com.swiftpulse.common.geo.GeoDistance;
+import com.swiftpulse.shipping.dto.GeoPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Origin/destination travel costs for dispatch, single pairs or full N x M matrices.
+ * Matrices are split into cell ranges on a dedicated fork-join pool. Results are cached
+ * per pair of coordinates rounded to {@code shipping.matrix.cache-precision} decimals
+ * (4 is about 11 m), in LRU segments selected by key hash so parallel workers rarely
+ * contend on the same lock. The cache is dropped when the road network finishes loading,
+ * since entries computed before then are straight-line estimates.
+ */
+@Service
+public class DistanceMatrixService {
+    
+    public static final double FALLBACK_SPEED_KMH = 30.0;
+    private static final int SEGMENTS = 16;
+    private static final int CELLS_PER_TASK = 64;
+    
+    private final RoadRoutingEngine roadRoutingEngine;
+    private final ForkJoinPool pool;
+    private final Map<PairKey, RoadRoute>[] segments;
+    private final double scale;
+    private final int maxCells;
+    private final Counter hits;
+    private final Counter misses;
+    private volatile boolean cachedWithRoadNetwork;
+    
+    @SuppressWarnings("unchecked")
+    public DistanceMatrixService(RoadRoutingEngine roadRoutingEngine, MeterRegistry meterRegistry,
+                                 @Value("${shipping.matrix.parallelism:0}") int parallelism,
+                                 @Value("${shipping.matrix.cache-size:200000}") int cacheSize,
+                                 @Value("${shipping.matrix.cache-precision:4}") int precision,
+                                 @Value("${shipping.matrix.max-cells:250000}") int maxCells) {
+        this.roadRoutingEngine = roadRoutingEngine;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.scale = Math.pow(10, precision);
+        this.maxCells = maxCells;
+        
+        int segmentSize = Math.max(1, cacheSize / SEGMENTS);
+        this.segments = new Map[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new LinkedHashMap<>(segmentSize, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PairKey, RoadRoute> eldest) {
+                    return size() > segmentSize;
+                }
+            };
+        }
+        
+        this.hits = Counter.builder("shipping.matrix.cache.requests").tag("result", "hit")
+                .description("Matrix cell lookups served from the cache").register(meterRegistry);
+        this.misses = Counter.builder("shipping.matrix.cache.requests").tag("result", "miss")
+                .description("Matrix cell lookups that required a route computation").register(meterRegistry);
+        Gauge.builder("shipping.matrix.cache.hit.ratio", this, DistanceMatrixService::hitRatio)
+                .description("Share of matrix cell lookups served from the cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("shipping.matrix.cache.size", this, DistanceMatrixService::cacheSize)
+                .description("Cached origin/destination pairs")
+                .register(meterRegistry);
+    }
+    
+    public CostMatrix compute(List<GeoPoint> origins, List<GeoPoint> destinations) {
+        int rows = origins.size();
+        int columns = destinations.size();
+        if ((long) rows * columns > maxCells) {
+            throw new IllegalArgumentException("Matrix of " + rows + " x " + columns + " exceeds " + maxCells + " cells");
+        }
+        double[][] distances = new double[rows][columns];
+        double[][] durations = new double[rows][columns];
+        if (rows > 0 && columns > 0) {
+            GeoPoint[] from = origins.toArray(GeoPoint[]::new);
+            GeoPoint[] to = destinations.toArray(GeoPoint[]::new);
+            pool.invoke(new CellRange(from, to, distances, durations, 0, rows * columns));
+        }
+        return new CostMatrix(distances, durations);
+    }
+    
+    public RoadRoute cost(double fromLat, double fromLon, double toLat, double toLon) {
+        boolean roadNetwork = roadRoutingEngine.isReady();
+        if (roadNetwork != cachedWithRoadNetwork) {
+            clear();
+            cachedWithRoadNetwork = roadNetwork;
+        }
+        
+        double qFromLat = quantize(fromLat);
+        double qFromLon = quantize(fromLon);
+        double qToLat = quantize(toLat);
+        double qToLon = quantize(toLon);
+        PairKey key = new PairKey(pack(qFromLat, qFromLon), pack(qToLat, qToLon));
+        Map<PairKey, RoadRoute> segment = segments[(key.hashCode() & 0x7fffffff) % SEGMENTS];
+        
+        RoadRoute cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        
+        RoadRoute route = roadRoutingEngine.route(qFromLat, qFromLon, qToLat, qToLon)
+                .orElseGet(() -> {
+                    double km = GeoDistance.distanceKm(qFromLat, qFromLon, qToLat, qToLon);
+                    return new RoadRoute(km, km / FALLBACK_SPEED_KMH * 60);
+                });
+        synchronized (segment) {
+            segment.put(key, route);
+        }
+        return route;
+    }
+    
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total > 0 ? hits.count() / total : 0.0;
+    }
+    
+    public int cacheSize() {
+        int size = 0;
+        for (Map<PairKey, RoadRoute> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    private void clear() {
+        for (Map<PairKey, RoadRoute> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+    
+    private double quantize(double degrees) {
+        return Math.round(degrees * scale) / scale;
+    }
+    
+    private long pack(double latitude, double longitude) {
+        return ((long) Math.round(latitude * scale) << 32) | (Math.round(longitude * scale) & 0xffffffffL);
+    }
+    
+    private record PairKey(long from, long to) {
+    }
+    
+    private final class CellRange extends RecursiveAction {
+        
+        private final GeoPoint[] origins;
+        private final GeoPoint[] destinations;
+        private final double[][] distances;
+        private final double[][] durations;
+        private final int start;
+        private final int end;
+        
+        CellRange(GeoPoint[] origins, GeoPoint[] destinations, double[][] distances, double[][] durations,
+                  int start, int end) {
+            this.origins = origins;
+            this.destinations = destinations;
+            this.distances = distances;
+            this.durations = durations;
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        protected void compute() {
+            if (end - start <= CELLS_PER_TASK) {
+                int columns = destinations.length;
+                for (int cell = start; cell < end; cell++) {
+                    GeoPoint from = origins[cell / columns];
+                    GeoPoint to = destinations[cell % columns];
+                    RoadRoute route = cost(from.latitude(), from.longitude(), to.latitude(), to.longitude());
+                    distances[cell / columns][cell % columns] = route.distanceKm();
+                    durations[cell / columns][cell % columns] = route.durationMinutes();
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new CellRange(origins, destinations, distances, durations, start, middle),
+                    new CellRange(origins, destinations, distances, durations, middle, end));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.swiftpulse.shipping.routing;
+
+import com.swiftpulse.common.geo.GeoDistance;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Fastest-path queries over a {@link RoadGraph} using A* with landmark lower bounds (ALT).
+ * Preprocessing runs two Dijkstra searches per landmark and keeps travel times from and
+ * to each landmark; by the triangle inequality they bound the remaining time from any node,
+ * which keeps the search focused on the corridor between source and target. Per-thread
+ * scratch arrays are stamped rather than cleared, so a query costs only the nodes it visits.
+ */
+public final class LandmarkRouter {
+    
+    /** Speed assumed between a coordinate and the road node it snaps to. */
+    private static final double ACCESS_SPEED_KMH = 20.0;
+    
+    private final RoadGraph graph;
+    private final float[][] fromLandmark;
+    private final float[][] toLandmark;
+    private final double maxSnapKm;
+    private final ThreadLocal<SearchState> searchState;
+    
+    private LandmarkRouter(RoadGraph graph, float[][] fromLandmark, float[][] toLandmark, double maxSnapKm) {
+        this.graph = graph;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        this.maxSnapKm = maxSnapKm;
+        this.searchState = ThreadLocal.withInitial(() -> new SearchState(graph.nodeCount()));
+    }
+    
+    public static LandmarkRouter build(RoadGraph graph, int landmarkCount, double maxSnapKm) {
+        int nodes = graph.nodeCount();
+        int count = Math.min(landmarkCount, nodes);
+        float[][] from = new float[count][];
+        float[][] to = new float[count][];
+        
+        // Farthest-point selection: each landmark is the node worst covered by those already chosen
+        float[] coverage = new float[nodes];
+        Arrays.fill(coverage, Float.POSITIVE_INFINITY);
+        int landmark = nodes > 0 ? farthest(dijkstra(graph, 0, false), null) : -1;
+        for (int i = 0; i < count && landmark >= 0; i++) {
+            from[i] = dijkstra(graph, landmark, false);
+            to[i] = dijkstra(graph, landmark, true);
+            for (int v = 0; v < nodes; v++) {
+                coverage[v] = Math.min(coverage[v], from[i][v]);
+            }
+            landmark = farthest(coverage, from[i]);
+        }
+        int built = 0;
+        while (built < count && from[built] != null) {
+            built++;
+        }
+        return new LandmarkRouter(graph, Arrays.copyOf(from, built), Arrays.copyOf(to, built), maxSnapKm);
+    }
+    
+    public RoadGraph graph() {
+        return graph;
+    }
+    
+    public int landmarkCount() {
+        return fromLandmark.length;
+    }
+    
+    /**
+     * Fastest route between two coordinates, or empty when either end is further than the
+     * snap radius from the network or no path connects them.
+     */
+    public Optional<RoadRoute> route(double fromLat, double fromLon, double toLat, double toLon) {
+        int source = graph.nearestNode(fromLat, fromLon, maxSnapKm);
+        int target = graph.nearestNode(toLat, toLon, maxSnapKm);
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
+        double accessKm = GeoDistance.distanceKm(fromLat, fromLon, graph.latitude(source), graph.longitude(source))
+                + GeoDistance.distanceKm(toLat, toLon, graph.latitude(target), graph.longitude(target));
+        double accessSeconds = accessKm / ACCESS_SPEED_KMH * 3600;
+        if (source == target) {
+            return Optional.of(new RoadRoute(accessKm, accessSeconds / 60));
+        }
+        
+        SearchState state = searchState.get();
+        state.begin();
+        state.reach(source, 0f, 0f);
+        state.heap.push(source, bound(source, target));
+        while (!state.heap.isEmpty()) {
+            int node = state.heap.pop();
+            if (state.isClosed(node)) {
+                continue;
+            }
+            state.close(node);
+            if (node == target) {
+                double km = state.meters[node] / 1000.0 + accessKm;
+                double seconds = state.seconds[node] + accessSeconds;
+                return Optional.of(new RoadRoute(km, seconds / 60));
+            }
+            float base = state.seconds[node];
+            float baseMeters = state.meters[node];
+            for (int e = graph.firstEdge(node), end = graph.firstEdge(node + 1); e < end; e++) {
+                int next = graph.edgeTarget(e);
+                if (state.isClosed(next)) {
+                    continue;
+                }
+                float seconds = base + graph.edgeSeconds(e);
+                if (!state.isReached(next) || seconds < state.seconds[next]) {
+                    state.reach(next, seconds, baseMeters + graph.edgeMeters(e));
+                    state.heap.push(next, seconds + bound(next, target));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    private float bound(int node, int target) {
+        float best = 0f;
+        for (int i = 0; i < fromLandmark.length; i++) {
+            float[] from = fromLandmark[i];
+            float[] to = toLandmark[i];
+            if (from[target] != Float.POSITIVE_INFINITY && from[node] != Float.POSITIVE_INFINITY) {
+                best = Math.max(best, from[target] - from[node]);
+            }
+            if (to[node] != Float.POSITIVE_INFINITY && to[target] != Float.POSITIVE_INFINITY) {
+                best = Math.max(best, to[node] - to[target]);
+            }
+        }
+        return best;
+    }
+    
+    private static int farthest(float[] distances, float[] reachableFrom) {
+        int best = -1;
+        float bestDistance = -1f;
+        for (int v = 0; v < distances.length; v++) {
+            float d = distances[v];
+            boolean reachable = reachableFrom == null || reachableFrom[v] != Float.POSITIVE_INFINITY;
+            if (reachable && d != Float.POSITIVE_INFINITY && d > bestDistance) {
+                bestDistance = d;
+                best = v;
+            }
+        }
+        return bestDistance > 0 ? best : -1;
+    }
+    
+    private static float[] dijkstra(RoadGraph graph, int origin, boolean reverse) {
+        float[] distance = new float[graph.nodeCount()];
+        Arrays.fill(distance, Float.POSITIVE_INFINITY);
+        distance[origin] = 0f;
+        NodeHeap heap = new NodeHeap();
+        heap.push(origin, 0f);
+        while (!heap.isEmpty()) {
+            float key = heap.peekKey();
+            int node = heap.pop();
+            if (key > distance[node]) {
+                continue;
+            }
+            int start = reverse ? graph.firstReverseEdge(node) : graph.firstEdge(node);
+            int end = reverse ? graph.firstReverseEdge(node + 1) : graph.firstEdge(node + 1);
+            for (int e = start; e < end; e++) {
+                int next = reverse ? graph.reverseEdgeSource(e) : graph.edgeTarget(e);
+                float candidate = key + (reverse ? graph.reverseEdgeSeconds(e) : graph.edgeSeconds(e));
+                if (candidate < distance[next]) {
+                    distance[next] = candidate;
+                    heap.push(next, candidate);
+                }
+            }
+        }
+        return distance;
+    }
+    
+    private static final class SearchState {
+        private final float[] seconds;
+        private final float[] meters;
+        private final int[] reachedStamp;
+        private final int[] closedStamp;
+        private final NodeHeap heap = new NodeHeap();
+        private int stamp;
+        
+        SearchState(int nodes) {
+            seconds = new float[nodes];
+            meters = new float[nodes];
+            reachedStamp = new int[nodes];
+            closedStamp = new int[nodes];
+        }
+        
+        void begin() {
+            heap.clear();
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(reachedStamp, 0);
+                Arrays.fill(closedStamp, 0);
+                stamp = 1;
+            }
+        }
+        
+        boolean isReached(int node) { return reachedStamp[node] == stamp; }
+        boolean isClosed(int node) { return closedStamp[node] == stamp; }
+        void close(int node) { closedStamp[node] = stamp; }
+        
+        void reach(int node, float nodeSeconds, float nodeMeters) {
+            reachedStamp[node] = stamp;
+            seconds[node] = nodeSeconds;
+            meters[node] = nodeMeters;
+        }
+    }
+    
+    /** Binary min-heap of node ids keyed by float; stale entries are skipped by the caller. */
+    private static final class NodeHeap {
+        private int[] nodes = new int[256];
+        private float[] keys = new float[256];
+        private int size;
+        
+        boolean isEmpty() { return size == 0; }
+        void clear() { size = 0; }
+        float peekKey() { return keys[0]; }
+        
+        void push(int node, float key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+        
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= lastKey) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            keys[i] = lastKey;
+            return top;
+        }
+    }
+}
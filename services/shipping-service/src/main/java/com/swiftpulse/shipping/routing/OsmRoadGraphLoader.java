@@ -0,0 +1,297 @@
+package com.swiftpulse.shipping.routing;
+
+import com.swiftpulse.common.geo.GeoDistance;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams an OSM XML extract ({@code .osm} or {@code .osm.gz}) into a {@link RoadGraph}.
+ * Only ways tagged as drivable highways become edges, weighted by length and by travel
+ * time at the way's {@code maxspeed} or a default speed for its highway class. Nodes that
+ * no such way references are dropped before the graph is built.
+ */
+public final class OsmRoadGraphLoader {
+    
+    private static final Map<String, Double> DEFAULT_SPEEDS_KMH = Map.ofEntries(
+            Map.entry("motorway", 100.0), Map.entry("motorway_link", 60.0),
+            Map.entry("trunk", 80.0), Map.entry("trunk_link", 50.0),
+            Map.entry("primary", 60.0), Map.entry("primary_link", 40.0),
+            Map.entry("secondary", 50.0), Map.entry("secondary_link", 40.0),
+            Map.entry("tertiary", 40.0), Map.entry("tertiary_link", 30.0),
+            Map.entry("unclassified", 30.0), Map.entry("residential", 25.0),
+            Map.entry("living_street", 10.0), Map.entry("service", 15.0));
+    
+    private OsmRoadGraphLoader() {}
+    
+    public static RoadGraph load(Path file) throws IOException {
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             InputStream in = file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(raw, 1 << 16) : raw) {
+            return parse(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid OSM extract " + file, e);
+        }
+    }
+    
+    private static RoadGraph parse(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+        
+        LongIntMap nodeIndex = new LongIntMap(1 << 16);
+        DoubleList latitudes = new DoubleList();
+        DoubleList longitudes = new DoubleList();
+        
+        IntList edgeFrom = new IntList();
+        IntList edgeTo = new IntList();
+        FloatList edgeMeters = new FloatList();
+        FloatList edgeSeconds = new FloatList();
+        
+        IntList wayNodes = new IntList();
+        String highway = null;
+        String oneway = null;
+        String maxspeed = null;
+        String junction = null;
+        boolean inWay = false;
+        
+        while (reader.hasNext()) {
+            int eventType = reader.next();
+            if (eventType == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "node" -> {
+                        long id = Long.parseLong(reader.getAttributeValue(null, "id"));
+                        nodeIndex.put(id, latitudes.size());
+                        latitudes.add(Double.parseDouble(reader.getAttributeValue(null, "lat")));
+                        longitudes.add(Double.parseDouble(reader.getAttributeValue(null, "lon")));
+                    }
+                    case "way" -> {
+                        inWay = true;
+                        wayNodes.clear();
+                        highway = oneway = maxspeed = junction = null;
+                    }
+                    case "nd" -> {
+                        if (inWay) {
+                            int node = nodeIndex.get(Long.parseLong(reader.getAttributeValue(null, "ref")));
+                            if (node >= 0) {
+                                wayNodes.add(node);
+                            }
+                        }
+                    }
+                    case "tag" -> {
+                        if (inWay) {
+                            String value = reader.getAttributeValue(null, "v");
+                            switch (reader.getAttributeValue(null, "k")) {
+                                case "highway" -> highway = value;
+                                case "oneway" -> oneway = value;
+                                case "maxspeed" -> maxspeed = value;
+                                case "junction" -> junction = value;
+                                default -> { }
+                            }
+                        }
+                    }
+                    default -> { }
+                }
+            } else if (eventType == XMLStreamConstants.END_ELEMENT && "way".equals(reader.getLocalName())) {
+                inWay = false;
+                Double defaultSpeed = highway != null ? DEFAULT_SPEEDS_KMH.get(highway) : null;
+                if (defaultSpeed == null || wayNodes.size() < 2) {
+                    continue;
+                }
+                double speedKmh = parseMaxspeed(maxspeed, defaultSpeed);
+                boolean forward = true;
+                boolean backward = true;
+                if ("-1".equals(oneway)) {
+                    forward = false;
+                } else if ("yes".equals(oneway) || "true".equals(oneway) || "1".equals(oneway)
+                        || "roundabout".equals(junction)
+                        || (oneway == null && ("motorway".equals(highway) || "motorway_link".equals(highway)))) {
+                    backward = false;
+                }
+                for (int i = 1; i < wayNodes.size(); i++) {
+                    int a = wayNodes.get(i - 1);
+                    int b = wayNodes.get(i);
+                    float meters = (float) (GeoDistance.distanceKm(latitudes.get(a), longitudes.get(a),
+                            latitudes.get(b), longitudes.get(b)) * 1000);
+                    float seconds = (float) (meters / (speedKmh / 3.6));
+                    if (forward) {
+                        edgeFrom.add(a);
+                        edgeTo.add(b);
+                        edgeMeters.add(meters);
+                        edgeSeconds.add(seconds);
+                    }
+                    if (backward) {
+                        edgeFrom.add(b);
+                        edgeTo.add(a);
+                        edgeMeters.add(meters);
+                        edgeSeconds.add(seconds);
+                    }
+                }
+            }
+        }
+        reader.close();
+        
+        // Renumber so that only nodes on a road remain
+        int[] remap = new int[latitudes.size()];
+        Arrays.fill(remap, -1);
+        int used = 0;
+        for (int e = 0; e < edgeFrom.size(); e++) {
+            if (remap[edgeFrom.get(e)] < 0) {
+                remap[edgeFrom.get(e)] = used++;
+            }
+            if (remap[edgeTo.get(e)] < 0) {
+                remap[edgeTo.get(e)] = used++;
+            }
+        }
+        double[] nodeLatitudes = new double[used];
+        double[] nodeLongitudes = new double[used];
+        for (int v = 0; v < remap.length; v++) {
+            if (remap[v] >= 0) {
+                nodeLatitudes[remap[v]] = latitudes.get(v);
+                nodeLongitudes[remap[v]] = longitudes.get(v);
+            }
+        }
+        int[] from = edgeFrom.toArray();
+        int[] to = edgeTo.toArray();
+        for (int e = 0; e < from.length; e++) {
+            from[e] = remap[from[e]];
+            to[e] = remap[to[e]];
+        }
+        return new RoadGraph(nodeLatitudes, nodeLongitudes, from, to, edgeMeters.toArray(), edgeSeconds.toArray(),
+                from.length);
+    }
+    
+    private static double parseMaxspeed(String maxspeed, double fallback) {
+        if (maxspeed == null) {
+            return fallback;
+        }
+        String value = maxspeed.trim();
+        boolean mph = value.endsWith("mph");
+        String digits = value.replaceAll("[^0-9.]", "");
+        if (digits.isEmpty()) {
+            return fallback;
+        }
+        try {
+            double speed = Double.parseDouble(digits) * (mph ? 1.609 : 1.0);
+            return speed > 0 ? speed : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+    
+    /** Open-addressing map from OSM node id to dense index; -1 when absent. */
+    private static final class LongIntMap {
+        private long[] keys;
+        private int[] values;
+        private boolean[] used;
+        private int size;
+        
+        LongIntMap(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            used = new boolean[capacity];
+        }
+        
+        void put(long key, int value) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int slot = slot(key, keys.length);
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] = value;
+        }
+        
+        int get(long key) {
+            int slot = slot(key, keys.length);
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return -1;
+        }
+        
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        
+        private static int slot(long key, int capacity) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & (capacity - 1);
+        }
+    }
+    
+    private static final class IntList {
+        private int[] values = new int[1024];
+        private int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        int get(int index) { return values[index]; }
+        int size() { return size; }
+        void clear() { size = 0; }
+        int[] toArray() { return Arrays.copyOf(values, size); }
+    }
+    
+    private static final class FloatList {
+        private float[] values = new float[1024];
+        private int size;
+        
+        void add(float value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        float[] toArray() { return Arrays.copyOf(values, size); }
+    }
+    
+    private static final class DoubleList {
+        private double[] values = new double[1024];
+        private int size;
+        
+        void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        double get(int index) { return values[index]; }
+        int size() { return size; }
+    }
+}
@@ -0,0 +1,150 @@
+package com.swiftpulse.shipping.routing;
+
+import com.swiftpulse.common.geo.ProximityFilter;
+
+import java.util.Arrays;
+
+/**
+ * Directed road graph in compressed sparse row form. Edges leaving node {@code v} are
+ * {@code firstEdge[v] .. firstEdge[v + 1] - 1}; the reverse arrays hold the same edges
+ * grouped by target so landmark distances can be computed towards a node. Nodes are
+ * bucketed in a coarse lat/lon grid to snap arbitrary coordinates onto the network.
+ */
+public final class RoadGraph {
+    
+    private static final double CELL_DEGREES = 0.005;
+    
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] firstEdge;
+    private final int[] edgeTarget;
+    private final float[] edgeMeters;
+    private final float[] edgeSeconds;
+    private final int[] firstReverseEdge;
+    private final int[] reverseEdgeSource;
+    private final float[] reverseEdgeSeconds;
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] cellNodes;
+    
+    RoadGraph(double[] latitudes, double[] longitudes, int[] edgeFrom, int[] edgeTo, float[] meters, float[] seconds,
+              int edgeCount) {
+        int nodeCount = latitudes.length;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        
+        this.firstEdge = new int[nodeCount + 1];
+        this.edgeTarget = new int[edgeCount];
+        this.edgeMeters = new float[edgeCount];
+        this.edgeSeconds = new float[edgeCount];
+        this.firstReverseEdge = new int[nodeCount + 1];
+        this.reverseEdgeSource = new int[edgeCount];
+        this.reverseEdgeSeconds = new float[edgeCount];
+        
+        for (int e = 0; e < edgeCount; e++) {
+            firstEdge[edgeFrom[e] + 1]++;
+            firstReverseEdge[edgeTo[e] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            firstEdge[v + 1] += firstEdge[v];
+            firstReverseEdge[v + 1] += firstReverseEdge[v];
+        }
+        int[] next = Arrays.copyOf(firstEdge, nodeCount);
+        int[] nextReverse = Arrays.copyOf(firstReverseEdge, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int slot = next[edgeFrom[e]]++;
+            edgeTarget[slot] = edgeTo[e];
+            edgeMeters[slot] = meters[e];
+            edgeSeconds[slot] = seconds[e];
+            int reverseSlot = nextReverse[edgeTo[e]]++;
+            reverseEdgeSource[reverseSlot] = edgeFrom[e];
+            reverseEdgeSeconds[reverseSlot] = seconds[e];
+        }
+        
+        // Sort nodes by cell with a primitive sort: cell key in the high bits, node index in the low 31
+        long[] sorted = new long[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            sorted[v] = (cellKey(row(latitudes[v]), column(longitudes[v])) << 31) | v;
+        }
+        Arrays.sort(sorted);
+        this.cellNodes = new int[nodeCount];
+        long[] keys = new long[nodeCount];
+        int[] starts = new int[nodeCount + 1];
+        int cells = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            cellNodes[i] = (int) (sorted[i] & 0x7fffffffL);
+            long cell = sorted[i] >>> 31;
+            if (cells == 0 || keys[cells - 1] != cell) {
+                keys[cells] = cell;
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = nodeCount;
+        this.cellKeys = Arrays.copyOf(keys, cells);
+        this.cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+    
+    public int nodeCount() {
+        return latitudes.length;
+    }
+    
+    public int edgeCount() {
+        return edgeTarget.length;
+    }
+    
+    double latitude(int node) { return latitudes[node]; }
+    double longitude(int node) { return longitudes[node]; }
+    int firstEdge(int node) { return firstEdge[node]; }
+    int edgeTarget(int edge) { return edgeTarget[edge]; }
+    float edgeMeters(int edge) { return edgeMeters[edge]; }
+    float edgeSeconds(int edge) { return edgeSeconds[edge]; }
+    int firstReverseEdge(int node) { return firstReverseEdge[node]; }
+    int reverseEdgeSource(int edge) { return reverseEdgeSource[edge]; }
+    float reverseEdgeSeconds(int edge) { return reverseEdgeSeconds[edge]; }
+    
+    /**
+     * Nearest node to the coordinate within the 3x3 grid cells around it, or -1 if none
+     * lies within {@code maxKm}.
+     */
+    int nearestNode(double latitude, double longitude, double maxKm) {
+        int row = row(latitude);
+        int col = column(longitude);
+        ProximityFilter filter = new ProximityFilter(latitude, longitude, maxKm);
+        int best = -1;
+        double bestKm = Double.POSITIVE_INFINITY;
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                int cell = Arrays.binarySearch(cellKeys, cellKey(r, c));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int node = cellNodes[i];
+                    if (!filter.inBoundingBox(latitudes[node], longitudes[node])) {
+                        continue;
+                    }
+                    double km = filter.approximateKm(latitudes[node], longitudes[node]);
+                    if (km <= bestKm) {
+                        bestKm = km;
+                        best = node;
+                    }
+                }
+            }
+        }
+        return best >= 0 && filter.exactKm(latitudes[best], longitudes[best]) <= maxKm ? best : -1;
+    }
+    
+    private static int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+    
+    private static int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+    
+    // 36,000 rows fit in 16 bits and 72,000 columns in 17, leaving 31 bits for a node index
+    private static long cellKey(int row, int column) {
+        return ((long) row << 17) | column;
+    }
+}
@@ -0,0 +1,4 @@
+package com.swiftpulse.shipping.routing;
+
+public record RoadRoute(double distanceKm, double durationMinutes) {
+}
@@ -0,0 +1,75 @@
+package com.swiftpulse.shipping.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Loads the road network configured by {@code shipping.routing.osm-file} in the background
+ * after startup. Until it is ready, or when no extract is configured, {@link #route}
+ * returns empty and callers fall back to straight-line estimates.
+ */
+@Component
+public class RoadRoutingEngine {
+    
+    private static final Logger log = LoggerFactory.getLogger(RoadRoutingEngine.class);
+    
+    private volatile LandmarkRouter router;
+    
+    @Value("${shipping.routing.osm-file:}")
+    private String osmFile;
+    
+    @Value("${shipping.routing.landmarks:8}")
+    private int landmarks;
+    
+    @Value("${shipping.routing.max-snap-km:0.5}")
+    private double maxSnapKm;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (osmFile == null || osmFile.isBlank()) {
+            log.info("No road network configured, routing uses straight-line distances");
+            return;
+        }
+        Thread loader = new Thread(this::load, "road-graph-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+    
+    private void load() {
+        Path file = Path.of(osmFile);
+        if (!Files.isReadable(file)) {
+            log.error("Road network file {} is not readable, routing uses straight-line distances", file);
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            RoadGraph graph = OsmRoadGraphLoader.load(file);
+            long loaded = System.nanoTime();
+            LandmarkRouter built = LandmarkRouter.build(graph, landmarks, maxSnapKm);
+            router = built;
+            log.info("Road network loaded from {}: {} nodes, {} edges, {} landmarks (parse {} ms, preprocess {} ms)",
+                    file, graph.nodeCount(), graph.edgeCount(), built.landmarkCount(),
+                    (loaded - started) / 1_000_000, (System.nanoTime() - loaded) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load road network from {}, routing uses straight-line distances", file, e);
+        }
+    }
+    
+    public boolean isReady() {
+        return router != null;
+    }
+    
+    public Optional<RoadRoute> route(double fromLat, double fromLon, double toLat, double toLon) {
+        LandmarkRouter current = router;
+        return current != null ? current.route(fromLat, fromLon, toLat, toLon) : Optional.empty();
+    }
+}
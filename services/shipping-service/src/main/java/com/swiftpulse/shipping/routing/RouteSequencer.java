@@ -0,0 +1,207 @@
+package com.swiftpulse.shipping.routing;
+
+import com.swiftpulse.shipping.dto.GeoPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Orders the pickups and deliveries of one driver's shipments into a single open route
+ * from the driver's position, keeping every pickup ahead of its delivery. Stops are placed
+ * by cheapest insertion, then improved with 2-opt segment reversals and Or-opt moves of up
+ * to three consecutive stops until no move helps or {@code shipping.routing.sequencing-budget-ms}
+ * runs out. All leg costs come from one travel-time matrix.
+ */
+@Component
+public class RouteSequencer {
+    
+    private final DistanceMatrixService distanceMatrixService;
+    
+    @Value("${shipping.routing.sequencing-budget-ms:50}")
+    private long budgetMs;
+    
+    public RouteSequencer(DistanceMatrixService distanceMatrixService) {
+        this.distanceMatrixService = distanceMatrixService;
+    }
+    
+    /**
+     * A shipment to route; {@code pickup} is null once the parcel is on board.
+     */
+    public record Job(Long orderId, GeoPoint pickup, GeoPoint delivery) {
+    }
+    
+    public SequencedRoute sequence(GeoPoint start, List<Job> jobs) {
+        // Node 0 is the driver, followed by each job's pickup (if any) and delivery
+        List<GeoPoint> points = new ArrayList<>();
+        List<Long> orderIds = new ArrayList<>();
+        List<RouteStop.Type> types = new ArrayList<>();
+        points.add(start);
+        orderIds.add(null);
+        types.add(null);
+        int[][] jobNodes = new int[jobs.size()][];
+        for (int j = 0; j < jobs.size(); j++) {
+            Job job = jobs.get(j);
+            int pickup = -1;
+            if (job.pickup() != null) {
+                pickup = points.size();
+                points.add(job.pickup());
+                orderIds.add(job.orderId());
+                types.add(RouteStop.Type.PICKUP);
+            }
+            int delivery = points.size();
+            points.add(job.delivery());
+            orderIds.add(job.orderId());
+            types.add(RouteStop.Type.DELIVERY);
+            jobNodes[j] = new int[] {pickup, delivery};
+        }
+        
+        CostMatrix matrix = distanceMatrixService.compute(points, points);
+        double[][] minutes = matrix.durationsMinutes();
+        int[] pickupOf = new int[points.size()];
+        Arrays.fill(pickupOf, -1);
+        for (int[] nodes : jobNodes) {
+            pickupOf[nodes[1]] = nodes[0];
+        }
+        
+        int[] sequence = insert(jobNodes, minutes);
+        long deadline = System.nanoTime() + budgetMs * 1_000_000;
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = twoOpt(sequence, minutes, pickupOf) || orOpt(sequence, minutes, pickupOf);
+        }
+        
+        List<RouteStop> stops = new ArrayList<>(sequence.length);
+        double elapsed = 0;
+        double km = 0;
+        int previous = 0;
+        for (int node : sequence) {
+            elapsed += minutes[previous][node];
+            km += matrix.distancesKm()[previous][node];
+            GeoPoint point = points.get(node);
+            stops.add(new RouteStop(orderIds.get(node), types.get(node), point.latitude(), point.longitude(), elapsed));
+            previous = node;
+        }
+        return new SequencedRoute(stops, km, elapsed);
+    }
+    
+    private static int[] insert(int[][] jobNodes, double[][] minutes) {
+        int[] sequence = new int[0];
+        for (int[] nodes : jobNodes) {
+            int pickup = nodes[0];
+            int delivery = nodes[1];
+            int[] best = null;
+            double bestCost = Double.MAX_VALUE;
+            if (pickup < 0) {
+                for (int j = 0; j <= sequence.length; j++) {
+                    int[] candidate = insertAt(sequence, j, delivery);
+                    double cost = cost(candidate, minutes);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        best = candidate;
+                    }
+                }
+            } else {
+                for (int i = 0; i <= sequence.length; i++) {
+                    int[] withPickup = insertAt(sequence, i, pickup);
+                    for (int j = i + 1; j <= withPickup.length; j++) {
+                        int[] candidate = insertAt(withPickup, j, delivery);
+                        double cost = cost(candidate, minutes);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            best = candidate;
+                        }
+                    }
+                }
+            }
+            sequence = best;
+        }
+        return sequence;
+    }
+    
+    private static boolean twoOpt(int[] sequence, double[][] minutes, int[] pickupOf) {
+        double current = cost(sequence, minutes);
+        for (int i = 0; i < sequence.length - 1; i++) {
+            for (int j = i + 1; j < sequence.length; j++) {
+                reverse(sequence, i, j);
+                if (feasible(sequence, pickupOf) && cost(sequence, minutes) < current - 1e-9) {
+                    return true;
+                }
+                reverse(sequence, i, j);
+            }
+        }
+        return false;
+    }
+    
+    private static boolean orOpt(int[] sequence, double[][] minutes, int[] pickupOf) {
+        double current = cost(sequence, minutes);
+        for (int length = 1; length <= 3; length++) {
+            for (int from = 0; from + length <= sequence.length; from++) {
+                for (int to = 0; to <= sequence.length - length; to++) {
+                    if (to == from) {
+                        continue;
+                    }
+                    int[] candidate = moveSegment(sequence, from, length, to);
+                    if (feasible(candidate, pickupOf) && cost(candidate, minutes) < current - 1e-9) {
+                        System.arraycopy(candidate, 0, sequence, 0, sequence.length);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    private static double cost(int[] sequence, double[][] minutes) {
+        double total = 0;
+        int previous = 0;
+        for (int node : sequence) {
+            total += minutes[previous][node];
+            previous = node;
+        }
+        return total;
+    }
+    
+    private static boolean feasible(int[] sequence, int[] pickupOf) {
+        int[] position = new int[pickupOf.length];
+        for (int i = 0; i < sequence.length; i++) {
+            position[sequence[i]] = i;
+        }
+        for (int node : sequence) {
+            int pickup = pickupOf[node];
+            if (pickup >= 0 && position[pickup] > position[node]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int[] insertAt(int[] sequence, int index, int node) {
+        int[] result = new int[sequence.length + 1];
+        System.arraycopy(sequence, 0, result, 0, index);
+        result[index] = node;
+        System.arraycopy(sequence, index, result, index + 1, sequence.length - index);
+        return result;
+    }
+    
+    private static void reverse(int[] sequence, int from, int to) {
+        while (from < to) {
+            int swap = sequence[from];
+            sequence[from++] = sequence[to];
+            sequence[to--] = swap;
+        }
+    }
+    
+    private static int[] moveSegment(int[] sequence, int from, int length, int to) {
+        int[] rest = new int[sequence.length - length];
+        System.arraycopy(sequence, 0, rest, 0, from);
+        System.arraycopy(sequence, from + length, rest, from, sequence.length - from - length);
+        int[] result = new int[sequence.length];
+        System.arraycopy(rest, 0, result, 0, to);
+        System.arraycopy(sequence, from, result, to, length);
+        System.arraycopy(rest, to, result, to + length, rest.length - to);
+        return result;
+    }
+}
@@ -0,0 +1,8 @@
+package com.swiftpulse.shipping.routing;
+
+public record RouteStop(Long orderId, Type type, double latitude, double longitude, double arrivalMinutes) {
+    
+    public enum Type {
+        PICKUP, DELIVERY
+    }
+}
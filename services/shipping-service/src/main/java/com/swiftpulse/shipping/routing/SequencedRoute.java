@@ -0,0 +1,6 @@
+package com.swiftpulse.shipping.routing;
+
+import java.util.List;
+
+public record SequencedRoute(List<RouteStop> stops, double distanceKm, double durationMinutes) {
+}
@@ -0,0 +1,44 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.common.kafka.DeadLetterReplayer;
+import com.swiftpulse.common.kafka.ReplayResult;
+import com.swiftpulse.shipping.event.DispatchForwardPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+@Service
+public class DeadLetterReplayService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterReplayService.class);
+    
+    static final String ORDER_EVENTS_TOPIC = "order-events";
+    static final String DEAD_LETTER_SUFFIX = "-shipping-dlt";
+    static final String FIRST_RETRY_SUFFIX = "-shipping-retry-0";
+    private static final Set<String> SOURCE_TOPICS = Set.of(ORDER_EVENTS_TOPIC, DispatchForwardPublisher.TOPIC);
+    private static final String REPLAY_GROUP_ID = "shipping-service-dlt-replay";
+    
+    private final DeadLetterReplayer replayer;
+    
+    public DeadLetterReplayService(KafkaProperties kafkaProperties) {
+        this.replayer = new DeadLetterReplayer(kafkaProperties.buildConsumerProperties(null),
+                kafkaProperties.buildProducerProperties(null));
+    }
+    
+    /**
+     * Replays the dead letters of one of the topics the shipping listener consumes,
+     * order-events or dispatch-forwards, through that topic's first retry topic.
+     */
+    public ReplayResult replay(String sourceTopic, int maxRecords) {
+        if (!SOURCE_TOPICS.contains(sourceTopic)) {
+            throw new IllegalArgumentException("No shipping dead-letter topic for " + sourceTopic);
+        }
+        ReplayResult result = replayer.replay(sourceTopic + DEAD_LETTER_SUFFIX, sourceTopic + FIRST_RETRY_SUFFIX,
+                REPLAY_GROUP_ID, maxRecords);
+        log.info("Replayed {} dead-lettered records to {}, {} remaining", result.replayed(), result.targetTopic(), result.remaining());
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package com.swiftpulse.shipping.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process claim bits keyed by driver id, one bit per driver in pages of 65,536 ids.
+ * A dispatcher thread claims a driver with a single compare-and-set before attempting the
+ * database reservation, so threads of this instance skip drivers another thread is
+ * already booking instead of queueing on the same row lock.
+ */
+@Component
+public class DriverClaims {
+    
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+    
+    private final Map<Long, AtomicLongArray> pages = new ConcurrentHashMap<>();
+    
+    public boolean tryClaim(long driverId) {
+        AtomicLongArray page = pages.computeIfAbsent(driverId >>> PAGE_SHIFT,
+                p -> new AtomicLongArray(1 << (PAGE_SHIFT - 6)));
+        int bit = (int) (driverId & PAGE_MASK);
+        long mask = 1L << (bit & 63);
+        return (page.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m) & mask) == 0;
+    }
+    
+    public void release(long driverId) {
+        AtomicLongArray page = pages.get(driverId >>> PAGE_SHIFT);
+        if (page != null) {
+            int bit = (int) (driverId & PAGE_MASK);
+            page.getAndAccumulate(bit >>> 6, ~(1L << (bit & 63)), (current, m) -> current & m);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.common.geo.RegionPartitioning;
+import com.swiftpulse.shipping.entity.VehicleClass;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Driver ids grouped by dispatch region, holding only the regions whose order-events
+ * partitions are assigned to this instance. Within a region drivers are split by
+ * {@link VehicleClass} and ordered by remaining payload, so a lookup for a parcel only
+ * walks the classes that can carry it and the drivers with enough room left.
+ */
+@Component
+public class DriverIndex {
+    
+    /** Parcels without a recorded weight still need some room. */
+    static final double MIN_PARCEL_KG = 0.1;
+    
+    private static final Comparator<Slot> BY_REMAINING = Comparator.comparingDouble(Slot::remainingKg)
+            .thenComparingLong(Slot::driverId);
+    
+    private final Map<Integer, Set<String>> regionsByPartition = new ConcurrentHashMap<>();
+    private final Map<String, RegionDrivers> driversByRegion = new ConcurrentHashMap<>();
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final Map<Long, String> driverRegions = new ConcurrentHashMap<>();
+    private volatile int partitionCount;
+    
+    @Value("${shipping.dispatch.region-precision:" + RegionPartitioning.DEFAULT_PRECISION + "}")
+    private int regionPrecision;
+    
+    @Value("${shipping.dispatch.max-shipments-per-driver:3}")
+    private int maxShipmentsPerDriver;
+    
+    @Value("${shipping.dispatch.search-rings:1}")
+    private int searchRings;
+    
+    /** A driver's vehicle class and the payload still free for new shipments. */
+    record Slot(long driverId, VehicleClass vehicleClass, double remainingKg) {}
+    
+    private static final class RegionDrivers {
+        private final Map<VehicleClass, NavigableSet<Slot>> byClass = new EnumMap<>(VehicleClass.class);
+        
+        RegionDrivers() {
+            for (VehicleClass vehicleClass : VehicleClass.values()) {
+                byClass.put(vehicleClass, new ConcurrentSkipListSet<>(BY_REMAINING));
+            }
+        }
+        
+        void add(Slot slot) {
+            byClass.get(slot.vehicleClass()).add(slot);
+        }
+        
+        void remove(Slot slot) {
+            byClass.get(slot.vehicleClass()).remove(slot);
+        }
+    }
+    
+    public String regionOf(double latitude, double longitude) {
+        return RegionPartitioning.regionKey(latitude, longitude, regionPrecision);
+    }
+    
+    /**
+     * Regions searched for a pickup at the point: its own region first, then the
+     * surrounding rings of neighbouring regions, whichever instance owns them.
+     */
+    public List<String> searchArea(double latitude, double longitude) {
+        return RegionPartitioning.searchArea(latitude, longitude, regionPrecision, searchRings);
+    }
+    
+    /**
+     * Drivers in the region whose vehicle class and remaining payload can take a parcel
+     * of the given weight.
+     */
+    public Set<Long> driversIn(String region, Double weightKg) {
+        RegionDrivers drivers = driversByRegion.get(region);
+        if (drivers == null) {
+            return Set.of();
+        }
+        double load = parcelWeight(weightKg);
+        Slot floor = new Slot(Long.MIN_VALUE, null, load);
+        Set<Long> eligible = new HashSet<>();
+        for (VehicleClass vehicleClass : VehicleClass.carrying(load)) {
+            for (Slot slot : drivers.byClass.get(vehicleClass).tailSet(floor, true)) {
+                eligible.add(slot.driverId());
+            }
+        }
+        return eligible;
+    }
+    
+    /**
+     * Payload a driver can still take: nothing once they carry the maximum number of
+     * shipments, otherwise the vehicle's payload minus the active load.
+     */
+    public double remainingCapacity(VehicleClass vehicleClass, double loadKg, long shipments) {
+        if (shipments >= maxShipmentsPerDriver) {
+            return 0;
+        }
+        return Math.max(0, vehicleClass.getMaxPayloadKg() - loadKg);
+    }
+    
+    public static double parcelWeight(Double weightKg) {
+        return weightKg != null && weightKg > MIN_PARCEL_KG ? weightKg : MIN_PARCEL_KG;
+    }
+    
+    public boolean isTracked(Long driverId) {
+        return slots.containsKey(driverId);
+    }
+    
+    public Set<Integer> ownedPartitions() {
+        return Set.copyOf(regionsByPartition.keySet());
+    }
+    
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+    
+    public int getRegionCount() {
+        return driversByRegion.size();
+    }
+    
+    public boolean owns(String region) {
+        int partitions = partitionCount;
+        return partitions > 0 && regionsByPartition.containsKey(RegionPartitioning.partitionFor(region, partitions));
+    }
+    
+    /**
+     * Replaces the regions and drivers held for the partition. Drivers of regions the
+     * partition held before are dropped first, so none outlive a region leaving the index.
+     */
+    void assign(int partition, int totalPartitions, Map<String, List<Slot>> drivers) {
+        partitionCount = totalPartitions;
+        Set<String> regions = ConcurrentHashMap.newKeySet();
+        regions.addAll(drivers.keySet());
+        Set<String> previous = regionsByPartition.put(partition, regions);
+        Set<String> replaced = new HashSet<>(drivers.keySet());
+        if (previous != null) {
+            replaced.addAll(previous);
+        }
+        dropRegions(replaced);
+        drivers.forEach((region, regionSlots) -> {
+            RegionDrivers regionDrivers = new RegionDrivers();
+            for (Slot slot : regionSlots) {
+                slots.put(slot.driverId(), slot);
+                driverRegions.put(slot.driverId(), region);
+                regionDrivers.add(slot);
+            }
+            driversByRegion.put(region, regionDrivers);
+        });
+    }
+    
+    void revoke(Collection<Integer> partitions) {
+        Set<String> revoked = new HashSet<>();
+        for (Integer partition : partitions) {
+            Set<String> regions = regionsByPartition.remove(partition);
+            if (regions != null) {
+                revoked.addAll(regions);
+            }
+        }
+        dropRegions(revoked);
+    }
+    
+    /** Forgets the regions together with the slots and placements of their drivers. */
+    private void dropRegions(Set<String> regions) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        regions.forEach(driversByRegion::remove);
+        driverRegions.entrySet().removeIf(entry -> {
+            if (!regions.contains(entry.getValue())) {
+                return false;
+            }
+            slots.remove(entry.getKey());
+            return true;
+        });
+    }
+    
+    /**
+     * Re-files the driver under a new vehicle class or remaining payload, e.g. after a
+     * shipment is assigned or completed. A driver outside the owned regions is not
+     * tracked, so place it with {@link #moveDriver} first.
+     */
+    public void updateCapacity(Long driverId, VehicleClass vehicleClass, double remainingKg) {
+        slots.compute(driverId, (id, slot) -> {
+            RegionDrivers drivers = regionDrivers(driverRegions.get(id));
+            if (drivers == null) {
+                return null;
+            }
+            if (slot != null) {
+                drivers.remove(slot);
+            }
+            Slot updated = new Slot(id, vehicleClass, remainingKg);
+            drivers.add(updated);
+            return updated;
+        });
+    }
+    
+    /**
+     * Places the driver in its new region, keeping its slot while the region is owned
+     * here and dropping it otherwise.
+     */
+    public void moveDriver(Long driverId, String toRegion) {
+        slots.compute(driverId, (id, slot) -> {
+            String fromRegion = driverRegions.remove(id);
+            RegionDrivers from = regionDrivers(fromRegion);
+            if (from != null && slot != null) {
+                from.remove(slot);
+            }
+            if (toRegion != null && owns(toRegion)) {
+                int partition = RegionPartitioning.partitionFor(toRegion, partitionCount);
+                Set<String> regions = regionsByPartition.get(partition);
+                if (regions != null) {
+                    regions.add(toRegion);
+                    RegionDrivers to = driversByRegion.computeIfAbsent(toRegion, region -> new RegionDrivers());
+                    driverRegions.put(id, toRegion);
+                    if (slot != null) {
+                        to.add(slot);
+                    }
+                    return slot;
+                }
+            }
+            return null;
+        });
+    }
+    
+    private RegionDrivers regionDrivers(String region) {
+        return region != null ? driversByRegion.get(region) : null;
+    }
+}
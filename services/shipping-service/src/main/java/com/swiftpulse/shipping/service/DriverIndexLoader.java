@@ -0,0 +1,178 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.common.geo.RegionPartitioning;
+import com.swiftpulse.shipping.dto.DriverLoad;
+import com.swiftpulse.shipping.entity.Driver;
+import com.swiftpulse.shipping.entity.VehicleClass;
+import com.swiftpulse.shipping.event.DispatchForwardPublisher;
+import com.swiftpulse.shipping.repository.DriverRepository;
+import com.swiftpulse.shipping.repository.ShipmentRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the drivers of the regions carried by the order-events partitions assigned to
+ * this instance, together with their vehicle class and remaining payload, and drops
+ * them again when the partitions are revoked. Rebalance callbacks and the periodic
+ * refresh run under one lock, so a refresh never re-assigns a partition revoked while
+ * it was reading the database.
+ */
+@Component
+public class DriverIndexLoader implements ConsumerAwareRebalanceListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(DriverIndexLoader.class);
+    private static final String ORDER_EVENTS_TOPIC = "order-events";
+    
+    private final DriverRepository driverRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final DriverIndex driverIndex;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+    
+    public DriverIndexLoader(DriverRepository driverRepository, ShipmentRepository shipmentRepository,
+                             DriverIndex driverIndex) {
+        this.driverRepository = driverRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.driverIndex = driverIndex;
+    }
+    
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Set<Integer> assigned = orderEventPartitions(partitions);
+        if (assigned.isEmpty()) {
+            return;
+        }
+        int partitionCount = consumer.partitionsFor(ORDER_EVENTS_TOPIC).size();
+        checkForwardPartitions(consumer, partitionCount);
+        rebalanceLock.lock();
+        try {
+            load(assigned, partitionCount);
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+    
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        revoke(partitions);
+    }
+    
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        revoke(partitions);
+    }
+    
+    @Scheduled(fixedDelayString = "${shipping.dispatch.index-refresh-ms:60000}")
+    public void refresh() {
+        rebalanceLock.lock();
+        try {
+            Set<Integer> owned = driverIndex.ownedPartitions();
+            if (!owned.isEmpty()) {
+                load(owned, driverIndex.getPartitionCount());
+            }
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+    
+    private void revoke(Collection<TopicPartition> partitions) {
+        rebalanceLock.lock();
+        try {
+            driverIndex.revoke(orderEventPartitions(partitions));
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+    
+    private void load(Set<Integer> partitions, int partitionCount) {
+        backfillRegions();
+        
+        Map<Integer, Set<String>> regionsByPartition = new HashMap<>();
+        for (String region : driverRepository.findDistinctRegionKeys()) {
+            int partition = RegionPartitioning.partitionFor(region, partitionCount);
+            if (partitions.contains(partition)) {
+                regionsByPartition.computeIfAbsent(partition, p -> new HashSet<>()).add(region);
+            }
+        }
+        
+        Set<String> ownedRegions = regionsByPartition.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        Map<String, List<DriverIndex.Slot>> driversByRegion = new HashMap<>();
+        if (!ownedRegions.isEmpty()) {
+            List<Driver> regionDrivers = driverRepository.findByRegionKeyIn(ownedRegions);
+            Map<Long, DriverLoad> loads = new HashMap<>();
+            if (!regionDrivers.isEmpty()) {
+                for (DriverLoad load : shipmentRepository.findActiveLoadsByDriverIdIn(
+                        regionDrivers.stream().map(Driver::getId).toList())) {
+                    loads.put(load.driverId(), load);
+                }
+            }
+            for (Driver driver : regionDrivers) {
+                VehicleClass vehicleClass = VehicleClass.of(driver.getVehicleType());
+                DriverLoad load = loads.getOrDefault(driver.getId(), new DriverLoad(driver.getId(), 0.0, 0L));
+                driversByRegion.computeIfAbsent(driver.getRegionKey(), r -> new ArrayList<>())
+                        .add(new DriverIndex.Slot(driver.getId(), vehicleClass,
+                                driverIndex.remainingCapacity(vehicleClass, load.loadKg(), load.shipments())));
+            }
+        }
+        
+        int drivers = 0;
+        for (Integer partition : partitions) {
+            Map<String, List<DriverIndex.Slot>> partitionDrivers = new HashMap<>();
+            for (String region : regionsByPartition.getOrDefault(partition, Set.of())) {
+                List<DriverIndex.Slot> slots = driversByRegion.getOrDefault(region, List.of());
+                partitionDrivers.put(region, slots);
+                drivers += slots.size();
+            }
+            driverIndex.assign(partition, partitionCount, partitionDrivers);
+        }
+        
+        log.info("Driver index loaded for partitions {}: {} regions, {} drivers", partitions, ownedRegions.size(), drivers);
+    }
+    
+    /**
+     * Forwards only reach a region's owner when dispatch-forwards has as many partitions
+     * as order-events; otherwise they arrive elsewhere and that region is skipped.
+     */
+    private void checkForwardPartitions(Consumer<?, ?> consumer, int orderEventPartitions) {
+        List<PartitionInfo> forwards = consumer.partitionsFor(DispatchForwardPublisher.TOPIC);
+        if (forwards != null && !forwards.isEmpty() && forwards.size() != orderEventPartitions) {
+            log.warn("{} has {} partitions but {} has {}; forwarded orders will miss the owning instance",
+                    DispatchForwardPublisher.TOPIC, forwards.size(), ORDER_EVENTS_TOPIC, orderEventPartitions);
+        }
+    }
+    
+    private void backfillRegions() {
+        List<Driver> unassigned = driverRepository.findLocatedDriversWithoutRegion();
+        if (unassigned.isEmpty()) {
+            return;
+        }
+        for (Driver driver : unassigned) {
+            driver.setRegionKey(driverIndex.regionOf(driver.getCurrentLatitude(), driver.getCurrentLongitude()));
+        }
+        driverRepository.saveAll(unassigned);
+    }
+    
+    private Set<Integer> orderEventPartitions(Collection<TopicPartition> partitions) {
+        return partitions.stream()
+                .filter(partition -> ORDER_EVENTS_TOPIC.equals(partition.topic()))
+                .map(TopicPartition::partition)
+                .collect(Collectors.toSet());
+    }
+}
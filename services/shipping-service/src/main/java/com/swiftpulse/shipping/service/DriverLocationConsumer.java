@@ -0,0 +1,56 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.common.event.DriverLocationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the driver-locations topic into the location store and dispatch index. Only the
+ * newest ping per driver in each batch is applied; earlier ones are already superseded.
+ */
+@Component
+public class DriverLocationConsumer {
+    
+    private static final Logger log = LoggerFactory.getLogger(DriverLocationConsumer.class);
+    
+    private final ShippingService shippingService;
+    
+    public DriverLocationConsumer(ShippingService shippingService) {
+        this.shippingService = shippingService;
+    }
+    
+    @KafkaListener(topics = DriverLocationEvent.TOPIC, groupId = "shipping-driver-locations", batch = "true", properties = {
+        "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.deserializer.value.delegate.class=org.springframework.kafka.support.serializer.JsonDeserializer",
+        "spring.json.value.default.type=com.swiftpulse.common.event.DriverLocationEvent",
+        "spring.json.use.type.headers=false",
+        "max.poll.records=${shipping.drivers.location.batch-size:1000}"
+    })
+    public void onDriverLocations(List<DriverLocationEvent> events) {
+        Map<Long, DriverLocationEvent> latest = new LinkedHashMap<>();
+        for (DriverLocationEvent event : events) {
+            if (event != null && event.driverId() != null && event.latitude() != null && event.longitude() != null) {
+                latest.put(event.driverId(), event);
+            }
+        }
+        
+        for (DriverLocationEvent event : latest.values()) {
+            LocalDateTime recordedAt = event.timestamp() != null
+                    ? LocalDateTime.ofInstant(event.timestamp(), ZoneId.systemDefault())
+                    : LocalDateTime.now();
+            try {
+                shippingService.updateDriverLocation(event.driverId(), event.latitude(), event.longitude(), recordedAt);
+            } catch (RuntimeException e) {
+                log.warn("Skipping location ping for driver {}: {}", event.driverId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.shipping.dto.DriverPosition;
+import com.swiftpulse.shipping.dto.GeoPoint;
+import com.swiftpulse.shipping.entity.Driver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest driver positions, held in memory and written behind to the drivers table.
+ * Pings only replace map entries; a scheduled flush drains the drivers that moved since
+ * the previous flush and writes their newest position in a single UPDATE. A crash loses
+ * at most one flush interval of positions, which the next ping from each driver restores;
+ * after a restart positions are seeded from the table on a driver's first ping.
+ */
+@Component
+public class DriverLocationStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(DriverLocationStore.class);
+    
+    // Older rows are never overwritten, so a late or retried flush cannot move a driver back
+    private static final String FLUSH_SQL =
+            "UPDATE drivers d SET current_latitude = p.latitude, current_longitude = p.longitude, " +
+            "region_key = p.region_key, last_location_update = p.recorded_at " +
+            "FROM unnest(?::bigint[], ?::float8[], ?::float8[], ?::varchar[], ?::timestamp[]) " +
+            "AS p(id, latitude, longitude, region_key, recorded_at) " +
+            "WHERE d.id = p.id AND (d.last_location_update IS NULL OR d.last_location_update <= p.recorded_at)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, DriverPosition> positions = new ConcurrentHashMap<>();
+    private final Map<Long, DriverPosition> pending = new ConcurrentHashMap<>();
+    private final Counter flushed;
+    
+    @Value("${shipping.drivers.location.flush-batch-size:5000}")
+    private int flushBatchSize;
+    
+    public DriverLocationStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushed = Counter.builder("shipping.drivers.location.flushed")
+                .description("Driver positions written to the drivers table")
+                .register(meterRegistry);
+        Gauge.builder("shipping.drivers.location.pending", pending, Map::size)
+                .description("Driver positions waiting for the next write-behind flush")
+                .register(meterRegistry);
+    }
+    
+    public Optional<DriverPosition> get(Long driverId) {
+        return Optional.ofNullable(positions.get(driverId));
+    }
+    
+    /**
+     * The newer of the driver's position held here, which may not be flushed yet, and
+     * the one loaded from the drivers table, which is newer when another instance now
+     * consumes the driver's pings; {@code null} if neither is known.
+     */
+    public GeoPoint currentPosition(Driver driver) {
+        DriverPosition live = positions.get(driver.getId());
+        boolean persisted = driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null;
+        if (live != null && (!persisted || driver.getLastLocationUpdate() == null
+                || (live.recordedAt() != null && !live.recordedAt().isBefore(driver.getLastLocationUpdate())))) {
+            return new GeoPoint(live.latitude(), live.longitude());
+        }
+        return persisted ? new GeoPoint(driver.getCurrentLatitude(), driver.getCurrentLongitude()) : null;
+    }
+    
+    public boolean contains(Long driverId) {
+        return positions.containsKey(driverId);
+    }
+    
+    /**
+     * Records a position without persisting it. Returns the position it replaced, if any.
+     */
+    public DriverPosition record(DriverPosition position) {
+        pending.put(position.driverId(), position);
+        return positions.put(position.driverId(), position);
+    }
+    
+    /**
+     * Seeds the position last persisted for a driver, unless a newer ping got there first.
+     */
+    public void seed(DriverPosition position) {
+        positions.putIfAbsent(position.driverId(), position);
+    }
+    
+    @Scheduled(fixedDelayString = "${shipping.drivers.location.flush-interval-ms:2000}")
+    public void flush() {
+        List<DriverPosition> batch = new ArrayList<>();
+        Iterator<Long> driverIds = pending.keySet().iterator();
+        while (driverIds.hasNext()) {
+            // remove() hands over the newest position; a ping arriving later re-queues the driver
+            DriverPosition position = pending.remove(driverIds.next());
+            if (position == null) {
+                continue;
+            }
+            batch.add(position);
+            if (batch.size() >= flushBatchSize) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    private void write(List<DriverPosition> batch) {
+        int size = batch.size();
+        Long[] ids = new Long[size];
+        Double[] latitudes = new Double[size];
+        Double[] longitudes = new Double[size];
+        String[] regions = new String[size];
+        Timestamp[] recordedAt = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            DriverPosition position = batch.get(i);
+            ids[i] = position.driverId();
+            latitudes[i] = position.latitude();
+            longitudes[i] = position.longitude();
+            regions[i] = position.regionKey();
+            recordedAt[i] = Timestamp.valueOf(position.recordedAt());
+        }
+        
+        try {
+            jdbcTemplate.execute(FLUSH_SQL, (PreparedStatementCallback<Integer>) statement -> {
+                Array[] arrays = {
+                        statement.getConnection().createArrayOf("bigint", ids),
+                        statement.getConnection().createArrayOf("float8", latitudes),
+                        statement.getConnection().createArrayOf("float8", longitudes),
+                        statement.getConnection().createArrayOf("varchar", regions),
+                        statement.getConnection().createArrayOf("timestamp", recordedAt)
+                };
+                for (int i = 0; i < arrays.length; i++) {
+                    statement.setArray(i + 1, arrays[i]);
+                }
+                return statement.executeUpdate();
+            });
+            flushed.increment(size);
+        } catch (DataAccessException e) {
+            log.error("Failed to flush {} driver positions, keeping them for the next flush", size, e);
+            for (DriverPosition position : batch) {
+                pending.putIfAbsent(position.driverId(), position);
+            }
+        }
+    }
+}
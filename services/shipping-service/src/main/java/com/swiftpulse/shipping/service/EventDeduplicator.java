@@ -0,0 +1,249 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.shipping.entity.ProcessedEvent;
+import com.swiftpulse.shipping.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers which events already had their side effects committed. Recently seen keys
+ * are answered from an LRU cache; a Bloom filter lets unseen keys skip the database;
+ * everything else is checked against the processed_events table, which stays the
+ * source of truth.
+ */
+@Component
+public class EventDeduplicator {
+    
+    private static final Logger log = LoggerFactory.getLogger(EventDeduplicator.class);
+    private static final String UNIQUE_VIOLATION = "23505";
+    
+    private final ProcessedEventRepository processedEventRepository;
+    private final int retentionDays;
+    private final BloomFilter seen;
+    private final Map<String, Boolean> recent;
+    private final Counter memoryHits;
+    private final Counter storeHits;
+    private final Counter insertHits;
+    private final Counter misses;
+    private final Counter bloomFalsePositives;
+    
+    public EventDeduplicator(ProcessedEventRepository processedEventRepository, MeterRegistry meterRegistry,
+                             @Value("${shipping.events.dedupe.expected-events:1000000}") int expectedEvents,
+                             @Value("${shipping.events.dedupe.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${shipping.events.dedupe.cache-size:10000}") int cacheSize,
+                             @Value("${shipping.events.dedupe.retention-days:7}") int retentionDays) {
+        this.processedEventRepository = processedEventRepository;
+        this.retentionDays = retentionDays;
+        this.seen = new BloomFilter(expectedEvents, falsePositiveRate);
+        this.recent = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        
+        this.memoryHits = Counter.builder("shipping.events.dedupe.hits").tag("source", "memory")
+                .description("Duplicate events recognised").register(meterRegistry);
+        this.storeHits = Counter.builder("shipping.events.dedupe.hits").tag("source", "store")
+                .description("Duplicate events recognised").register(meterRegistry);
+        this.insertHits = Counter.builder("shipping.events.dedupe.hits").tag("source", "insert")
+                .description("Duplicate events recognised").register(meterRegistry);
+        this.misses = Counter.builder("shipping.events.dedupe.misses")
+                .description("Events seen for the first time").register(meterRegistry);
+        this.bloomFalsePositives = Counter.builder("shipping.events.dedupe.bloom.false.positives")
+                .description("Bloom filter matches the processed_events table did not confirm").register(meterRegistry);
+    }
+    
+    public static String orderCreatedKey(Long orderId) {
+        return "ORDER_CREATED:" + orderId;
+    }
+    
+    public boolean isDuplicate(String eventKey) {
+        synchronized (recent) {
+            if (recent.containsKey(eventKey)) {
+                memoryHits.increment();
+                return true;
+            }
+        }
+        if (!seen.mightContain(eventKey)) {
+            misses.increment();
+            return false;
+        }
+        if (processedEventRepository.existsById(eventKey)) {
+            remember(eventKey);
+            storeHits.increment();
+            return true;
+        }
+        bloomFalsePositives.increment();
+        misses.increment();
+        return false;
+    }
+    
+    /**
+     * Records the event as processed within the caller's transaction. The in-memory
+     * front is only updated once that transaction commits, so a rolled back attempt
+     * is not mistaken for a processed one on redelivery.
+     * <p>
+     * The row is flushed right away. A duplicate that got past {@link #isDuplicate} at
+     * the same time as the first delivery fails on the primary key here, and
+     * {@code false} is returned; the caller's transaction can no longer commit and must
+     * be rolled back. Other integrity violations are rethrown.
+     */
+    public boolean markProcessed(String eventKey) {
+        try {
+            processedEventRepository.saveAndFlush(new ProcessedEvent(eventKey));
+        } catch (DataIntegrityViolationException e) {
+            if (!isProcessedEventKeyViolation(e)) {
+                throw e;
+            }
+            remember(eventKey);
+            insertHits.increment();
+            return false;
+        }
+        rememberAfterCommit(List.of(eventKey));
+        return true;
+    }
+    
+    /** Batch variant for replays; keys that are already recorded are left alone. */
+    public void markProcessed(Collection<String> eventKeys) {
+        if (eventKeys.isEmpty()) {
+            return;
+        }
+        Set<String> fresh = new HashSet<>(eventKeys);
+        for (ProcessedEvent existing : processedEventRepository.findAllById(eventKeys)) {
+            fresh.remove(existing.getEventKey());
+        }
+        processedEventRepository.saveAll(fresh.stream().map(ProcessedEvent::new).toList());
+        rememberAfterCommit(eventKeys);
+    }
+    
+    private void rememberAfterCommit(Collection<String> eventKeys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventKeys.forEach(EventDeduplicator.this::remember);
+                }
+            });
+        } else {
+            eventKeys.forEach(this::remember);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int loaded = 0;
+        for (String eventKey : processedEventRepository.findEventKeysProcessedSince(LocalDateTime.now().minusDays(retentionDays))) {
+            seen.put(eventKey);
+            loaded++;
+        }
+        log.info("Loaded {} processed event keys into the dedupe filter", loaded);
+    }
+    
+    @Scheduled(cron = "${shipping.events.dedupe.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} processed event keys older than {} days", purged, retentionDays);
+        }
+    }
+    
+    /**
+     * A unique violation naming the processed_events table. The flush can carry the
+     * caller's other pending writes too, so a violation on another table is not taken
+     * for a duplicate event.
+     */
+    private static boolean isProcessedEventKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String detail = violation.getConstraintName() + " " + violation.getSQLException().getMessage();
+                return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                        && detail.toLowerCase(Locale.ROOT).contains("processed_events");
+            }
+        }
+        return false;
+    }
+    
+    private void remember(String eventKey) {
+        seen.put(eventKey);
+        synchronized (recent) {
+            recent.put(eventKey, Boolean.TRUE);
+        }
+    }
+    
+    private static final class BloomFilter {
+        
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((Math.max(size, 64) + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+        
+        void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    // retry until the bit is set
+                }
+            }
+        }
+        
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private static long hash(String key) {
+            // 64-bit FNV-1a, split into two 32-bit halves for double hashing
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.kafka.OrderEventReplayer;
+import com.swiftpulse.common.kafka.ReplayProgress;
+import com.swiftpulse.common.kafka.ReplayRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds shipments by replaying order-events outside the live consumer group. Runs
+ * one replay at a time on a background thread.
+ */
+@Service
+public class EventReplayService {
+    
+    private static final Logger log = LoggerFactory.getLogger(EventReplayService.class);
+    private static final String ORDER_EVENTS_TOPIC = "order-events";
+    private static final long PROGRESS_LOG_INTERVAL_MS = 10_000;
+    
+    private final OrderEventReplayer replayer;
+    private final ShippingService shippingService;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shipping-event-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile ReplayProgress current;
+    
+    public EventReplayService(KafkaProperties kafkaProperties, ShippingService shippingService) {
+        this.replayer = new OrderEventReplayer(kafkaProperties.buildConsumerProperties(null));
+        this.shippingService = shippingService;
+    }
+    
+    public synchronized ReplayProgress start(ReplayRequest request) {
+        if (current != null && current.getState() == ReplayProgress.State.RUNNING) {
+            throw new IllegalStateException("A replay is already running");
+        }
+        ReplayProgress progress = new ReplayProgress(ORDER_EVENTS_TOPIC);
+        current = progress;
+        executor.submit(() -> run(request, progress));
+        return progress;
+    }
+    
+    public Optional<ReplayProgress> current() {
+        return Optional.ofNullable(current);
+    }
+    
+    public Optional<ReplayProgress> cancel() {
+        ReplayProgress progress = current;
+        if (progress != null) {
+            progress.cancel();
+        }
+        return Optional.ofNullable(progress);
+    }
+    
+    private void run(ReplayRequest request, ReplayProgress progress) {
+        log.info("Starting order-events replay from offset {} / timestamp {}", request.fromOffset(), request.fromTimestamp());
+        long[] lastLog = {System.currentTimeMillis()};
+        int[] created = {0};
+        try {
+            replayer.replay(ORDER_EVENTS_TOPIC, request, progress, (List<OrderEvent> batch) -> {
+                created[0] += shippingService.rebuildShipments(batch);
+                if (System.currentTimeMillis() - lastLog[0] >= PROGRESS_LOG_INTERVAL_MS) {
+                    lastLog[0] = System.currentTimeMillis();
+                    log.info("Replay progress: {}/{} records ({}%), {} records/s, {} shipments rebuilt",
+                            progress.getReadRecords(), progress.getTotalRecords(), String.format("%.1f", progress.getPercentComplete()),
+                            String.format("%.0f", progress.getRecordsPerSecond()), created[0]);
+                }
+            });
+            log.info("Replay {}: {} records in {} records/s, {} shipments rebuilt, {} unreadable",
+                    progress.getState(), progress.getReadRecords(), String.format("%.0f", progress.getRecordsPerSecond()),
+                    created[0], progress.getFailedRecords());
+        } catch (RuntimeException e) {
+            log.error("Replay failed after {} records", progress.getReadRecords(), e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        ReplayProgress progress = current;
+        if (progress != null) {
+            progress.cancel();
+        }
+        executor.shutdown();
+    }
+}
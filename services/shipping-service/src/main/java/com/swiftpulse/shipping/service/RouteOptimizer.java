@@ -1,78 +1,172 @@
 package com.swiftpulse.shipping.service;
 
+import com.swiftpulse.common.geo.GeoPointArray;
+import com.swiftpulse.common.geo.ProximityFilter;
+import com.swiftpulse.shipping.dto.GeoPoint;
 import com.swiftpulse.shipping.entity.Driver;
+import com.swiftpulse.shipping.routing.CostMatrix;
+import com.swiftpulse.shipping.routing.DistanceMatrixService;
+import com.swiftpulse.shipping.routing.RoadRoute;
+import com.swiftpulse.shipping.routing.RouteStop;
+import com.swiftpulse.shipping.routing.SequencedRoute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
 
+/**
+ * Distance and travel-time estimates for dispatch, served through the cached
+ * {@link DistanceMatrixService}. Uses the road network when one is loaded and both points
+ * snap onto it, and straight-line distance at a constant speed otherwise. Driver selection
+ * shortlists the closest drivers around the pickup with a {@link ProximityFilter} before
+ * pricing travel times, so the matrix stays small however many drivers qualify.
+ */
 @Component
 public class RouteOptimizer {
     
     private static final Logger log = LoggerFactory.getLogger(RouteOptimizer.class);
     
-    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double DEFAULT_SPEED_KMH = DistanceMatrixService.FALLBACK_SPEED_KMH;
     
-    public Driver findNearestDriver(List<Driver> availableDrivers, Double pickupLat, Double pickupLon) {
-        if (availableDrivers.isEmpty()) {
-            return null;
-        }
-        
-        Driver nearestDriver = null;
-        double minDistance = Double.MAX_VALUE;
-        
+    private final DistanceMatrixService distanceMatrixService;
+    private final int shortlistSize;
+    private final double searchRadiusKm;
+    
+    public RouteOptimizer(DistanceMatrixService distanceMatrixService,
+                          @Value("${shipping.dispatch.shortlist-size:32}") int shortlistSize,
+                          @Value("${shipping.dispatch.search-radius-km:50}") double searchRadiusKm) {
+        this.distanceMatrixService = distanceMatrixService;
+        this.shortlistSize = shortlistSize;
+        this.searchRadiusKm = searchRadiusKm;
+    }
+    
+    /**
+     * The shortlisted drivers ordered by travel time to the pickup point, fastest first,
+     * measured from the position {@code positionOf} gives for each driver; drivers without
+     * one are skipped. Drivers outside {@code shipping.dispatch.search-radius-km} of the
+     * pickup are only considered when nobody is inside it.
+     */
+    public List<Driver> rankDrivers(List<Driver> availableDrivers, Function<Driver, GeoPoint> positionOf,
+                                    Double pickupLat, Double pickupLon) {
+        List<Located> located = new ArrayList<>(availableDrivers.size());
         for (Driver driver : availableDrivers) {
-            if (driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null) {
-                double distance = calculateDistance(
-                    driver.getCurrentLatitude(), driver.getCurrentLongitude(),
-                    pickupLat, pickupLon
-                );
-                
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    nearestDriver = driver;
-                }
+            GeoPoint position = positionOf.apply(driver);
+            if (position != null) {
+                located.add(new Located(driver, position));
             }
         }
+        ProximityFilter filter = new ProximityFilter(pickupLat, pickupLon, searchRadiusKm);
+        return byTravelTime(filter.nearest(located, candidate -> candidate.position().latitude(),
+                candidate -> candidate.position().longitude(), shortlistSize), pickupLat, pickupLon);
+    }
+    
+    /**
+     * Drivers with a known position, converted once for ranking many pickups against the
+     * same drivers with {@link #rankDrivers(List, Double, Double)}.
+     */
+    public GeoPointArray<Located> snapshot(List<Driver> drivers, Function<Driver, GeoPoint> positionOf) {
+        List<Located> located = new ArrayList<>(drivers.size());
+        for (Driver driver : drivers) {
+            GeoPoint position = positionOf.apply(driver);
+            if (position != null) {
+                located.add(new Located(driver, position));
+            }
+        }
+        return GeoPointArray.of(located, candidate -> candidate.position().latitude(),
+                candidate -> candidate.position().longitude());
+    }
+    
+    /** As {@link #rankDrivers(List, Function, Double, Double)}, over the drivers of the given snapshots. */
+    public List<Driver> rankDrivers(List<GeoPointArray<Located>> snapshots, Double pickupLat, Double pickupLon) {
+        ProximityFilter filter = new ProximityFilter(pickupLat, pickupLon, searchRadiusKm);
+        return byTravelTime(filter.nearest(snapshots, shortlistSize), pickupLat, pickupLon);
+    }
+    
+    private List<Driver> byTravelTime(List<Located> located, Double pickupLat, Double pickupLon) {
+        if (located.isEmpty()) {
+            return List.of();
+        }
+        List<GeoPoint> origins = new ArrayList<>(located.size());
+        for (Located candidate : located) {
+            origins.add(candidate.position());
+        }
+        CostMatrix costs = distanceMatrixService.compute(origins, List.of(new GeoPoint(pickupLat, pickupLon)));
         
-        if (nearestDriver != null) {
-            log.info("Found nearest driver {} at distance {} km", nearestDriver.getId(), String.format("%.2f", minDistance));
+        Integer[] order = new Integer[located.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> costs.durationsMinutes()[i][0]));
+        List<Driver> ranked = new ArrayList<>(order.length);
+        for (Integer i : order) {
+            ranked.add(located.get(i).driver());
         }
         
-        return nearestDriver;
+        log.info("Found nearest driver {} at distance {} km, {} min", ranked.get(0).getId(),
+                String.format("%.2f", costs.distancesKm()[order[0]][0]),
+                String.format("%.1f", costs.durationsMinutes()[order[0]][0]));
+        return ranked;
+    }
+    
+    public RoadRoute route(Double lat1, Double lon1, Double lat2, Double lon2) {
+        return distanceMatrixService.cost(lat1, lon1, lat2, lon2);
     }
     
     public double calculateDistance(Double lat1, Double lon1, Double lat2, Double lon2) {
-        double lat1Rad = Math.toRadians(lat1);
-        double lat2Rad = Math.toRadians(lat2);
-        double lon1Rad = Math.toRadians(lon1);
-        double lon2Rad = Math.toRadians(lon2);
-        
-        double dLat = lat2Rad - lat1Rad;
-        double dLon = lon2Rad - lon1Rad;
-        
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                   Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return EARTH_RADIUS_KM * c;
+        return route(lat1, lon1, lat2, lon2).distanceKm();
     }
     
     public double calculateEstimatedTime(Double distanceKm, Double averageSpeedKmh) {
         if (averageSpeedKmh == null || averageSpeedKmh <= 0) {
-            averageSpeedKmh = 30.0;
+            averageSpeedKmh = DEFAULT_SPEED_KMH;
         }
         return (distanceKm / averageSpeedKmh) * 60;
     }
     
     public String generateRouteJson(Double pickupLat, Double pickupLon, Double deliveryLat, Double deliveryLon) {
+        return generateRouteJson(pickupLat, pickupLon, deliveryLat, deliveryLon,
+                calculateDistance(pickupLat, pickupLon, deliveryLat, deliveryLon));
+    }
+    
+    public String generateRouteJson(Double pickupLat, Double pickupLon, Double deliveryLat, Double deliveryLon,
+                                    double distanceKm) {
         return String.format(
             "{\"pickup\":{\"lat\":%.6f,\"lng\":%.6f},\"delivery\":{\"lat\":%.6f,\"lng\":%.6f},\"distanceKm\":%.2f}",
-            pickupLat, pickupLon, deliveryLat, deliveryLon,
-            calculateDistance(pickupLat, pickupLon, deliveryLat, deliveryLon)
+            pickupLat, pickupLon, deliveryLat, deliveryLon, distanceKm
         );
     }
+    
+    /**
+     * Route JSON for one shipment of a multi-stop route: the shipment's own leg as in
+     * {@link #generateRouteJson(Double, Double, Double, Double, double)} plus the driver's
+     * full ordered stop list.
+     */
+    public String generateRouteJson(Double pickupLat, Double pickupLon, Double deliveryLat, Double deliveryLon,
+                                    double distanceKm, SequencedRoute route) {
+        String leg = generateRouteJson(pickupLat, pickupLon, deliveryLat, deliveryLon, distanceKm);
+        StringBuilder json = new StringBuilder(leg.substring(0, leg.length() - 1));
+        json.append(",\"stops\":[");
+        for (int i = 0; i < route.stops().size(); i++) {
+            RouteStop stop = route.stops().get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT,
+                    "{\"orderId\":%d,\"type\":\"%s\",\"lat\":%.6f,\"lng\":%.6f,\"etaMinutes\":%.1f}",
+                    stop.orderId(), stop.type(), stop.latitude(), stop.longitude(), stop.arrivalMinutes()));
+        }
+        json.append(String.format(Locale.ROOT, "],\"routeDistanceKm\":%.2f,\"routeDurationMinutes\":%.1f}",
+                route.distanceKm(), route.durationMinutes()));
+        return json.toString();
+    }
+    
+    /** A driver with the position it is ranked from. */
+    public record Located(Driver driver, GeoPoint position) {}
 }
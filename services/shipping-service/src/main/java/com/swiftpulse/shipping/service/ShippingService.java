@@ -1,21 +1,54 @@
 package com.swiftpulse.shipping.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.common.event.OrderCreatedEvent;
+import com.swiftpulse.common.event.OrderEvent;
+import com.swiftpulse.common.geo.GeoPointArray;
+import com.swiftpulse.shipping.dto.DriverPosition;
+import com.swiftpulse.shipping.dto.GeoPoint;
 import com.swiftpulse.shipping.entity.Driver;
+import com.swiftpulse.shipping.event.DispatchForwardPublisher;
+import com.swiftpulse.shipping.event.ShipmentEventPublisher;
 import com.swiftpulse.shipping.entity.Shipment;
+import com.swiftpulse.shipping.entity.VehicleClass;
 import com.swiftpulse.shipping.repository.DriverRepository;
 import com.swiftpulse.shipping.repository.ShipmentRepository;
+import com.swiftpulse.shipping.routing.RoadRoute;
+import com.swiftpulse.shipping.routing.RouteSequencer;
+import com.swiftpulse.shipping.routing.RouteStop;
+import com.swiftpulse.shipping.routing.SequencedRoute;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -26,64 +59,346 @@ public class ShippingService {
     private final DriverRepository driverRepository;
     private final ShipmentRepository shipmentRepository;
     private final RouteOptimizer routeOptimizer;
-    private final ObjectMapper objectMapper;
+    private final DriverIndex driverIndex;
+    private final EventDeduplicator eventDeduplicator;
+    private final ShipmentEventPublisher shipmentEventPublisher;
+    private final DriverLocationStore driverLocationStore;
+    private final RouteSequencer routeSequencer;
+    private final DriverClaims driverClaims;
+    private final DispatchForwardPublisher dispatchForwardPublisher;
+    private final Counter deadLettered;
+    private final Counter reservationConflicts;
+    private final Counter forwardedOrders;
+    
+    @Value("${shipping.dispatch.max-shipments-per-driver:3}")
+    private int maxShipmentsPerDriver;
     
     public ShippingService(DriverRepository driverRepository, ShipmentRepository shipmentRepository, 
-                          RouteOptimizer routeOptimizer, ObjectMapper objectMapper) {
+                          RouteOptimizer routeOptimizer, DriverIndex driverIndex,
+                          EventDeduplicator eventDeduplicator, ShipmentEventPublisher shipmentEventPublisher,
+                          DriverLocationStore driverLocationStore, RouteSequencer routeSequencer,
+                          DriverClaims driverClaims, DispatchForwardPublisher dispatchForwardPublisher,
+                          MeterRegistry meterRegistry) {
         this.driverRepository = driverRepository;
         this.shipmentRepository = shipmentRepository;
         this.routeOptimizer = routeOptimizer;
-        this.objectMapper = objectMapper;
+        this.driverIndex = driverIndex;
+        this.eventDeduplicator = eventDeduplicator;
+        this.shipmentEventPublisher = shipmentEventPublisher;
+        this.driverLocationStore = driverLocationStore;
+        this.routeSequencer = routeSequencer;
+        this.driverClaims = driverClaims;
+        this.dispatchForwardPublisher = dispatchForwardPublisher;
+        this.deadLettered = Counter.builder("shipping.events.dead.lettered")
+                .description("Order events moved to the shipping dead-letter topic")
+                .register(meterRegistry);
+        this.reservationConflicts = Counter.builder("shipping.dispatch.reservation.conflicts")
+                .description("Candidate drivers skipped because another dispatcher reserved them first")
+                .register(meterRegistry);
+        this.forwardedOrders = Counter.builder("shipping.dispatch.forwarded")
+                .description("Orders handed to the instance owning the next region of their search area")
+                .register(meterRegistry);
     }
     
-    @KafkaListener(topics = "order-events", groupId = "shipping-service")
-    public void handleOrderCreatedEvent(String eventJson) {
-        try {
-            Map<String, Object> event = objectMapper.readValue(eventJson, HashMap.class);
-            String eventType = (String) event.get("eventType");
+    @RetryableTopic(
+            attempts = "${shipping.events.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${shipping.events.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${shipping.events.retry.multiplier:5}",
+                    maxDelayExpression = "${shipping.events.retry.max-delay-ms:60000}"),
+            retryTopicSuffix = "-shipping-retry",
+            dltTopicSuffix = "-shipping-dlt",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            kafkaTemplate = "kafkaTemplate",
+            exclude = DataIntegrityViolationException.class)
+    @KafkaListener(topics = {"order-events", DispatchForwardPublisher.TOPIC}, groupId = "shipping-service",
+            filter = "skippedOrderEventFilter",
+            // Range assignment gives one consumer the same partition of both topics, so forwards reach the region owner
+            properties = "partition.assignment.strategy=org.apache.kafka.clients.consumer.RangeAssignor")
+    public void handleOrderCreatedEvent(OrderEvent event,
+                                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                        @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                                        @Header(name = DispatchForwardPublisher.SEARCHED_REGIONS, required = false) String searched) {
+        if (event instanceof OrderCreatedEvent created) {
+            log.info("Received ORDER_CREATED event for order: {}", created.orderNumber());
+            
+            String eventKey = EventDeduplicator.orderCreatedKey(created.orderId());
+            if (eventDeduplicator.isDuplicate(eventKey)) {
+                log.info("Skipping already processed ORDER_CREATED event for order: {}", created.orderNumber());
+                return;
+            }
             
-            if ("ORDER_CREATED".equals(eventType)) {
-                Long orderId = Long.valueOf(event.get("orderId").toString());
-                String orderNumber = (String) event.get("orderNumber");
-                String trackingNumber = (String) event.get("trackingNumber");
-                Double pickupLat = Double.valueOf(event.get("pickupLatitude").toString());
-                Double pickupLon = Double.valueOf(event.get("pickupLongitude").toString());
-                Double deliveryLat = Double.valueOf(event.get("deliveryLatitude").toString());
-                Double deliveryLon = Double.valueOf(event.get("deliveryLongitude").toString());
-                
-                log.info("Received ORDER_CREATED event for order: {}", orderNumber);
-                assignDriverToOrder(orderId, orderNumber, trackingNumber, pickupLat, pickupLon, deliveryLat, deliveryLon);
+            boolean handled = true;
+            if (created.pickupLatitude() == null || created.pickupLongitude() == null
+                    || created.deliveryLatitude() == null || created.deliveryLongitude() == null) {
+                log.warn("Order {} has no pickup/delivery coordinates, skipping driver assignment", created.orderNumber());
+            } else {
+                Set<String> searchedRegions = DispatchForwardPublisher.searchedRegions(searched);
+                if (DispatchForwardPublisher.TOPIC.equals(topic) && key != null && !driverIndex.owns(key)) {
+                    // Ownership moved since the forward was sent; don't send it back to this partition
+                    log.warn("Forwarded order {} for region {} arrived at an instance that does not own it",
+                            created.orderNumber(), key);
+                    searchedRegions.add(key);
+                }
+                handled = assignDriverToOrder(created, searchedRegions);
+            }
+            // A forwarded order is marked processed by the instance that dispatches it
+            if (handled && !eventDeduplicator.markProcessed(eventKey)) {
+                // A concurrent delivery of the same event committed first; undo this attempt and ack
+                log.info("ORDER_CREATED event for order {} was processed concurrently, rolling back this attempt",
+                        created.orderNumber());
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             }
-        } catch (Exception e) {
-            log.error("Error processing order event: {}", eventJson, e);
         }
     }
     
-    public void assignDriverToOrder(Long orderId, String orderNumber, String trackingNumber, 
-                                     Double pickupLat, Double pickupLon, Double deliveryLat, Double deliveryLon) {
-        List<Driver> availableDrivers = driverRepository.findAvailableDriversWithLocation();
+    @DltHandler
+    public void handleDeadLetter(ConsumerRecord<String, OrderEvent> record,
+                                 @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error) {
+        deadLettered.increment();
+        log.error("Order event dead-lettered at {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), error);
+    }
+    
+    /**
+     * Dispatches the order from the regions of its search area that this instance owns
+     * and that were not searched yet. If none of them has a driver who can take the
+     * parcel, the order is forwarded to the owner of the nearest unsearched region and
+     * {@code false} is returned; once the whole area is searched the order stays
+     * unassigned.
+     */
+    public boolean assignDriverToOrder(OrderCreatedEvent created, Set<String> searchedRegions) {
+        Long orderId = created.orderId();
+        String orderNumber = created.orderNumber();
+        Double pickupLat = created.pickupLatitude();
+        Double pickupLon = created.pickupLongitude();
+        Double weightKg = created.weight();
+        
+        List<String> searchArea = driverIndex.searchArea(pickupLat, pickupLon);
+        Set<String> searched = new HashSet<>(searchedRegions);
+        List<String> owned = searchArea.stream()
+                .filter(region -> !searched.contains(region) && driverIndex.owns(region))
+                .toList();
+        List<Driver> availableDrivers = findCandidateDrivers(owned, weightKg);
+        searched.addAll(owned);
         
         if (availableDrivers.isEmpty()) {
-            log.warn("No available drivers for order: {}", orderNumber);
-            return;
+            Optional<String> next = searchArea.stream().filter(region -> !searched.contains(region)).findFirst();
+            if (next.isPresent()) {
+                dispatchForwardPublisher.forward(created, next.get(), searched);
+                forwardedOrders.increment();
+                log.debug("No local driver for order {}, forwarded to the owner of region {}", orderNumber, next.get());
+                return false;
+            }
+            log.warn("No available drivers with capacity for order: {} ({} kg) in {} regions around the pickup",
+                    orderNumber, weightKg, searchArea.size());
+            return true;
         }
         
-        Driver nearestDriver = routeOptimizer.findNearestDriver(availableDrivers, pickupLat, pickupLon);
+        // Positions from the location store, which can be a flush interval ahead of the drivers table
+        List<Driver> ranked = routeOptimizer.rankDrivers(availableDrivers, driverLocationStore::currentPosition,
+                pickupLat, pickupLon);
         
-        if (nearestDriver == null) {
+        if (ranked.isEmpty()) {
             log.warn("Could not find nearest driver for order: {}", orderNumber);
+            return true;
+        }
+        
+        // Thrown so the retry topics try again once concurrent assignments have settled
+        Driver nearestDriver = reserveDriver(ranked, weightKg);
+        if (nearestDriver == null) {
+            throw new RuntimeException("All " + ranked.size() + " candidate drivers for order " + orderNumber
+                    + " were reserved by concurrent dispatchers");
+        }
+        
+        Shipment shipment = planShipment(nearestDriver, driverLocationStore.currentPosition(nearestDriver),
+                orderId, orderNumber, created.trackingNumber(),
+                pickupLat, pickupLon, created.deliveryLatitude(), created.deliveryLongitude(), weightKg,
+                LocalDateTime.now());
+        
+        shipmentRepository.save(shipment);
+        List<Shipment> active = resequenceDriverRoute(nearestDriver);
+        refreshCapacity(nearestDriver, active);
+        
+        log.info("Driver {} assigned to order {} ({} active). Est. pickup: {}, Est. delivery: {}", 
+                nearestDriver.getId(), orderNumber, active.size(), shipment.getEstimatedPickupTime(),
+                shipment.getEstimatedDeliveryTime());
+        return true;
+    }
+    
+    /**
+     * Books the parcel on the best-ranked driver that can still take it. Each candidate is
+     * claimed in-process first, then reserved with a conditional update of its row, so two
+     * dispatchers can never both book the last slot of a driver; losing either step moves
+     * on to the next candidate. Claims are held until the surrounding transaction ends.
+     */
+    private Driver reserveDriver(List<Driver> ranked, Double weightKg) {
+        double parcel = DriverIndex.parcelWeight(weightKg);
+        for (Driver candidate : ranked) {
+            if (!driverClaims.tryClaim(candidate.getId())) {
+                reservationConflicts.increment();
+                continue;
+            }
+            boolean reserved = false;
+            try {
+                reserved = driverRepository.reserve(candidate.getId(), parcel, maxShipmentsPerDriver,
+                        VehicleClass.of(candidate.getVehicleType()).getMaxPayloadKg(), DriverIndex.MIN_PARCEL_KG) == 1;
+            } finally {
+                releaseClaimAfterTransaction(candidate.getId(), reserved);
+            }
+            if (reserved) {
+                return candidate;
+            }
+            reservationConflicts.increment();
+            log.debug("Driver {} was reserved concurrently, trying next candidate", candidate.getId());
+        }
+        return null;
+    }
+    
+    private void releaseClaimAfterTransaction(Long driverId, boolean reserved) {
+        if (!reserved || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            driverClaims.release(driverId);
             return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                driverClaims.release(driverId);
+            }
+        });
+    }
+    
+    /**
+     * Re-files the driver in the dispatch index under the payload left after its active
+     * shipments and returns that payload.
+     */
+    private double refreshCapacity(Driver driver, List<Shipment> active) {
+        VehicleClass vehicleClass = VehicleClass.of(driver.getVehicleType());
+        double loadKg = active.stream().mapToDouble(shipment -> DriverIndex.parcelWeight(shipment.getWeightKg())).sum();
+        double remaining = driverIndex.remainingCapacity(vehicleClass, loadKg, active.size());
+        driverIndex.updateCapacity(driver.getId(), vehicleClass, remaining);
+        return remaining;
+    }
+    
+    /**
+     * Re-plans the order of all pickups and deliveries the driver still has to make and
+     * stores the resulting stop list and estimates on each active shipment.
+     */
+    private List<Shipment> resequenceDriverRoute(Driver driver) {
+        List<Shipment> active = shipmentRepository.findActiveShipmentsByDriver(driver.getId());
+        if (active.isEmpty()) {
+            return active;
+        }
+        
+        GeoPoint start = driverLocationStore.currentPosition(driver);
+        if (start == null) {
+            return active;
+        }
+        List<RouteSequencer.Job> jobs = new ArrayList<>();
+        for (Shipment shipment : active) {
+            boolean onBoard = shipment.getStatus() == Shipment.ShipmentStatus.AT_PICKUP
+                    || shipment.getStatus() == Shipment.ShipmentStatus.EN_ROUTE_TO_DELIVERY;
+            jobs.add(new RouteSequencer.Job(shipment.getOrderId(),
+                    onBoard ? null : new GeoPoint(shipment.getPickupLatitude(), shipment.getPickupLongitude()),
+                    new GeoPoint(shipment.getDeliveryLatitude(), shipment.getDeliveryLongitude())));
+        }
+        SequencedRoute route = routeSequencer.sequence(start, jobs);
         
-        double distanceToPickup = routeOptimizer.calculateDistance(
-            nearestDriver.getCurrentLatitude(), nearestDriver.getCurrentLongitude(), pickupLat, pickupLon
-        );
-        double totalDistance = distanceToPickup + routeOptimizer.calculateDistance(pickupLat, pickupLon, deliveryLat, deliveryLon);
-        double estimatedMinutes = routeOptimizer.calculateEstimatedTime(totalDistance, 30.0);
+        LocalDateTime now = LocalDateTime.now();
+        for (Shipment shipment : active) {
+            for (RouteStop stop : route.stops()) {
+                if (!shipment.getOrderId().equals(stop.orderId())) {
+                    continue;
+                }
+                LocalDateTime arrival = now.plusMinutes((long) stop.arrivalMinutes());
+                if (stop.type() == RouteStop.Type.PICKUP) {
+                    shipment.setEstimatedPickupTime(arrival);
+                } else {
+                    shipment.setEstimatedDeliveryTime(arrival);
+                }
+            }
+            shipment.setRouteData(routeOptimizer.generateRouteJson(shipment.getPickupLatitude(),
+                    shipment.getPickupLongitude(), shipment.getDeliveryLatitude(), shipment.getDeliveryLongitude(),
+                    shipment.getDistanceKm(), route));
+        }
+        shipmentRepository.saveAll(active).forEach(shipmentEventPublisher::publish);
+        return active;
+    }
+    
+    /**
+     * Replay path: recreates missing shipments for a batch of ORDER_CREATED events in one
+     * transaction. Drivers are matched against a single snapshot of available drivers
+     * whose vehicle class can carry the parcel; the shipments are added to their load
+     * without an availability check, and estimates are based on the event time.
+     */
+    public int rebuildShipments(List<OrderEvent> events) {
+        Map<Long, OrderCreatedEvent> createdByOrder = new LinkedHashMap<>();
+        for (OrderEvent event : events) {
+            if (event instanceof OrderCreatedEvent created && created.pickupLatitude() != null && created.pickupLongitude() != null
+                    && created.deliveryLatitude() != null && created.deliveryLongitude() != null) {
+                createdByOrder.put(created.orderId(), created);
+            }
+        }
+        if (createdByOrder.isEmpty()) {
+            return 0;
+        }
+        
+        createdByOrder.keySet().removeAll(shipmentRepository.findOrderIdsByOrderIdIn(createdByOrder.keySet()));
+        List<Driver> drivers = createdByOrder.isEmpty() ? List.of() : driverRepository.findAvailableDriversWithLocation();
+        if (drivers.isEmpty()) {
+            return 0;
+        }
+        
+        Map<VehicleClass, List<Driver>> byClass = new EnumMap<>(VehicleClass.class);
+        for (Driver driver : drivers) {
+            byClass.computeIfAbsent(VehicleClass.of(driver.getVehicleType()), c -> new ArrayList<>()).add(driver);
+        }
+        // Positions are converted once per batch; every order of the batch scans the same snapshots
+        Map<VehicleClass, GeoPointArray<RouteOptimizer.Located>> snapshotsByClass = new EnumMap<>(VehicleClass.class);
+        byClass.forEach((vehicleClass, classDrivers) -> snapshotsByClass.put(vehicleClass,
+                routeOptimizer.snapshot(classDrivers, driverLocationStore::currentPosition)));
+        
+        List<Shipment> shipments = new ArrayList<>();
+        List<String> eventKeys = new ArrayList<>();
+        for (OrderCreatedEvent created : createdByOrder.values()) {
+            List<GeoPointArray<RouteOptimizer.Located>> eligible = new ArrayList<>();
+            for (VehicleClass vehicleClass : VehicleClass.carrying(DriverIndex.parcelWeight(created.weight()))) {
+                GeoPointArray<RouteOptimizer.Located> snapshot = snapshotsByClass.get(vehicleClass);
+                if (snapshot != null) {
+                    eligible.add(snapshot);
+                }
+            }
+            List<Driver> ranked = routeOptimizer.rankDrivers(eligible, created.pickupLatitude(), created.pickupLongitude());
+            if (ranked.isEmpty()) {
+                continue;
+            }
+            Driver driver = ranked.get(0);
+            shipments.add(planShipment(driver, driverLocationStore.currentPosition(driver), created.orderId(),
+                    created.orderNumber(), created.trackingNumber(),
+                    created.pickupLatitude(), created.pickupLongitude(), created.deliveryLatitude(), created.deliveryLongitude(),
+                    created.weight(), LocalDateTime.ofInstant(created.timestamp(), ZoneId.systemDefault())));
+            eventKeys.add(EventDeduplicator.orderCreatedKey(created.orderId()));
+        }
+        shipmentRepository.saveAll(shipments).forEach(shipmentEventPublisher::publish);
+        Map<Long, List<Shipment>> byDriver = new HashMap<>();
+        for (Shipment shipment : shipments) {
+            byDriver.computeIfAbsent(shipment.getDriverId(), id -> new ArrayList<>()).add(shipment);
+        }
+        byDriver.forEach((driverId, driverShipments) -> driverRepository.addLoad(driverId, driverShipments.size(),
+                driverShipments.stream().mapToDouble(shipment -> DriverIndex.parcelWeight(shipment.getWeightKg())).sum()));
+        eventDeduplicator.markProcessed(eventKeys);
+        return shipments.size();
+    }
+    
+    private Shipment planShipment(Driver driver, GeoPoint start, Long orderId, String orderNumber, String trackingNumber,
+                                  Double pickupLat, Double pickupLon, Double deliveryLat, Double deliveryLon,
+                                  Double weightKg, LocalDateTime plannedAt) {
+        RoadRoute toPickup = routeOptimizer.route(start.latitude(), start.longitude(), pickupLat, pickupLon);
+        RoadRoute toDelivery = routeOptimizer.route(pickupLat, pickupLon, deliveryLat, deliveryLon);
+        double totalDistance = toPickup.distanceKm() + toDelivery.distanceKm();
+        double estimatedMinutes = toPickup.durationMinutes() + toDelivery.durationMinutes();
         
         Shipment shipment = new Shipment();
         shipment.setOrderId(orderId);
-        shipment.setDriverId(nearestDriver.getId());
+        shipment.setDriverId(driver.getId());
         shipment.setOrderNumber(orderNumber);
         shipment.setTrackingNumber(trackingNumber);
         shipment.setStatus(Shipment.ShipmentStatus.ASSIGNED);
@@ -91,18 +406,28 @@ public class ShippingService {
         shipment.setPickupLongitude(pickupLon);
         shipment.setDeliveryLatitude(deliveryLat);
         shipment.setDeliveryLongitude(deliveryLon);
-        shipment.setEstimatedPickupTime(LocalDateTime.now().plusMinutes((long) (distanceToPickup / 30.0 * 60)));
-        shipment.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes((long) estimatedMinutes));
-        shipment.setRouteData(routeOptimizer.generateRouteJson(pickupLat, pickupLon, deliveryLat, deliveryLon));
+        shipment.setEstimatedPickupTime(plannedAt.plusMinutes((long) toPickup.durationMinutes()));
+        shipment.setEstimatedDeliveryTime(plannedAt.plusMinutes((long) estimatedMinutes));
+        shipment.setRouteData(routeOptimizer.generateRouteJson(pickupLat, pickupLon, deliveryLat, deliveryLon,
+                toDelivery.distanceKm()));
         shipment.setDistanceKm(totalDistance);
-        
-        shipmentRepository.save(shipment);
-        
-        nearestDriver.setIsAvailable(false);
-        driverRepository.save(nearestDriver);
-        
-        log.info("Driver {} assigned to order {}. Est. pickup: {}, Est. delivery: {}", 
-                nearestDriver.getId(), orderNumber, shipment.getEstimatedPickupTime(), shipment.getEstimatedDeliveryTime());
+        shipment.setWeightKg(weightKg);
+        return shipment;
+    }
+    
+    /**
+     * Available drivers indexed in the given regions whose vehicle class and remaining
+     * payload can take the parcel.
+     */
+    private List<Driver> findCandidateDrivers(Collection<String> regions, Double weightKg) {
+        Set<Long> regionDrivers = new HashSet<>();
+        for (String region : regions) {
+            regionDrivers.addAll(driverIndex.driversIn(region, weightKg));
+        }
+        if (regionDrivers.isEmpty()) {
+            return List.of();
+        }
+        return driverRepository.findAvailableDriversWithLocationByIdIn(regionDrivers);
     }
     
     public Shipment getShipmentByOrderId(Long orderId) {
@@ -114,23 +439,35 @@ public class ShippingService {
         Shipment shipment = shipmentRepository.findById(shipmentId)
                 .orElseThrow(() -> new RuntimeException("Shipment not found: " + shipmentId));
         
+        boolean wasOpen = shipment.getStatus() != Shipment.ShipmentStatus.COMPLETED
+                && shipment.getStatus() != Shipment.ShipmentStatus.FAILED;
         shipment.setStatus(newStatus);
         
         if (newStatus == Shipment.ShipmentStatus.AT_PICKUP) {
             shipment.setActualPickupTime(LocalDateTime.now());
             shipment.setPickupConfirmed(true);
-        } else if (newStatus == Shipment.ShipmentStatus.COMPLETED) {
-            shipment.setActualDeliveryTime(LocalDateTime.now());
-            shipment.setDeliveryConfirmed(true);
+        } else if (newStatus == Shipment.ShipmentStatus.COMPLETED || newStatus == Shipment.ShipmentStatus.FAILED) {
+            boolean delivered = newStatus == Shipment.ShipmentStatus.COMPLETED;
+            if (delivered) {
+                shipment.setActualDeliveryTime(LocalDateTime.now());
+                shipment.setDeliveryConfirmed(true);
+            }
             
-            Driver driver = driverRepository.findById(shipment.getDriverId())
-                    .orElseThrow(() -> new RuntimeException("Driver not found: " + shipment.getDriverId()));
-            driver.setIsAvailable(true);
-            driver.setTotalDeliveries(driver.getTotalDeliveries() + 1);
-            driverRepository.save(driver);
+            Shipment saved = shipmentRepository.save(shipment);
+            shipmentEventPublisher.publish(saved);
+            if (wasOpen) {
+                driverRepository.release(shipment.getDriverId(), DriverIndex.parcelWeight(shipment.getWeightKg()),
+                        delivered ? 1 : 0);
+                Driver driver = driverRepository.findById(shipment.getDriverId())
+                        .orElseThrow(() -> new RuntimeException("Driver not found: " + shipment.getDriverId()));
+                refreshCapacity(driver, resequenceDriverRoute(driver));
+            }
+            return saved;
         }
         
-        return shipmentRepository.save(shipment);
+        Shipment saved = shipmentRepository.save(shipment);
+        shipmentEventPublisher.publish(saved);
+        return saved;
     }
     
     public List<Shipment> getDriverShipments(Long driverId) {
@@ -152,19 +489,54 @@ public class ShippingService {
         driver.setIsAvailable(true);
         driver.setRating(5.0);
         driver.setTotalDeliveries(0);
+        if (driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null) {
+            driver.setRegionKey(driverIndex.regionOf(driver.getCurrentLatitude(), driver.getCurrentLongitude()));
+        }
         
-        return driverRepository.save(driver);
+        Driver saved = driverRepository.save(driver);
+        VehicleClass vehicleClass = VehicleClass.of(saved.getVehicleType());
+        driverIndex.moveDriver(saved.getId(), saved.getRegionKey());
+        driverIndex.updateCapacity(saved.getId(), vehicleClass, driverIndex.remainingCapacity(vehicleClass, 0, 0));
+        return saved;
     }
     
-    public Driver updateDriverLocation(Long driverId, Double latitude, Double longitude) {
-        Driver driver = driverRepository.findById(driverId)
-                .orElseThrow(() -> new RuntimeException("Driver not found: " + driverId));
+    /**
+     * Applies a location ping from the driver-locations topic to the in-memory store and
+     * the dispatch index. The drivers table is only read on a driver's first ping since
+     * startup, when its position is seeded, and when it enters a region owned here
+     * without a slot in the index, when its remaining payload is filed; writes are left
+     * to the {@link DriverLocationStore} flush. Pings older than the stored position are
+     * ignored.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DriverPosition updateDriverLocation(Long driverId, Double latitude, Double longitude, LocalDateTime recordedAt) {
+        if (!driverLocationStore.contains(driverId)) {
+            Driver driver = driverRepository.findById(driverId)
+                    .orElseThrow(() -> new RuntimeException("Driver not found: " + driverId));
+            if (driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null) {
+                driverLocationStore.seed(new DriverPosition(driverId, driver.getCurrentLatitude(),
+                        driver.getCurrentLongitude(), driver.getRegionKey(), driver.getLastLocationUpdate()));
+            }
+        }
         
-        driver.setCurrentLatitude(latitude);
-        driver.setCurrentLongitude(longitude);
-        driver.setLastLocationUpdate(LocalDateTime.now());
+        Optional<DriverPosition> current = driverLocationStore.get(driverId);
+        if (current.isPresent() && current.get().recordedAt() != null && current.get().recordedAt().isAfter(recordedAt)) {
+            return current.get();
+        }
+        
+        String region = driverIndex.regionOf(latitude, longitude);
+        DriverPosition position = new DriverPosition(driverId, latitude, longitude, region, recordedAt);
+        DriverPosition previous = driverLocationStore.record(position);
         
-        return driverRepository.save(driver);
+        String previousRegion = previous != null ? previous.regionKey() : null;
+        if (!region.equals(previousRegion)) {
+            driverIndex.moveDriver(driverId, region);
+            if (driverIndex.owns(region) && !driverIndex.isTracked(driverId)) {
+                driverRepository.findById(driverId).ifPresent(driver ->
+                        refreshCapacity(driver, shipmentRepository.findActiveShipmentsByDriver(driverId)));
+            }
+        }
+        return position;
     }
     
     public List<Driver> getAvailableDrivers() {
@@ -0,0 +1,68 @@
+package com.swiftpulse.shipping.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DriverClaimsTest {
+    
+    @Test
+    void tryClaim_WhenAlreadyClaimed_ShouldFailUntilReleased() {
+        DriverClaims claims = new DriverClaims();
+        
+        assertTrue(claims.tryClaim(7));
+        assertFalse(claims.tryClaim(7));
+        claims.release(7);
+        assertTrue(claims.tryClaim(7));
+    }
+    
+    @Test
+    void tryClaim_ForNeighbouringIdsAndPages_ShouldNotInterfere() {
+        DriverClaims claims = new DriverClaims();
+        
+        assertTrue(claims.tryClaim(63));
+        assertTrue(claims.tryClaim(64));
+        assertTrue(claims.tryClaim(63 + 65_536));
+        claims.release(64);
+        assertFalse(claims.tryClaim(63));
+        assertFalse(claims.tryClaim(63 + 65_536));
+    }
+    
+    @Test
+    void tryClaim_FromManyThreads_ShouldHaveOneWinnerPerRound() throws Exception {
+        DriverClaims claims = new DriverClaims();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 500; round++) {
+                long driverId = round % 70;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> attempts = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    attempts.add(executor.submit(() -> {
+                        start.await();
+                        return claims.tryClaim(driverId);
+                    }));
+                }
+                start.countDown();
+                int winners = 0;
+                for (Future<Boolean> attempt : attempts) {
+                    winners += attempt.get(5, TimeUnit.SECONDS) ? 1 : 0;
+                }
+                
+                assertEquals(1, winners, "round " + round);
+                claims.release(driverId);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
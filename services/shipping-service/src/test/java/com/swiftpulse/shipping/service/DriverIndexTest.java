@@ -0,0 +1,107 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.common.geo.RegionPartitioning;
+import com.swiftpulse.shipping.entity.VehicleClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DriverIndexTest {
+    
+    private static final int PARTITIONS = 2;
+    
+    private DriverIndex index;
+    private String region;
+    private String sameRegionPartition;
+    private String otherRegionPartition;
+    
+    @BeforeEach
+    void setUp() {
+        index = new DriverIndex();
+        ReflectionTestUtils.setField(index, "regionPrecision", RegionPartitioning.DEFAULT_PRECISION);
+        ReflectionTestUtils.setField(index, "maxShipmentsPerDriver", 3);
+        
+        region = index.regionOf(52.52, 13.40);
+        int partition = RegionPartitioning.partitionFor(region, PARTITIONS);
+        for (int step = 1; sameRegionPartition == null || otherRegionPartition == null; step++) {
+            String candidate = index.regionOf(52.52, 13.40 + step);
+            if (RegionPartitioning.partitionFor(candidate, PARTITIONS) == partition) {
+                sameRegionPartition = sameRegionPartition != null ? sameRegionPartition : candidate;
+            } else {
+                otherRegionPartition = otherRegionPartition != null ? otherRegionPartition : candidate;
+            }
+        }
+    }
+    
+    private int partitionOf(String regionKey) {
+        return RegionPartitioning.partitionFor(regionKey, PARTITIONS);
+    }
+    
+    private static DriverIndex.Slot slot(long driverId) {
+        return new DriverIndex.Slot(driverId, VehicleClass.VAN, 500);
+    }
+    
+    @Test
+    void revoke_ShouldUntrackDriversOfRevokedRegions() {
+        index.assign(partitionOf(region), PARTITIONS, Map.of(region, List.of(slot(1))));
+        assertTrue(index.isTracked(1L));
+        
+        index.revoke(Set.of(partitionOf(region)));
+        index.updateCapacity(1L, VehicleClass.VAN, 800);
+        
+        assertFalse(index.owns(region));
+        assertFalse(index.isTracked(1L));
+        assertTrue(index.driversIn(region, 10.0).isEmpty());
+    }
+    
+    @Test
+    void assign_WhenRegionNoLongerPresent_ShouldUntrackItsDrivers() {
+        int partition = partitionOf(region);
+        index.assign(partition, PARTITIONS, Map.of(region, List.of(slot(1)), sameRegionPartition, List.of(slot(2))));
+        
+        index.assign(partition, PARTITIONS, Map.of(region, List.of(slot(1))));
+        
+        assertTrue(index.isTracked(1L));
+        assertFalse(index.isTracked(2L));
+        assertTrue(index.driversIn(sameRegionPartition, 10.0).isEmpty());
+    }
+    
+    @Test
+    void assign_ShouldDropDriversMissingFromReloadedRegion() {
+        int partition = partitionOf(region);
+        index.assign(partition, PARTITIONS, Map.of(region, List.of(slot(1), slot(2))));
+        
+        index.assign(partition, PARTITIONS, Map.of(region, List.of(slot(1))));
+        
+        assertEquals(Set.of(1L), index.driversIn(region, 10.0));
+        assertFalse(index.isTracked(2L));
+    }
+    
+    @Test
+    void moveDriver_IntoRegionOwnedElsewhere_ShouldUntrackDriver() {
+        index.assign(partitionOf(region), PARTITIONS, Map.of(region, List.of(slot(1))));
+        
+        index.moveDriver(1L, otherRegionPartition);
+        index.updateCapacity(1L, VehicleClass.VAN, 800);
+        
+        assertFalse(index.isTracked(1L));
+        assertTrue(index.driversIn(region, 10.0).isEmpty());
+    }
+    
+    @Test
+    void moveDriver_ThenUpdateCapacity_ShouldFileNewDriverInOwnedRegion() {
+        index.assign(partitionOf(region), PARTITIONS, Map.of(region, List.of()));
+        
+        index.moveDriver(5L, sameRegionPartition);
+        index.updateCapacity(5L, VehicleClass.CAR, 150);
+        
+        assertTrue(index.isTracked(5L));
+        assertEquals(Set.of(5L), index.driversIn(sameRegionPartition, 100.0));
+    }
+}
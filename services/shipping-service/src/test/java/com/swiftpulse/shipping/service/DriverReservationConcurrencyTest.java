@@ -0,0 +1,185 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.shipping.entity.Driver;
+import com.swiftpulse.shipping.entity.VehicleClass;
+import com.swiftpulse.shipping.repository.DriverRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many dispatcher threads booking the same few drivers, each in its own transaction, the
+ * way ShippingService.reserveDriver does: claim in-process, reserve the row, keep the
+ * claim until the transaction ends.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:driver-reservation;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+class DriverReservationConcurrencyTest {
+    
+    private static final int MAX_SHIPMENTS = 3;
+    private static final double PARCEL_KG = 40;
+    
+    @Autowired
+    private DriverRepository driverRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final DriverClaims driverClaims = new DriverClaims();
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        driverRepository.deleteAllInBatch();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Test
+    void reserve_FromManyThreads_ShouldNeverOverbookASlot() throws Exception {
+        List<Long> drivers = List.of(saveDriver(1, "VAN"), saveDriver(2, "VAN"), saveDriver(3, "VAN"), saveDriver(4, "VAN"));
+        int orders = 40;
+        
+        Map<Long, AtomicInteger> booked = dispatchConcurrently(drivers, orders, 16);
+        
+        int total = booked.values().stream().mapToInt(AtomicInteger::get).sum();
+        assertEquals(drivers.size() * MAX_SHIPMENTS, total);
+        for (Long driverId : drivers) {
+            Driver driver = driverRepository.findById(driverId).orElseThrow();
+            assertEquals(MAX_SHIPMENTS, booked.get(driverId).get(), "bookings of driver " + driverId);
+            assertEquals(MAX_SHIPMENTS, driver.getActiveShipments());
+            assertEquals(MAX_SHIPMENTS * PARCEL_KG, driver.getLoadKg(), 1e-9);
+            assertFalse(driver.getIsAvailable());
+        }
+    }
+    
+    @Test
+    void reserve_FromManyThreads_ShouldRespectPayload() throws Exception {
+        // A car takes 150 kg: three 40 kg parcels fit, a fourth does not even though a slot would be free
+        Long car = saveDriver(10, "CAR");
+        
+        Map<Long, AtomicInteger> booked = dispatchConcurrently(List.of(car), 12, 12);
+        
+        Driver driver = driverRepository.findById(car).orElseThrow();
+        assertEquals(3, booked.get(car).get());
+        assertTrue(driver.getLoadKg() <= VehicleClass.CAR.getMaxPayloadKg());
+        assertEquals(3, driver.getActiveShipments());
+    }
+    
+    /**
+     * Dispatches {@code orders} parcels from {@code threads} threads over the same ranked
+     * driver list and returns how many each driver got.
+     */
+    private Map<Long, AtomicInteger> dispatchConcurrently(List<Long> ranked, int orders, int threads) throws Exception {
+        Map<Long, AtomicInteger> booked = new ConcurrentHashMap<>();
+        ranked.forEach(id -> booked.put(id, new AtomicInteger()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < orders; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    // Retried like the retry topics do when every candidate was taken concurrently
+                    for (int attempt = 0; attempt < 50; attempt++) {
+                        Long driverId = transactionTemplate.execute(status -> reserveFirstAvailable(ranked));
+                        if (driverId != null) {
+                            return driverId;
+                        }
+                        if (noneAvailable(ranked)) {
+                            return null;
+                        }
+                        Thread.sleep(2);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Long> result : results) {
+                Long driverId = result.get(60, TimeUnit.SECONDS);
+                if (driverId != null) {
+                    booked.get(driverId).incrementAndGet();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return booked;
+    }
+    
+    private Long reserveFirstAvailable(List<Long> ranked) {
+        for (Long driverId : ranked) {
+            if (!driverClaims.tryClaim(driverId)) {
+                continue;
+            }
+            boolean reserved = false;
+            try {
+                VehicleClass vehicleClass = VehicleClass.of(driverRepository.findById(driverId).orElseThrow().getVehicleType());
+                reserved = driverRepository.reserve(driverId, PARCEL_KG, MAX_SHIPMENTS, vehicleClass.getMaxPayloadKg(),
+                        DriverIndex.MIN_PARCEL_KG) == 1;
+            } finally {
+                releaseAfterTransaction(driverId, reserved);
+            }
+            if (reserved) {
+                return driverId;
+            }
+        }
+        return null;
+    }
+    
+    private void releaseAfterTransaction(Long driverId, boolean reserved) {
+        if (!reserved) {
+            driverClaims.release(driverId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                driverClaims.release(driverId);
+            }
+        });
+    }
+    
+    private boolean noneAvailable(List<Long> driverIds) {
+        return driverRepository.findAllById(driverIds).stream().noneMatch(Driver::getIsAvailable);
+    }
+    
+    private Long saveDriver(long userId, String vehicleType) {
+        Driver driver = new Driver();
+        driver.setUserId(userId);
+        driver.setFirstName("Driver");
+        driver.setLastName(String.valueOf(userId));
+        driver.setEmail("driver" + userId + "@example.com");
+        driver.setPhoneNumber("555000" + userId);
+        driver.setLicenseNumber("DL" + userId);
+        driver.setVehicleType(vehicleType);
+        driver.setIsAvailable(true);
+        return driverRepository.save(driver).getId();
+    }
+}
@@ -0,0 +1,81 @@
+package com.swiftpulse.shipping.service;
+
+import com.swiftpulse.shipping.entity.ProcessedEvent;
+import com.swiftpulse.shipping.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:processed-events;MODE=PostgreSQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+class EventDeduplicatorTest {
+    
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private EventDeduplicator deduplicator;
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        processedEventRepository.deleteAllInBatch();
+        deduplicator = new EventDeduplicator(processedEventRepository, new SimpleMeterRegistry(), 1000, 0.01, 100, 7);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Test
+    void markProcessed_WithNewKey_ShouldRecordIt() {
+        String key = EventDeduplicator.orderCreatedKey(1L);
+        
+        Boolean marked = transactionTemplate.execute(status -> deduplicator.markProcessed(key));
+        
+        assertTrue(marked);
+        assertTrue(processedEventRepository.existsById(key));
+        assertTrue(deduplicator.isDuplicate(key));
+    }
+    
+    @Test
+    void markProcessed_WhenAnotherDeliveryCommittedFirst_ShouldReturnFalse() {
+        String key = EventDeduplicator.orderCreatedKey(2L);
+        // The other delivery passed isDuplicate at the same time and committed first
+        assertFalse(deduplicator.isDuplicate(key));
+        processedEventRepository.save(new ProcessedEvent(key));
+        
+        Boolean marked = transactionTemplate.execute(status -> {
+            boolean result = deduplicator.markProcessed(key);
+            status.setRollbackOnly();
+            return result;
+        });
+        
+        assertFalse(marked);
+        assertTrue(deduplicator.isDuplicate(key));
+        assertEquals(1, processedEventRepository.count());
+    }
+    
+    @Test
+    void markProcessed_WithOtherIntegrityViolation_ShouldRethrow() {
+        String tooLong = "ORDER_CREATED:" + "9".repeat(100);
+        
+        assertThrows(DataIntegrityViolationException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> deduplicator.markProcessed(tooLong)));
+        assertFalse(processedEventRepository.existsById(tooLong));
+    }
+}
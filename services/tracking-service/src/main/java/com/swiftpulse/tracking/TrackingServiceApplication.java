@@ -1,11 +1,14 @@
 package com.swiftpulse.tracking;
 
+import com.swiftpulse.common.jvm.PinnedThreadMonitorConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(PinnedThreadMonitorConfiguration.class)
 @EnableDiscoveryClient
 @EnableFeignClients
 public class TrackingServiceApplication {
@@ -0,0 +1,16 @@
+package com.swiftpulse.tracking.config;
+
+import com.swiftpulse.tracking.service.TrackingService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+@Configuration
+public class KafkaConsumerConfig {
+    
+    /** Drops driver pings that TrackingService stored before publishing them. */
+    @Bean
+    public RecordFilterStrategy<Object, Object> storedPingFilter() {
+        return record -> record.headers().lastHeader(TrackingService.STORED_HEADER) != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.swiftpulse.tracking.config;
+
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+@Configuration
+public class KafkaProducerConfig {
+    
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate(KafkaProperties kafkaProperties) {
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null), new StringSerializer(), new JsonSerializer<>());
+        return new KafkaTemplate<>(producerFactory);
+    }
+}
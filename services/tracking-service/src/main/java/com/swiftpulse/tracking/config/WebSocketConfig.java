@@ -1,25 +1,70 @@
 package com.swiftpulse.tracking.config;
 
+import com.swiftpulse.tracking.websocket.LocationIngestHandler;
+import com.swiftpulse.tracking.websocket.StompSubscriptionHandler;
+import com.swiftpulse.tracking.websocket.TrackingSubscriptionHandler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
-import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
-import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Configuration
-@EnableWebSocketMessageBroker
-public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+public class WebSocketConfig {
     
-    @Override
-    public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
-        config.setApplicationDestinationPrefixes("/app");
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(StompSubscriptionHandler stompHandler,
+                                                  TrackingSubscriptionHandler subscriptionHandler,
+                                                  LocationIngestHandler ingestHandler) {
+        Map<String, WebSocketHandler> handlers = new LinkedHashMap<>();
+        handlers.put(StompSubscriptionHandler.ENDPOINT, stompHandler);
+        handlers.put(StompSubscriptionHandler.ENDPOINT + "/websocket", stompHandler);
+        handlers.put(StompSubscriptionHandler.ENDPOINT + "/{server}/{session}/websocket", stompHandler);
+        handlers.put("/ws/v2/tracking/order/{orderId}", subscriptionHandler);
+        handlers.put("/ws/v2/tracking/{trackingNumber}", subscriptionHandler);
+        handlers.put("/ws/ingest/locations", ingestHandler);
+        
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(handlers);
+        mapping.setOrder(-1);
+        mapping.setCorsConfigurations(Map.of("/ws/**", new CorsConfiguration().applyPermitDefaultValues()));
+        return mapping;
     }
     
-    @Override
-    public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/ws/tracking")
-                .setAllowedOrigins("*")
-                .withSockJS();
+    /**
+     * SockJS clients ask the endpoint for its capabilities before connecting; only the
+     * WebSocket transport is offered.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> sockJsInfoRoute() {
+        return RouterFunctions.route()
+                .GET(StompSubscriptionHandler.ENDPOINT + "/info", request -> {
+                    ServerResponse.BodyBuilder response = ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .cacheControl(CacheControl.noStore().mustRevalidate());
+                    String origin = request.headers().firstHeader(HttpHeaders.ORIGIN);
+                    if (origin != null) {
+                        // The SockJS client sends credentials with this request, so "*" is not allowed
+                        response.header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin)
+                                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+                    }
+                    return response.bodyValue(Map.of(
+                            "entropy", ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE),
+                            "origins", List.of("*:*"),
+                            "cookie_needed", false,
+                            "websocket", true));
+                })
+                .build();
     }
 }
@@ -0,0 +1,19 @@
+package com.swiftpulse.tracking.dto;
+
+/**
+ * A single driver position as streamed over the ingest WebSocket; mirrors the
+ * parameters of {@code POST /api/tracking/update}.
+ */
+public record LocationPing(
+        Long orderId,
+        String trackingNumber,
+        Long driverId,
+        String driverName,
+        Double latitude,
+        Double longitude,
+        Double speed,
+        Double heading,
+        String status,
+        String notes
+) {
+}
@@ -1,23 +1,23 @@
 package com.swiftpulse.tracking.repository;
 
 import com.swiftpulse.tracking.document.TrackingUpdate;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface TrackingUpdateRepository extends MongoRepository<TrackingUpdate, String> {
+public interface TrackingUpdateRepository extends ReactiveMongoRepository<TrackingUpdate, String> {
     
-    List<TrackingUpdate> findByOrderIdOrderByTimestampDesc(Long orderId);
+    Flux<TrackingUpdate> findByOrderIdOrderByTimestampDesc(Long orderId);
     
-    List<TrackingUpdate> findByTrackingNumberOrderByTimestampDesc(String trackingNumber);
+    Flux<TrackingUpdate> findByTrackingNumberOrderByTimestampDesc(String trackingNumber);
     
-    List<TrackingUpdate> findByDriverIdAndTimestampBetween(Long driverId, LocalDateTime start, LocalDateTime end);
+    Flux<TrackingUpdate> findByDriverIdAndTimestampBetween(Long driverId, LocalDateTime start, LocalDateTime end);
     
-    Optional<TrackingUpdate> findFirstByTrackingNumberOrderByTimestampDesc(String trackingNumber);
+    Mono<TrackingUpdate> findFirstByTrackingNumberOrderByTimestampDesc(String trackingNumber);
     
-    List<TrackingUpdate> findByOrderIdAndTimestampBetween(Long orderId, LocalDateTime start, LocalDateTime end);
+    Flux<TrackingUpdate> findByOrderIdAndTimestampBetween(Long orderId, LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,40 @@
+package com.swiftpulse.tracking.service;
+
+import com.swiftpulse.common.event.DriverLocationEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Consumes the driver-locations topic in batches. The listener thread waits for the batch
+ * to be stored before the next poll, so offsets are only committed for persisted pings and
+ * a slow database slows consumption rather than filling memory. Pings posted over REST
+ * were stored when they were posted and are filtered out.
+ */
+@Component
+public class DriverLocationConsumer {
+    
+    private static final Duration STORE_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final TrackingService trackingService;
+    
+    public DriverLocationConsumer(TrackingService trackingService) {
+        this.trackingService = trackingService;
+    }
+    
+    @KafkaListener(topics = DriverLocationEvent.TOPIC, groupId = "tracking-service", batch = "true",
+            filter = "storedPingFilter", properties = {
+        "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+        "spring.deserializer.value.delegate.class=org.springframework.kafka.support.serializer.JsonDeserializer",
+        "spring.json.value.default.type=com.swiftpulse.common.event.DriverLocationEvent",
+        "spring.json.use.type.headers=false",
+        "max.poll.records=${tracking.locations.batch-size:500}"
+    })
+    public void onDriverLocations(List<DriverLocationEvent> events) {
+        trackingService.recordPositions(events.stream().filter(Objects::nonNull).toList())
+                .block(STORE_TIMEOUT);
+    }
+}
@@ -0,0 +1,271 @@
+package com.swiftpulse.tracking.service;
+
+import com.swiftpulse.common.event.ShipmentEvent;
+import com.swiftpulse.common.geo.GeoDistance;
+import com.swiftpulse.tracking.document.TrackingUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recomputes the ETA of an active shipment on every position ping and pushes it to the
+ * order's WebSocket subscribers when it moves by more than the push threshold.
+ * Shipments are kept in memory from the shipment-events topic (see
+ * {@link ShipmentEventFollower}), so a ping never touches the database; until the
+ * follower has caught up with the topic no ETA is pushed.
+ * <p>
+ * A driver works through a sequenced multi-stop route whose planned arrival times come
+ * with every shipment event. The live part of the estimate is only the leg to the
+ * driver's next stop; stops after it are reached the planned time later than that stop.
+ */
+@Component
+public class EtaEngine {
+    
+    private static final Set<String> BEFORE_PICKUP = Set.of("ASSIGNED", "EN_ROUTE_TO_PICKUP");
+    private static final Set<String> FINISHED = Set.of("COMPLETED", "FAILED");
+    private static final double SPEED_SMOOTHING = 0.3;
+    
+    private final Map<Long, ShipmentState> shipments = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> ordersByDriver = new ConcurrentHashMap<>();
+    private final TrackingUpdateBroadcaster broadcaster;
+    private final Counter pushed;
+    private volatile boolean ready;
+    
+    @Value("${tracking.eta.push-threshold-seconds:60}")
+    private long pushThresholdSeconds;
+    
+    @Value("${tracking.eta.default-speed-kmh:30}")
+    private double defaultSpeedKmh;
+    
+    @Value("${tracking.eta.min-speed-kmh:10}")
+    private double minSpeedKmh;
+    
+    public EtaEngine(TrackingUpdateBroadcaster broadcaster, MeterRegistry meterRegistry) {
+        this.broadcaster = broadcaster;
+        this.pushed = Counter.builder("tracking.eta.pushed")
+                .description("ETA changes pushed to WebSocket subscribers")
+                .register(meterRegistry);
+    }
+    
+    public void onShipmentEvent(ShipmentEvent event) {
+        if (event == null || event.orderId() == null) {
+            return;
+        }
+        if (FINISHED.contains(event.status())) {
+            onShipmentDeleted(event.orderId());
+            return;
+        }
+        if (event.pickupLatitude() == null || event.pickupLongitude() == null
+                || event.deliveryLatitude() == null || event.deliveryLongitude() == null) {
+            return;
+        }
+        AtomicReference<ShipmentState> previous = new AtomicReference<>();
+        shipments.compute(event.orderId(), (orderId, current) -> {
+            previous.set(current);
+            return new ShipmentState(event.trackingNumber(), event.driverId(), event.status(),
+                    event.pickupLatitude(), event.pickupLongitude(), event.deliveryLatitude(),
+                    event.deliveryLongitude(), event.estimatedPickupTime(), event.estimatedDeliveryTime(),
+                    current != null ? current.speedKmh() : null,
+                    current != null ? current.pushedEta() : null);
+        });
+        Long previousDriver = previous.get() != null ? previous.get().driverId() : null;
+        if (previousDriver != null && !previousDriver.equals(event.driverId())) {
+            unlink(previousDriver, event.orderId());
+        }
+        if (event.driverId() != null) {
+            ordersByDriver.computeIfAbsent(event.driverId(), driverId -> ConcurrentHashMap.newKeySet())
+                    .add(event.orderId());
+        }
+    }
+    
+    /** Drops a shipment whose tombstone was read from the compacted topic. */
+    public void onShipmentDeleted(Long orderId) {
+        ShipmentState removed = shipments.remove(orderId);
+        if (removed != null) {
+            unlink(removed.driverId(), orderId);
+        }
+    }
+    
+    /** Called once the follower has read shipment-events up to its end at startup. */
+    public void markReady() {
+        ready = true;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public void onPosition(TrackingUpdate update) {
+        if (!ready || update.getOrderId() == null || update.getLatitude() == null || update.getLongitude() == null) {
+            return;
+        }
+        AtomicReference<Map<String, Object>> push = new AtomicReference<>();
+        shipments.computeIfPresent(update.getOrderId(), (orderId, state) -> {
+            Double speedKmh = state.speedKmh();
+            if (update.getSpeed() != null && update.getSpeed() >= 0) {
+                speedKmh = speedKmh == null ? update.getSpeed()
+                        : SPEED_SMOOTHING * update.getSpeed() + (1 - SPEED_SMOOTHING) * speedKmh;
+            }
+            
+            Stop target = state.nextStop();
+            Stop next = nextStopOfDriver(state.driverId(), target);
+            double toNextKm = GeoDistance.distanceKm(update.getLatitude(), update.getLongitude(),
+                    next.latitude(), next.longitude());
+            double effectiveSpeed = Math.max(speedKmh != null ? speedKmh : defaultSpeedKmh, minSpeedKmh)
+                    * headingFactor(update, next.latitude(), next.longitude(), toNextKm);
+            long plannedAfterNext = target.plannedAt() != null && next.plannedAt() != null
+                    ? Math.max(0, Duration.between(next.plannedAt(), target.plannedAt()).getSeconds())
+                    : 0;
+            Instant observedAt = update.getTimestamp() != null
+                    ? update.getTimestamp().atZone(ZoneId.systemDefault()).toInstant()
+                    : Instant.now();
+            Instant eta = observedAt.plusSeconds(Math.round(toNextKm / effectiveSpeed * 3600) + plannedAfterNext);
+            
+            Instant pushedEta = state.pushedEta();
+            if (pushedEta == null || Math.abs(Duration.between(pushedEta, eta).getSeconds()) >= pushThresholdSeconds) {
+                pushedEta = eta;
+                Map<String, Object> payload = new HashMap<>();
+                payload.put("type", "eta");
+                payload.put("orderId", orderId);
+                payload.put("trackingNumber", state.trackingNumber());
+                payload.put("target", target.pickup() ? "PICKUP" : "DELIVERY");
+                payload.put("nextStopKm", Math.round(toNextKm * 100) / 100.0);
+                payload.put("stopsBefore", stopsBefore(state.driverId(), target));
+                payload.put("estimatedArrival", eta.toString());
+                push.set(payload);
+            }
+            return state.withSpeed(speedKmh, pushedEta);
+        });
+        
+        Map<String, Object> payload = push.get();
+        if (payload != null) {
+            broadcaster.publish(TrackingUpdateBroadcaster.orderDestination(update.getOrderId()), payload);
+            if (update.getTrackingNumber() != null) {
+                broadcaster.publish(TrackingUpdateBroadcaster.trackingDestination(update.getTrackingNumber()), payload);
+            }
+            pushed.increment();
+        }
+    }
+    
+    /**
+     * The earliest planned stop among all of the driver's open shipments, which is where
+     * the driver is heading now; {@code fallback} when the plan does not say.
+     */
+    private Stop nextStopOfDriver(Long driverId, Stop fallback) {
+        Stop next = fallback;
+        for (Stop stop : pendingStops(driverId)) {
+            if (next.plannedAt() == null || stop.plannedAt().isBefore(next.plannedAt())) {
+                next = stop;
+            }
+        }
+        return next;
+    }
+    
+    private int stopsBefore(Long driverId, Stop target) {
+        if (target.plannedAt() == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Stop stop : pendingStops(driverId)) {
+            if (stop.plannedAt().isBefore(target.plannedAt())) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private List<Stop> pendingStops(Long driverId) {
+        Set<Long> orderIds = driverId != null ? ordersByDriver.get(driverId) : null;
+        if (orderIds == null) {
+            return List.of();
+        }
+        List<Stop> stops = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            ShipmentState state = shipments.get(orderId);
+            if (state == null || !driverId.equals(state.driverId())) {
+                continue;
+            }
+            if (state.beforePickup() && state.estimatedPickupTime() != null) {
+                stops.add(state.pickupStop());
+            }
+            if (state.estimatedDeliveryTime() != null) {
+                stops.add(state.deliveryStop());
+            }
+        }
+        return stops;
+    }
+    
+    private void unlink(Long driverId, Long orderId) {
+        if (driverId == null) {
+            return;
+        }
+        ordersByDriver.computeIfPresent(driverId, (id, orderIds) -> {
+            orderIds.remove(orderId);
+            return orderIds.isEmpty() ? null : orderIds;
+        });
+    }
+    
+    /**
+     * Scales speed by how well the heading lines up with the bearing to the next stop:
+     * full speed when heading straight at it, half speed when driving directly away.
+     */
+    private double headingFactor(TrackingUpdate update, double targetLat, double targetLon, double toTargetKm) {
+        if (update.getHeading() == null || toTargetKm < 0.05) {
+            return 1.0;
+        }
+        double bearing = GeoDistance.bearingDegrees(update.getLatitude(), update.getLongitude(), targetLat, targetLon);
+        double offCourse = Math.toRadians(update.getHeading() - bearing);
+        return 0.75 + 0.25 * Math.cos(offCourse);
+    }
+    
+    private record Stop(boolean pickup, double latitude, double longitude, LocalDateTime plannedAt) {
+    }
+    
+    private record ShipmentState(
+            String trackingNumber,
+            Long driverId,
+            String status,
+            double pickupLatitude,
+            double pickupLongitude,
+            double deliveryLatitude,
+            double deliveryLongitude,
+            LocalDateTime estimatedPickupTime,
+            LocalDateTime estimatedDeliveryTime,
+            Double speedKmh,
+            Instant pushedEta) {
+        
+        boolean beforePickup() {
+            return BEFORE_PICKUP.contains(status);
+        }
+        
+        Stop pickupStop() {
+            return new Stop(true, pickupLatitude, pickupLongitude, estimatedPickupTime);
+        }
+        
+        Stop deliveryStop() {
+            return new Stop(false, deliveryLatitude, deliveryLongitude, estimatedDeliveryTime);
+        }
+        
+        Stop nextStop() {
+            return beforePickup() ? pickupStop() : deliveryStop();
+        }
+        
+        ShipmentState withSpeed(Double speedKmh, Instant pushedEta) {
+            return new ShipmentState(trackingNumber, driverId, status, pickupLatitude, pickupLongitude,
+                    deliveryLatitude, deliveryLongitude, estimatedPickupTime, estimatedDeliveryTime, speedKmh, pushedEta);
+        }
+    }
+}
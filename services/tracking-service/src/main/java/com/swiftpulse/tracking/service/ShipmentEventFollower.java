@@ -0,0 +1,170 @@
+package com.swiftpulse.tracking.service;
+
+import com.swiftpulse.common.event.ShipmentEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds every shipment event to the {@link EtaEngine}. Each instance needs all shipments,
+ * so the topic is read with manual assignment of every partition from the beginning and
+ * offsets are never committed: a restart rebuilds the state without leaving a consumer
+ * group behind. The topic is compacted by order id and finished shipments are deleted
+ * with a tombstone, so the rebuild reads about one event per open shipment. The engine
+ * is marked ready once the end offsets seen at startup are reached. Partitions added
+ * later are picked up on the next refresh.
+ */
+@Component
+public class ShipmentEventFollower implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(ShipmentEventFollower.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    
+    private final Map<String, Object> consumerConfigs;
+    private final EtaEngine etaEngine;
+    private volatile KafkaConsumer<String, ShipmentEvent> consumer;
+    private volatile Thread thread;
+    
+    @Value("${tracking.eta.partition-refresh-ms:300000}")
+    private long partitionRefreshMs;
+    
+    public ShipmentEventFollower(KafkaProperties kafkaProperties, EtaEngine etaEngine) {
+        this.consumerConfigs = kafkaProperties.buildConsumerProperties(null);
+        this.consumerConfigs.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        this.consumerConfigs.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        this.consumerConfigs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.etaEngine = etaEngine;
+    }
+    
+    @Override
+    public void start() {
+        JsonDeserializer<ShipmentEvent> json = new JsonDeserializer<>(ShipmentEvent.class, false);
+        json.addTrustedPackages("com.swiftpulse.common.event");
+        consumer = new KafkaConsumer<>(consumerConfigs, new StringDeserializer(), new ErrorHandlingDeserializer<>(json));
+        thread = new Thread(this::follow, "shipment-event-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        Thread running = thread;
+        thread = null;
+        if (running != null) {
+            consumer.wakeup();
+            try {
+                running.join(POLL_TIMEOUT.toMillis() * 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return thread != null;
+    }
+    
+    private void follow() {
+        Set<TopicPartition> assigned = new HashSet<>();
+        Map<TopicPartition, Long> startupEnd = new HashMap<>();
+        long startedAt = System.currentTimeMillis();
+        long records = 0;
+        long nextRefresh = 0;
+        try {
+            while (thread != null) {
+                if (System.currentTimeMillis() >= nextRefresh) {
+                    List<TopicPartition> added = assignNewPartitions(assigned);
+                    if (!etaEngine.isReady()) {
+                        startupEnd.putAll(consumer.endOffsets(added));
+                    }
+                    nextRefresh = System.currentTimeMillis() + (assigned.isEmpty() ? POLL_TIMEOUT.toMillis() : partitionRefreshMs);
+                }
+                if (!etaEngine.isReady() && caughtUp(startupEnd)) {
+                    etaEngine.markReady();
+                    log.info("Read {} shipment events from {} partitions of {} in {} ms", records, assigned.size(),
+                            ShipmentEvent.TOPIC, System.currentTimeMillis() - startedAt);
+                }
+                if (assigned.isEmpty()) {
+                    Thread.sleep(POLL_TIMEOUT.toMillis());
+                    continue;
+                }
+                for (ConsumerRecord<String, ShipmentEvent> record : consumer.poll(POLL_TIMEOUT)) {
+                    records++;
+                    try {
+                        if (isTombstone(record)) {
+                            etaEngine.onShipmentDeleted(Long.valueOf(record.key()));
+                        } else {
+                            etaEngine.onShipmentEvent(record.value());
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("Skipping shipment event at {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+                    }
+                }
+            }
+        } catch (WakeupException | InterruptedException e) {
+            // stop() was called
+        } catch (RuntimeException e) {
+            log.error("Shipment event follower stopped, ETAs will no longer be updated", e);
+        } finally {
+            consumer.close();
+        }
+    }
+    
+    /** True once every partition read from the start has reached the end offset seen then; also with none. */
+    private boolean caughtUp(Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /** A null value without a deserialization error is a deleted shipment. */
+    private static boolean isTombstone(ConsumerRecord<String, ShipmentEvent> record) {
+        return record.value() == null && record.key() != null
+                && record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) == null;
+    }
+    
+    private List<TopicPartition> assignNewPartitions(Set<TopicPartition> assigned) {
+        List<TopicPartition> added = new ArrayList<>();
+        List<PartitionInfo> partitions = consumer.partitionsFor(ShipmentEvent.TOPIC);
+        if (partitions == null) {
+            return added;
+        }
+        for (PartitionInfo info : partitions) {
+            TopicPartition partition = new TopicPartition(info.topic(), info.partition());
+            if (assigned.add(partition)) {
+                added.add(partition);
+            }
+        }
+        if (!added.isEmpty()) {
+            consumer.assign(assigned);
+            consumer.seekToBeginning(added);
+            log.info("Following {} partitions of {}", assigned.size(), ShipmentEvent.TOPIC);
+        }
+        return added;
+    }
+}
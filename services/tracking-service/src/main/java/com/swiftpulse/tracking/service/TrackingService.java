@@ -1,81 +1,188 @@
 package com.swiftpulse.tracking.service;
 
+import com.swiftpulse.common.event.DriverLocationEvent;
+import com.swiftpulse.common.event.TrackingPositionEvent;
 import com.swiftpulse.tracking.document.TrackingUpdate;
+import com.swiftpulse.tracking.dto.LocationPing;
 import com.swiftpulse.tracking.repository.TrackingUpdateRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 public class TrackingService {
     
+    /** Marks driver-locations records already stored by {@link #recordPing}. */
+    public static final String STORED_HEADER = "tracking-stored";
+    
     private static final Logger log = LoggerFactory.getLogger(TrackingService.class);
     
     private final TrackingUpdateRepository trackingRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final TrackingUpdateBroadcaster broadcaster;
+    private final EtaEngine etaEngine;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
     
-    public TrackingService(TrackingUpdateRepository trackingRepository, SimpMessagingTemplate messagingTemplate) {
+    public TrackingService(TrackingUpdateRepository trackingRepository, TrackingUpdateBroadcaster broadcaster,
+                           EtaEngine etaEngine, KafkaTemplate<String, Object> kafkaTemplate) {
         this.trackingRepository = trackingRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.broadcaster = broadcaster;
+        this.etaEngine = etaEngine;
+        this.kafkaTemplate = kafkaTemplate;
     }
     
-    public TrackingUpdate updateLocation(Long orderId, String trackingNumber, Long driverId, String driverName,
-                                         Double latitude, Double longitude, Double speed, Double heading,
-                                         String status, String notes) {
-        
+    /**
+     * Publishes a driver ping to the driver-locations topic. It is stored and pushed to
+     * subscribers once {@link #recordPositions} consumes it.
+     */
+    public Mono<DriverLocationEvent> publishPing(LocationPing ping) {
+        DriverLocationEvent event;
+        try {
+            event = toEvent(ping);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        return Mono.fromFuture(() -> kafkaTemplate.send(DriverLocationEvent.TOPIC, String.valueOf(ping.driverId()), event))
+                .thenReturn(event);
+    }
+    
+    private static DriverLocationEvent toEvent(LocationPing ping) {
+        if (ping.driverId() == null || ping.latitude() == null || ping.longitude() == null) {
+            throw new IllegalArgumentException("driverId, latitude and longitude are required");
+        }
+        return new DriverLocationEvent(ping.driverId(), ping.driverName(), ping.orderId(),
+                ping.trackingNumber(), ping.latitude(), ping.longitude(), ping.speed(), ping.heading(),
+                ping.status(), ping.notes(), Instant.now());
+    }
+    
+    /**
+     * Stores a ping posted over REST right away and returns the stored update, pushing it
+     * like a consumed ping. The ping still goes to the driver-locations topic for
+     * dispatch, marked with {@link #STORED_HEADER} so this service does not store it twice.
+     */
+    public Mono<TrackingUpdate> recordPing(LocationPing ping) {
+        if (ping.orderId() == null || ping.trackingNumber() == null) {
+            return Mono.error(new IllegalArgumentException("orderId and trackingNumber are required"));
+        }
+        DriverLocationEvent event;
+        try {
+            event = toEvent(ping);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        ProducerRecord<String, Object> record = new ProducerRecord<>(DriverLocationEvent.TOPIC,
+                String.valueOf(ping.driverId()), event);
+        record.headers().add(STORED_HEADER, new byte[] {1});
+        return trackingRepository.insert(toTrackingUpdate(event))
+                .doOnNext(saved -> {
+                    broadcast(saved);
+                    etaEngine.onPosition(saved);
+                    publishPosition(saved);
+                })
+                .flatMap(saved -> Mono.fromFuture(() -> kafkaTemplate.send(record))
+                        .thenReturn(saved)
+                        .onErrorResume(e -> {
+                            // The update is stored; dispatch catches up with the driver's next ping
+                            log.warn("Failed to publish ping of driver {} for dispatch: {}", ping.driverId(), e.getMessage());
+                            return Mono.just(saved);
+                        }));
+    }
+    
+    /**
+     * Stores the delivery pings of a batch in one insert, then pushes each to WebSocket
+     * subscribers, the ETA engine and the tracking-events topic. Pings without an order are dispatch-only
+     * and are not kept in the history.
+     */
+    public Mono<Void> recordPositions(List<DriverLocationEvent> events) {
+        List<TrackingUpdate> updates = new ArrayList<>();
+        for (DriverLocationEvent event : events) {
+            if (event.orderId() != null && event.trackingNumber() != null) {
+                updates.add(toTrackingUpdate(event));
+            }
+        }
+        if (updates.isEmpty()) {
+            return Mono.empty();
+        }
+        return trackingRepository.insert(updates)
+                .doOnNext(saved -> {
+                    broadcast(saved);
+                    etaEngine.onPosition(saved);
+                    publishPosition(saved);
+                })
+                .then()
+                .doOnSuccess(done -> log.debug("Stored {} tracking updates", updates.size()));
+    }
+    
+    private TrackingUpdate toTrackingUpdate(DriverLocationEvent event) {
         TrackingUpdate update = new TrackingUpdate();
-        update.setOrderId(orderId);
-        update.setTrackingNumber(trackingNumber);
-        update.setDriverId(driverId);
-        update.setDriverName(driverName);
-        update.setLatitude(latitude);
-        update.setLongitude(longitude);
-        update.setSpeed(speed);
-        update.setHeading(heading);
-        update.setStatus(status);
-        update.setNotes(notes);
-        update.setTimestamp(LocalDateTime.now());
-        update.setLocationDescription(getLocationDescription(latitude, longitude));
-        
-        TrackingUpdate saved = trackingRepository.insert(update);
-        log.info("Location updated for order {}: {}, {}", orderId, latitude, longitude);
-        
+        update.setOrderId(event.orderId());
+        update.setTrackingNumber(event.trackingNumber());
+        update.setDriverId(event.driverId());
+        update.setDriverName(event.driverName());
+        update.setLatitude(event.latitude());
+        update.setLongitude(event.longitude());
+        update.setSpeed(event.speed());
+        update.setHeading(event.heading());
+        update.setStatus(event.status());
+        update.setNotes(event.notes());
+        update.setTimestamp(event.timestamp() != null
+                ? LocalDateTime.ofInstant(event.timestamp(), ZoneId.systemDefault())
+                : LocalDateTime.now());
+        update.setLocationDescription(getLocationDescription(event.latitude(), event.longitude()));
+        return update;
+    }
+    
+    private void broadcast(TrackingUpdate update) {
         Map<String, Object> locationUpdate = new HashMap<>();
-        locationUpdate.put("orderId", orderId);
-        locationUpdate.put("trackingNumber", trackingNumber);
-        locationUpdate.put("latitude", latitude);
-        locationUpdate.put("longitude", longitude);
-        locationUpdate.put("speed", speed);
-        locationUpdate.put("heading", heading);
-        locationUpdate.put("status", status);
+        locationUpdate.put("orderId", update.getOrderId());
+        locationUpdate.put("trackingNumber", update.getTrackingNumber());
+        locationUpdate.put("latitude", update.getLatitude());
+        locationUpdate.put("longitude", update.getLongitude());
+        locationUpdate.put("speed", update.getSpeed());
+        locationUpdate.put("heading", update.getHeading());
+        locationUpdate.put("status", update.getStatus());
         locationUpdate.put("timestamp", update.getTimestamp().toString());
         
-        messagingTemplate.convertAndSend("/topic/tracking/" + trackingNumber, locationUpdate);
-        messagingTemplate.convertAndSend("/topic/tracking/order/" + orderId, locationUpdate);
-        
-        return saved;
+        broadcaster.publish(TrackingUpdateBroadcaster.trackingDestination(update.getTrackingNumber()), locationUpdate);
+        broadcaster.publish(TrackingUpdateBroadcaster.orderDestination(update.getOrderId()), locationUpdate);
     }
     
-    public Optional<TrackingUpdate> getLatestLocation(String trackingNumber) {
+    private void publishPosition(TrackingUpdate update) {
+        TrackingPositionEvent event = new TrackingPositionEvent(update.getOrderId(), update.getTrackingNumber(),
+                update.getDriverId(), update.getLatitude(), update.getLongitude(), update.getSpeed(), update.getHeading(),
+                update.getStatus(), update.getTimestamp().atZone(ZoneId.systemDefault()).toInstant());
+        kafkaTemplate.send(TrackingPositionEvent.TOPIC, String.valueOf(update.getOrderId()), event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish tracking event for order {}", update.getOrderId(), ex);
+                    }
+                });
+    }
+    
+    public Mono<TrackingUpdate> getLatestLocation(String trackingNumber) {
         return trackingRepository.findFirstByTrackingNumberOrderByTimestampDesc(trackingNumber);
     }
     
-    public List<TrackingUpdate> getLocationHistory(String trackingNumber) {
+    public Flux<TrackingUpdate> getLocationHistory(String trackingNumber) {
         return trackingRepository.findByTrackingNumberOrderByTimestampDesc(trackingNumber);
     }
     
-    public List<TrackingUpdate> getOrderLocationHistory(Long orderId) {
+    public Flux<TrackingUpdate> getOrderLocationHistory(Long orderId) {
         return trackingRepository.findByOrderIdOrderByTimestampDesc(orderId);
     }
     
-    public List<TrackingUpdate> getDriverRoute(Long driverId, LocalDateTime start, LocalDateTime end) {
+    public Flux<TrackingUpdate> getDriverRoute(Long driverId, LocalDateTime start, LocalDateTime end) {
         return trackingRepository.findByDriverIdAndTimestampBetween(driverId, start, end);
     }
     
@@ -83,29 +190,28 @@ public class TrackingService {
         return String.format("Location at %.4f, %.4f", latitude, longitude);
     }
     
-    public Map<String, Object> getCurrentTrackingInfo(String trackingNumber) {
-        Optional<TrackingUpdate> latest = getLatestLocation(trackingNumber);
-        
-        Map<String, Object> info = new HashMap<>();
-        
-        if (latest.isPresent()) {
-            TrackingUpdate update = latest.get();
-            info.put("trackingNumber", trackingNumber);
-            info.put("currentLatitude", update.getLatitude());
-            info.put("currentLongitude", update.getLongitude());
-            info.put("currentLocation", update.getLocationDescription());
-            info.put("status", update.getStatus());
-            info.put("driverName", update.getDriverName());
-            info.put("lastUpdated", update.getTimestamp());
-            info.put("speed", update.getSpeed());
-            info.put("heading", update.getHeading());
-            info.put("found", true);
-        } else {
-            info.put("trackingNumber", trackingNumber);
-            info.put("found", false);
-            info.put("message", "No tracking information available");
-        }
-        
-        return info;
+    public Mono<Map<String, Object>> getCurrentTrackingInfo(String trackingNumber) {
+        return getLatestLocation(trackingNumber)
+                .map(update -> {
+                    Map<String, Object> info = new HashMap<>();
+                    info.put("trackingNumber", trackingNumber);
+                    info.put("currentLatitude", update.getLatitude());
+                    info.put("currentLongitude", update.getLongitude());
+                    info.put("currentLocation", update.getLocationDescription());
+                    info.put("status", update.getStatus());
+                    info.put("driverName", update.getDriverName());
+                    info.put("lastUpdated", update.getTimestamp());
+                    info.put("speed", update.getSpeed());
+                    info.put("heading", update.getHeading());
+                    info.put("found", true);
+                    return info;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    Map<String, Object> info = new HashMap<>();
+                    info.put("trackingNumber", trackingNumber);
+                    info.put("found", false);
+                    info.put("message", "No tracking information available");
+                    return info;
+                }));
     }
 }
@@ -0,0 +1,64 @@
+package com.swiftpulse.tracking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans location updates out to WebSocket subscribers, one hot sink per destination
+ * ({@code tracking/<trackingNumber>} or {@code tracking/order/<orderId>}).
+ * Each subscriber gets a small bounded buffer that drops its oldest entries when the
+ * client cannot keep up, so a slow socket never holds back ingest or other clients.
+ */
+@Component
+public class TrackingUpdateBroadcaster {
+    
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final int subscriberBuffer;
+    
+    public TrackingUpdateBroadcaster(@Value("${tracking.websocket.subscriber-buffer:32}") int subscriberBuffer) {
+        this.subscriberBuffer = subscriberBuffer;
+    }
+    
+    public static String trackingDestination(String trackingNumber) {
+        return "tracking/" + trackingNumber;
+    }
+    
+    public static String orderDestination(Long orderId) {
+        return "tracking/order/" + orderId;
+    }
+    
+    public Flux<Map<String, Object>> subscribe(String destination) {
+        return Flux.defer(() -> topics.compute(destination, (key, topic) -> {
+                    Topic current = topic != null ? topic : new Topic();
+                    current.subscribers++;
+                    return current;
+                }).sink.asFlux())
+                .onBackpressureBuffer(subscriberBuffer, BufferOverflowStrategy.DROP_OLDEST)
+                .doFinally(signal -> topics.computeIfPresent(destination,
+                        (key, topic) -> --topic.subscribers == 0 ? null : topic));
+    }
+    
+    public void publish(String destination, Map<String, Object> update) {
+        Topic topic = topics.get(destination);
+        if (topic == null) {
+            return;
+        }
+        Sinks.Many<Map<String, Object>> sink = topic.sink;
+        // Concurrent ingest threads may race on the same sink; retry only the non-serialized case
+        while (sink.tryEmitNext(update) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            Thread.onSpinWait();
+        }
+    }
+    
+    // Subscriber count is only touched inside map compute calls, which serialize per key
+    private static final class Topic {
+        private final Sinks.Many<Map<String, Object>> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+    }
+}
@@ -0,0 +1,66 @@
+package com.swiftpulse.tracking.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.tracking.dto.LocationPing;
+import com.swiftpulse.tracking.service.TrackingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Accepts a stream of driver pings on one socket and publishes them to the driver-locations
+ * topic. Frames are only read as fast as Kafka acknowledges them (at most
+ * {@code tracking.ingest.concurrency} in flight per connection), so a stalled broker pushes
+ * back through the socket to the sender instead of buffering on the heap. Each ping is
+ * acknowledged in order once it is on the topic.
+ */
+@Component
+public class LocationIngestHandler implements WebSocketHandler {
+    
+    private static final Logger log = LoggerFactory.getLogger(LocationIngestHandler.class);
+    
+    private final TrackingService trackingService;
+    private final ObjectMapper objectMapper;
+    private final int concurrency;
+    
+    public LocationIngestHandler(TrackingService trackingService, ObjectMapper objectMapper,
+                                 @Value("${tracking.ingest.concurrency:16}") int concurrency) {
+        this.trackingService = trackingService;
+        this.objectMapper = objectMapper;
+        this.concurrency = concurrency;
+    }
+    
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        return session.send(session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .flatMapSequential(this::ingest, concurrency, 1)
+                .map(ack -> session.textMessage(toJson(ack))));
+    }
+    
+    private Mono<Map<String, Object>> ingest(String payload) {
+        return Mono.fromCallable(() -> objectMapper.readValue(payload, LocationPing.class))
+                .flatMap(trackingService::publishPing)
+                .<Map<String, Object>>map(event -> Map.of("driverId", event.driverId(), "timestamp", event.timestamp()))
+                .onErrorResume(e -> {
+                    log.warn("Rejected location ping: {}", e.getMessage());
+                    return Mono.just(Map.of("error", String.valueOf(e.getMessage())));
+                });
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ingest acknowledgement", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.swiftpulse.tracking.websocket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A STOMP 1.2 frame as carried in WebSocket text messages: command line, headers, a
+ * blank line, the body and a NUL terminator. Header names and values are escaped as
+ * STOMP 1.2 requires, except in CONNECT and CONNECTED frames. Bodies are read up to the
+ * next NUL; subscribers never send bodies that contain one.
+ */
+record StompFrame(String command, Map<String, String> headers, String body) {
+    
+    static final String CONNECT = "CONNECT";
+    static final String STOMP = "STOMP";
+    static final String CONNECTED = "CONNECTED";
+    
+    StompFrame {
+        headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        body = body != null ? body : "";
+    }
+    
+    static StompFrame of(String command, Map<String, String> headers) {
+        return new StompFrame(command, headers, "");
+    }
+    
+    String header(String name) {
+        return headers.get(name);
+    }
+    
+    String encode() {
+        boolean escape = escapesHeaders(command);
+        StringBuilder out = new StringBuilder(command).append('\n');
+        headers.forEach((name, value) -> out.append(escape ? escape(name) : name).append(':')
+                .append(escape ? escape(value) : value).append('\n'));
+        return out.append('\n').append(body).append('\0').toString();
+    }
+    
+    /**
+     * Removes the complete frames from the buffer and returns them, skipping the EOLs
+     * clients send between frames as heart-beats. A trailing partial frame stays in the
+     * buffer until the rest arrives.
+     */
+    static List<StompFrame> decode(StringBuilder buffer) {
+        List<StompFrame> frames = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            while (start < buffer.length() && (buffer.charAt(start) == '\n' || buffer.charAt(start) == '\r')) {
+                start++;
+            }
+            int end = buffer.indexOf("\0", start);
+            if (end < 0) {
+                break;
+            }
+            frames.add(parse(buffer.substring(start, end)));
+            start = end + 1;
+        }
+        buffer.delete(0, start);
+        return frames;
+    }
+    
+    private static StompFrame parse(String raw) {
+        int headerEnd = raw.indexOf("\n\n");
+        int bodyStart = headerEnd + 2;
+        int crlfEnd = raw.indexOf("\r\n\r\n");
+        if (crlfEnd >= 0 && (headerEnd < 0 || crlfEnd < headerEnd)) {
+            headerEnd = crlfEnd;
+            bodyStart = crlfEnd + 4;
+        }
+        if (headerEnd < 0) {
+            // A frame without headers or body may end right after its command
+            headerEnd = raw.length();
+            bodyStart = raw.length();
+        }
+        String[] lines = raw.substring(0, headerEnd).split("\r?\n");
+        String command = lines[0].trim();
+        if (command.isEmpty()) {
+            throw new IllegalArgumentException("STOMP frame without a command");
+        }
+        boolean escaped = escapesHeaders(command);
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Malformed STOMP header: " + lines[i]);
+            }
+            String name = lines[i].substring(0, colon);
+            String value = lines[i].substring(colon + 1);
+            // Repeated headers: only the first occurrence counts
+            headers.putIfAbsent(escaped ? unescape(name) : name, escaped ? unescape(value) : value);
+        }
+        return new StompFrame(command, headers, raw.substring(Math.min(bodyStart, raw.length())));
+    }
+    
+    private static boolean escapesHeaders(String command) {
+        return !CONNECT.equals(command) && !CONNECTED.equals(command) && !STOMP.equals(command);
+    }
+    
+    private static String escape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case ':' -> out.append("\\c");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+    
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (++i == value.length()) {
+                throw new IllegalArgumentException("Dangling escape in STOMP header: " + value);
+            }
+            switch (value.charAt(i)) {
+                case '\\' -> out.append('\\');
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                case 'c' -> out.append(':');
+                default -> throw new IllegalArgumentException("Undefined escape in STOMP header: " + value);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,274 @@
+package com.swiftpulse.tracking.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.tracking.service.TrackingUpdateBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the STOMP contract tracking-service had on the servlet stack: clients connect
+ * to {@code /ws/tracking} through SockJS, or with plain WebSocket at
+ * {@code /ws/tracking/websocket}, and subscribe to {@code /topic/tracking/<trackingNumber>}
+ * or {@code /topic/tracking/order/<orderId>}. Messages carry the same JSON as before.
+ * <p>
+ * Only what subscribers use is implemented: CONNECT, SUBSCRIBE, UNSUBSCRIBE, DISCONNECT
+ * and receipts. SEND and transaction frames are accepted and dropped, as the old broker
+ * had no application handlers, and heart-beats are declined like the old simple broker
+ * did. SockJS is served over its WebSocket transport only.
+ */
+@Component
+public class StompSubscriptionHandler implements WebSocketHandler {
+    
+    public static final String ENDPOINT = "/ws/tracking";
+    
+    private static final Logger log = LoggerFactory.getLogger(StompSubscriptionHandler.class);
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final List<String> VERSIONS = List.of("1.2", "1.1", "1.0");
+    private static final List<String> SUB_PROTOCOLS = List.of("v12.stomp", "v11.stomp", "v10.stomp");
+    private static final Duration SOCKJS_HEARTBEAT = Duration.ofSeconds(25);
+    
+    private final TrackingUpdateBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+    
+    public StompSubscriptionHandler(TrackingUpdateBroadcaster broadcaster, ObjectMapper objectMapper) {
+        this.broadcaster = broadcaster;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public List<String> getSubProtocols() {
+        return SUB_PROTOCOLS;
+    }
+    
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        String path = session.getHandshakeInfo().getUri().getPath();
+        // SockJS sessions arrive on /ws/tracking/{server}/{session}/websocket
+        boolean sockJs = path.endsWith("/websocket") && !path.endsWith(ENDPOINT + "/websocket");
+        Connection connection = new Connection(session.getId());
+        
+        Mono<Void> input = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .concatMapIterable(text -> sockJs ? unwrapSockJs(text) : List.of(text))
+                .doOnNext(connection::onText)
+                .doFinally(signal -> connection.close())
+                .then();
+        
+        Flux<String> frames = connection.outbound().map(StompFrame::encode);
+        Flux<String> outbound = !sockJs ? frames : Flux.merge(
+                        frames.map(this::wrapSockJs),
+                        Flux.interval(SOCKJS_HEARTBEAT).map(tick -> "h").takeUntilOther(connection.closed()))
+                .startWith("o");
+        Mono<Void> output = session.send(outbound.map(session::textMessage)).then(session.close());
+        return Mono.when(input, output);
+    }
+    
+    private List<String> unwrapSockJs(String text) {
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return text.startsWith("[") ? List.of(objectMapper.readValue(text, String[].class))
+                    : List.of(objectMapper.readValue(text, String.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed SockJS message", e);
+        }
+    }
+    
+    private String wrapSockJs(String frame) {
+        try {
+            return "a" + objectMapper.writeValueAsString(new String[] {frame});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode SockJS message", e);
+        }
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize tracking update", e);
+        }
+    }
+    
+    /**
+     * The STOMP state of one socket. Frames are handled on the socket's inbound signal,
+     * which is serial; messages are built on the broadcasting threads.
+     */
+    private final class Connection {
+        
+        private final String sessionId;
+        private final StringBuilder buffer = new StringBuilder();
+        private final Sinks.Many<StompFrame> control = Sinks.many().unicast().onBackpressureBuffer();
+        private final Sinks.Many<Flux<StompFrame>> subscriptions = Sinks.many().unicast().onBackpressureBuffer();
+        private final Map<String, Sinks.Empty<Void>> active = new HashMap<>();
+        private final Sinks.Empty<Void> closed = Sinks.empty();
+        private final AtomicLong messageIds = new AtomicLong();
+        private boolean connected;
+        private boolean done;
+        
+        Connection(String sessionId) {
+            this.sessionId = sessionId;
+        }
+        
+        Flux<StompFrame> outbound() {
+            return Flux.merge(control.asFlux(), subscriptions.asFlux().flatMap(Function.identity(), Integer.MAX_VALUE));
+        }
+        
+        Mono<Void> closed() {
+            return closed.asMono();
+        }
+        
+        void onText(String text) {
+            if (done) {
+                return;
+            }
+            buffer.append(text);
+            List<StompFrame> frames;
+            try {
+                frames = StompFrame.decode(buffer);
+            } catch (IllegalArgumentException e) {
+                error(e.getMessage(), null);
+                return;
+            }
+            for (StompFrame frame : frames) {
+                if (done) {
+                    return;
+                }
+                onFrame(frame);
+            }
+        }
+        
+        private void onFrame(StompFrame frame) {
+            String command = frame.command();
+            if (StompFrame.CONNECT.equals(command) || StompFrame.STOMP.equals(command)) {
+                connect(frame);
+                return;
+            }
+            if (!connected) {
+                error("Expected CONNECT but got " + command, frame);
+                return;
+            }
+            switch (command) {
+                case "SUBSCRIBE" -> subscribe(frame);
+                case "UNSUBSCRIBE" -> unsubscribe(frame.header("id"));
+                case "DISCONNECT" -> {
+                    receipt(frame);
+                    close();
+                    return;
+                }
+                case "SEND", "ACK", "NACK", "BEGIN", "COMMIT", "ABORT" -> {
+                    // Nothing consumes client messages on this endpoint
+                }
+                default -> {
+                    error("Unsupported STOMP command " + command, frame);
+                    return;
+                }
+            }
+            receipt(frame);
+        }
+        
+        private void connect(StompFrame frame) {
+            String accepted = frame.header("accept-version");
+            Set<String> offered = accepted == null ? Set.of("1.0")
+                    : Arrays.stream(accepted.split(",")).map(String::trim).collect(Collectors.toSet());
+            String version = VERSIONS.stream().filter(offered::contains).findFirst().orElse(null);
+            if (version == null) {
+                error("Supported protocol versions are " + String.join(",", VERSIONS), frame);
+                return;
+            }
+            connected = true;
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("version", version);
+            headers.put("heart-beat", "0,0");
+            control.tryEmitNext(StompFrame.of(StompFrame.CONNECTED, headers));
+        }
+        
+        private void subscribe(StompFrame frame) {
+            String destination = frame.header("destination");
+            if (destination == null) {
+                error("SUBSCRIBE without a destination", frame);
+                return;
+            }
+            // STOMP 1.0 made the id optional
+            String id = frame.header("id") != null ? frame.header("id") : destination;
+            unsubscribe(id);
+            if (!destination.startsWith(TOPIC_PREFIX)) {
+                // The old broker accepted these too and never delivered anything to them
+                return;
+            }
+            Sinks.Empty<Void> stop = Sinks.empty();
+            active.put(id, stop);
+            subscriptions.tryEmitNext(broadcaster.subscribe(destination.substring(TOPIC_PREFIX.length()))
+                    .map(update -> message(destination, id, toJson(update)))
+                    .takeUntilOther(stop.asMono()));
+        }
+        
+        private void unsubscribe(String id) {
+            Sinks.Empty<Void> stop = id != null ? active.remove(id) : null;
+            if (stop != null) {
+                stop.tryEmitEmpty();
+            }
+        }
+        
+        private StompFrame message(String destination, String subscription, String json) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("destination", destination);
+            headers.put("content-type", "application/json");
+            headers.put("subscription", subscription);
+            headers.put("message-id", sessionId + "-" + messageIds.getAndIncrement());
+            headers.put("content-length", String.valueOf(json.getBytes(StandardCharsets.UTF_8).length));
+            return new StompFrame("MESSAGE", headers, json);
+        }
+        
+        private void receipt(StompFrame frame) {
+            String receipt = frame.header("receipt");
+            if (receipt != null) {
+                control.tryEmitNext(StompFrame.of("RECEIPT", Map.of("receipt-id", receipt)));
+            }
+        }
+        
+        /** Sends an ERROR frame and closes the connection, as STOMP requires. */
+        private void error(String message, StompFrame frame) {
+            log.debug("Closing STOMP session {}: {}", sessionId, message);
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("message", message);
+            if (frame != null && frame.header("receipt") != null) {
+                headers.put("receipt-id", frame.header("receipt"));
+            }
+            control.tryEmitNext(StompFrame.of("ERROR", headers));
+            close();
+        }
+        
+        void close() {
+            if (done) {
+                return;
+            }
+            done = true;
+            List.copyOf(active.keySet()).forEach(this::unsubscribe);
+            subscriptions.tryEmitComplete();
+            control.tryEmitComplete();
+            closed.tryEmitEmpty();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.swiftpulse.tracking.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.tracking.service.TrackingUpdateBroadcaster;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams live location updates to clients without a STOMP stack: one plain WebSocket per
+ * destination at {@code /ws/v2/tracking/<trackingNumber>} or
+ * {@code /ws/v2/tracking/order/<orderId>}, each frame carrying the JSON payload of the
+ * matching STOMP destination served by {@link StompSubscriptionHandler}.
+ */
+@Component
+public class TrackingSubscriptionHandler implements WebSocketHandler {
+    
+    private static final String PREFIX = "/ws/v2/";
+    
+    private final TrackingUpdateBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+    
+    public TrackingSubscriptionHandler(TrackingUpdateBroadcaster broadcaster, ObjectMapper objectMapper) {
+        this.broadcaster = broadcaster;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        String path = session.getHandshakeInfo().getUri().getPath();
+        String destination = path.substring(path.indexOf(PREFIX) + PREFIX.length());
+        
+        // Completing on client close releases the subscription even though the sink never completes
+        Mono<Void> closed = session.receive().then();
+        return session.send(broadcaster.subscribe(destination)
+                        .takeUntilOther(closed)
+                        .map(update -> session.textMessage(toJson(update))));
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize tracking update", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.swiftpulse.tracking.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StompFrameTest {
+    
+    @Test
+    void decode_WithHeartbeatsAndTwoFrames_ShouldReturnBoth() {
+        StringBuilder buffer = new StringBuilder("\n\nSUBSCRIBE\nid:sub-0\ndestination:/topic/tracking/TN1\n\n\0"
+                + "\r\nUNSUBSCRIBE\r\nid:sub-0\r\n\r\n\0");
+        
+        List<StompFrame> frames = StompFrame.decode(buffer);
+        
+        assertEquals(2, frames.size());
+        assertEquals("SUBSCRIBE", frames.get(0).command());
+        assertEquals("/topic/tracking/TN1", frames.get(0).header("destination"));
+        assertEquals("UNSUBSCRIBE", frames.get(1).command());
+        assertEquals("sub-0", frames.get(1).header("id"));
+        assertEquals(0, buffer.length());
+    }
+    
+    @Test
+    void decode_WithPartialFrame_ShouldKeepItBuffered() {
+        StringBuilder buffer = new StringBuilder("CONNECT\naccept-version:1.2\n\n\0SUBSCRIBE\nid:");
+        
+        assertEquals(1, StompFrame.decode(buffer).size());
+        assertEquals("SUBSCRIBE\nid:", buffer.toString());
+        
+        buffer.append("s\ndestination:/topic/x\n\n\0");
+        List<StompFrame> frames = StompFrame.decode(buffer);
+        assertEquals("s", frames.get(0).header("id"));
+    }
+    
+    @Test
+    void decode_WithRepeatedHeader_ShouldKeepFirstValue() {
+        StringBuilder buffer = new StringBuilder("SUBSCRIBE\nid:first\nid:second\ndestination:/topic/x\n\n\0");
+        
+        assertEquals("first", StompFrame.decode(buffer).get(0).header("id"));
+    }
+    
+    @Test
+    void decode_WithEscapedHeader_ShouldUnescapeExceptInConnect() {
+        StringBuilder buffer = new StringBuilder("SUBSCRIBE\nid:a\\cb\\\\c\\nd\ndestination:/topic/x\n\n\0"
+                + "CONNECT\nlogin:a\\cb\n\n\0");
+        
+        List<StompFrame> frames = StompFrame.decode(buffer);
+        
+        assertEquals("a:b\\c\nd", frames.get(0).header("id"));
+        assertEquals("a\\cb", frames.get(1).header("login"));
+    }
+    
+    @Test
+    void decode_WithUndefinedEscape_ShouldThrow() {
+        StringBuilder buffer = new StringBuilder("SUBSCRIBE\nid:a\\tb\n\n\0");
+        
+        assertThrows(IllegalArgumentException.class, () -> StompFrame.decode(buffer));
+    }
+    
+    @Test
+    void encode_ShouldEscapeHeadersAndTerminateWithNul() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("destination", "/topic/tracking/a:b");
+        headers.put("subscription", "sub-0");
+        
+        String encoded = new StompFrame("MESSAGE", headers, "{\"orderId\":7}").encode();
+        
+        assertEquals("MESSAGE\ndestination:/topic/tracking/a\\cb\nsubscription:sub-0\n\n{\"orderId\":7}\0", encoded);
+        assertEquals(new StompFrame("MESSAGE", headers, "{\"orderId\":7}"), StompFrame.decode(new StringBuilder(encoded)).get(0));
+    }
+}
@@ -0,0 +1,182 @@
+package com.swiftpulse.tracking.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftpulse.tracking.config.WebSocketConfig;
+import com.swiftpulse.tracking.service.TrackingService;
+import com.swiftpulse.tracking.service.TrackingUpdateBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Speaks STOMP to the tracking endpoints over a real socket, the way the servlet broker's
+ * clients did: plain WebSocket with a STOMP sub-protocol and SockJS over its WebSocket
+ * transport.
+ */
+class StompSubscriptionHandlerTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    
+    private AnnotationConfigApplicationContext context;
+    private DisposableServer server;
+    private TrackingUpdateBroadcaster broadcaster;
+    
+    @Configuration
+    @EnableWebFlux
+    @Import(WebSocketConfig.class)
+    static class TestConfig {
+        
+        @Bean
+        TrackingUpdateBroadcaster broadcaster() {
+            return new TrackingUpdateBroadcaster(32);
+        }
+        
+        @Bean
+        StompSubscriptionHandler stompSubscriptionHandler(TrackingUpdateBroadcaster broadcaster) {
+            return new StompSubscriptionHandler(broadcaster, new ObjectMapper());
+        }
+        
+        @Bean
+        TrackingSubscriptionHandler trackingSubscriptionHandler(TrackingUpdateBroadcaster broadcaster) {
+            return new TrackingSubscriptionHandler(broadcaster, new ObjectMapper());
+        }
+        
+        @Bean
+        LocationIngestHandler locationIngestHandler() {
+            return new LocationIngestHandler(Mockito.mock(TrackingService.class), new ObjectMapper(), 1);
+        }
+    }
+    
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(TestConfig.class);
+        broadcaster = context.getBean(TrackingUpdateBroadcaster.class);
+        server = HttpServer.create().port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.applicationContext(context).build()))
+                .bindNow();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+        context.close();
+    }
+    
+    @Test
+    void plainWebSocket_SubscribeToTrackingNumber_ShouldReceiveMessageFrame() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        List<String> subProtocol = new CopyOnWriteArrayList<>();
+        
+        connect("/ws/tracking/websocket", List.of("v12.stomp"), Function.identity(), session -> {
+            subProtocol.add(String.valueOf(session.getHandshakeInfo().getSubProtocol()));
+            return Flux.just("CONNECT\naccept-version:1.1,1.2\nheart-beat:10000,10000\n\n\0",
+                    "SUBSCRIBE\nid:sub-0\ndestination:/topic/tracking/TN1\nreceipt:r-1\n\n\0");
+        }, received, 3);
+        
+        assertEquals(List.of("v12.stomp"), subProtocol);
+        assertTrue(received.get(0).startsWith("CONNECTED\nversion:1.2\nheart-beat:0,0\n"), received.get(0));
+        assertEquals("RECEIPT\nreceipt-id:r-1\n\n\0", received.get(1));
+        assertTrue(received.get(2).startsWith("MESSAGE\ndestination:/topic/tracking/TN1\ncontent-type:application/json\n"
+                + "subscription:sub-0\n"), received.get(2));
+        assertTrue(received.get(2).endsWith("\n\n{\"orderId\":7}\0"), received.get(2));
+    }
+    
+    @Test
+    void sockJs_SubscribeToOrder_ShouldReceiveWrappedFrames() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        
+        connect("/ws/tracking/123/abcdef/websocket", List.of(), text -> text.startsWith("a[\"RECEIPT") ? "RECEIPT" : text,
+                session -> Flux.just("[\"CONNECT\\naccept-version:1.2\\n\\n\\u0000\"]",
+                        "[\"SUBSCRIBE\\nid:sub-0\\ndestination:/topic/tracking/order/7\\nreceipt:r-1\\n\\n\\u0000\"]"),
+                received, 4, "tracking/order/7");
+        
+        assertEquals("o", received.get(0));
+        assertTrue(received.get(1).startsWith("a[\"CONNECTED\\nversion:1.2\\n"), received.get(1));
+        assertTrue(received.get(3).startsWith("a[\"MESSAGE\\ndestination:/topic/tracking/order/7\\n"), received.get(3));
+    }
+    
+    @Test
+    void subscribeBeforeConnect_ShouldSendErrorAndClose() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        
+        connect("/ws/tracking/websocket", List.of("v12.stomp"), Function.identity(),
+                session -> Flux.just("SUBSCRIBE\nid:sub-0\ndestination:/topic/tracking/TN1\n\n\0"), received, 1);
+        
+        assertTrue(received.get(0).startsWith("ERROR\nmessage:Expected CONNECT but got SUBSCRIBE\n"), received.get(0));
+    }
+    
+    @Test
+    void sockJsInfo_ShouldOfferWebSocketTransport() {
+        WebTestClient.bindToApplicationContext(context).build()
+                .get().uri("/ws/tracking/info")
+                .header("Origin", "http://localhost:3000")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Access-Control-Allow-Origin", "http://localhost:3000")
+                .expectBody()
+                .jsonPath("$.websocket").isEqualTo(true)
+                .jsonPath("$.cookie_needed").isEqualTo(false);
+    }
+    
+    private void connect(String path, List<String> subProtocols, Function<String, String> receiptOf,
+                         Function<WebSocketSession, Flux<String>> frames, List<String> received, int expected) {
+        connect(path, subProtocols, receiptOf, frames, received, expected, "tracking/TN1");
+    }
+    
+    /** Sends the frames, publishes an update once the subscription receipt arrives and collects what comes back. */
+    private void connect(String path, List<String> subProtocols, Function<String, String> receiptOf,
+                         Function<WebSocketSession, Flux<String>> frames, List<String> received, int expected,
+                         String destination) {
+        WebSocketHandler client = new WebSocketHandler() {
+            @Override
+            public List<String> getSubProtocols() {
+                return subProtocols;
+            }
+            
+            @Override
+            public Mono<Void> handle(WebSocketSession session) {
+                Mono<Void> in = session.receive()
+                        .map(WebSocketMessage::getPayloadAsText)
+                        .doOnNext(text -> {
+                            received.add(text);
+                            if (receiptOf.apply(text).startsWith("RECEIPT")) {
+                                broadcaster.publish(destination, Map.of("orderId", 7));
+                            }
+                        })
+                        .take(expected)
+                        .then();
+                return Mono.when(session.send(frames.apply(session).map(session::textMessage)), in);
+            }
+        };
+        new ReactorNettyWebSocketClient()
+                .execute(URI.create("ws://localhost:" + server.port() + path), client)
+                .block(TIMEOUT);
+        assertEquals(expected, received.size(), String.valueOf(received));
+    }
+}